@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+#
+# Compare the JVM and native builds: time to first successful request, resident memory after
+# startup and under load, and sequential throughput against the office-types and find-offices
+# endpoints.
+#
+# Build both first:
+#   mvn -B -DskipTests package
+#   mvn -B -Pnative -DskipTests native:compile
+#
+# Usage: scripts/compare-native.sh <soap-service-url> [requests]
+#
+set -euo pipefail
+
+SOAP_URL=${1:?usage: $0 <soap-service-url> [requests]}
+REQUESTS=${2:-500}
+PORT=${PORT:-18080}
+BASE="http://localhost:${PORT}/api/authorization"
+
+cd "$(dirname "$0")/.."
+JAR=$(ls target/java_ws_example-*.jar 2>/dev/null | grep -v original | head -1 || true)
+NATIVE=target/authorization-soap-client
+
+rss_mb() {
+    awk '/VmRSS/ { printf "%.1f", $2 / 1024 }' "/proc/$1/status"
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+measure() {
+    local label=$1; shift
+    local start pid ready elapsed
+    start=$(now_ms)
+    "$@" --server.port="$PORT" --soap.service.url="$SOAP_URL" > "target/compare-${label}.log" 2>&1 &
+    pid=$!
+    trap 'kill $pid 2>/dev/null' RETURN
+
+    until curl -sf -o /dev/null "${BASE}/office-types"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "${label}: process exited, see target/compare-${label}.log" >&2
+            return 1
+        fi
+        sleep 0.02
+    done
+    ready=$(( $(now_ms) - start ))
+    local idle_rss
+    idle_rss=$(rss_mb "$pid")
+
+    start=$(now_ms)
+    for _ in $(seq 1 "$REQUESTS"); do
+        curl -sf -o /dev/null "${BASE}/find-offices?eauthId=E1&officeTypes=FSA&applicationId=compare&requestHost=localhost"
+    done
+    elapsed=$(( $(now_ms) - start ))
+
+    printf "%-8s first request %6d ms   RSS idle %7s MB   RSS loaded %7s MB   %7s req/s\n" \
+        "$label" "$ready" "$idle_rss" "$(rss_mb "$pid")" "$(awk -v n="$REQUESTS" -v ms="$elapsed" 'BEGIN { printf "%.1f", n * 1000 / ms }')"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+if [ -f "$JAR" ]; then
+    measure jvm java -jar "$JAR"
+else
+    echo "jvm: no jar in target/, run mvn package" >&2
+fi
+if [ -x "$NATIVE" ]; then
+    measure native "$NATIVE"
+else
+    echo "native: $NATIVE not found, run mvn -Pnative native:compile" >&2
+fi
@@ -0,0 +1,54 @@
+package com.example.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable cache entry; refreshes replace the entry rather than mutating it.
+ * Only the access counter is mutable, and it is carried over when an entry is replaced.
+ */
+public class CacheEntry<V> {
+
+    private final V value;
+    private final long loadedAtMillis;
+    private final boolean pinned;
+    private final AtomicInteger accessCount;
+
+    public CacheEntry(V value, long loadedAtMillis, boolean pinned) {
+        this(value, loadedAtMillis, pinned, 0);
+    }
+
+    public CacheEntry(V value, long loadedAtMillis, boolean pinned, int accessCount) {
+        this.value = value;
+        this.loadedAtMillis = loadedAtMillis;
+        this.pinned = pinned;
+        this.accessCount = new AtomicInteger(accessCount);
+    }
+
+    public V getValue() { return value; }
+    public long getLoadedAtMillis() { return loadedAtMillis; }
+
+    /**
+     * Pinned entries belong to the configured mirror scope and are kept fresh by the refresh job
+     */
+    public boolean isPinned() { return pinned; }
+
+    public long ageMillis(long nowMillis) {
+        return nowMillis - loadedAtMillis;
+    }
+
+    /**
+     * Recent read count, decayed by {@link LookupCache#hotKeysExpiringWithin}
+     */
+    public int getAccessCount() { return accessCount.get(); }
+
+    void recordAccess() {
+        accessCount.incrementAndGet();
+    }
+
+    /**
+     * Halve the access count and return the value it had before
+     */
+    int decayAccessCount() {
+        return accessCount.getAndUpdate(count -> count >>> 1);
+    }
+}
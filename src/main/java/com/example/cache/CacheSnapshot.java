@@ -0,0 +1,317 @@
+package com.example.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Binary snapshot of dictionary-encoded caches, written and read through memory-mapped files.
+ * <p>
+ * Layout (all integers big-endian, strings as an int byte length followed by UTF-8 bytes):
+ * <pre>
+ * int magic, int version, long createdAtMillis
+ * int tableCount; per table: string name, int symbolCount, symbolCount x string
+ * int cacheCount; per cache: string name, string tableName, int entryCount;
+ *     per entry: string key, long loadedAtMillis, byte pinned, int codeCount, codeCount x int code
+ * </pre>
+ * Opening a snapshot only indexes symbol and entry offsets. Entries are decoded when they are
+ * taken, and each entry can be taken once.
+ */
+public final class CacheSnapshot {
+
+    private static final int MAGIC = 0x415A4D53;
+    private static final int VERSION = 1;
+    private static final int INITIAL_MAPPING_BYTES = 1 << 20;
+
+    private final ByteBuffer buffer;
+    private final long createdAtMillis;
+    private final Map<String, Dictionary> dictionariesByCache = new HashMap<>();
+    private final Map<String, ConcurrentHashMap<String, Integer>> entryOffsets = new HashMap<>();
+
+    /**
+     * Entry decoded from a snapshot
+     */
+    public static class RestoredEntry {
+        private final List<String> values;
+        private final long loadedAtMillis;
+        private final boolean pinned;
+
+        RestoredEntry(List<String> values, long loadedAtMillis, boolean pinned) {
+            this.values = values;
+            this.loadedAtMillis = loadedAtMillis;
+            this.pinned = pinned;
+        }
+
+        public List<String> getValues() { return values; }
+        public long getLoadedAtMillis() { return loadedAtMillis; }
+        public boolean isPinned() { return pinned; }
+    }
+
+    /**
+     * Symbol offsets of one table, decoded to strings on first use
+     */
+    private static class Dictionary {
+        private final int[] offsets;
+        private final String[] decoded;
+
+        Dictionary(int[] offsets) {
+            this.offsets = offsets;
+            this.decoded = new String[offsets.length];
+        }
+    }
+
+    private CacheSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+
+        int position = 0;
+        if (buffer.getInt(position) != MAGIC || buffer.getInt(position + 4) != VERSION) {
+            throw new IllegalStateException("Not a cache snapshot, or unsupported snapshot version");
+        }
+        this.createdAtMillis = buffer.getLong(position + 8);
+        position += 16;
+
+        Map<String, Dictionary> dictionaries = new HashMap<>();
+        int tableCount = buffer.getInt(position);
+        position += 4;
+        for (int t = 0; t < tableCount; t++) {
+            String tableName = readString(position);
+            position += 4 + buffer.getInt(position);
+            int symbolCount = buffer.getInt(position);
+            position += 4;
+            int[] offsets = new int[symbolCount];
+            for (int i = 0; i < symbolCount; i++) {
+                offsets[i] = position;
+                position += 4 + buffer.getInt(position);
+            }
+            dictionaries.put(tableName, new Dictionary(offsets));
+        }
+
+        int cacheCount = buffer.getInt(position);
+        position += 4;
+        for (int c = 0; c < cacheCount; c++) {
+            String cacheName = readString(position);
+            position += 4 + buffer.getInt(position);
+            String tableName = readString(position);
+            position += 4 + buffer.getInt(position);
+            int entryCount = buffer.getInt(position);
+            position += 4;
+
+            ConcurrentHashMap<String, Integer> offsets = new ConcurrentHashMap<>(Math.max(16, entryCount * 2));
+            for (int e = 0; e < entryCount; e++) {
+                String key = readString(position);
+                position += 4 + buffer.getInt(position);
+                offsets.put(key, position);
+                int codeCount = buffer.getInt(position + 9);
+                position += 13 + 4 * codeCount;
+            }
+            dictionariesByCache.put(cacheName, dictionaries.get(tableName));
+            entryOffsets.put(cacheName, offsets);
+        }
+    }
+
+    /**
+     * Map an existing snapshot file and index its contents
+     */
+    public static CacheSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CacheSnapshot(mapping);
+        }
+    }
+
+    public long getCreatedAtMillis() { return createdAtMillis; }
+
+    public int remaining() {
+        int remaining = 0;
+        for (Map<String, Integer> offsets : entryOffsets.values()) {
+            remaining += offsets.size();
+        }
+        return remaining;
+    }
+
+    /**
+     * Decode and remove an entry, or return null if the snapshot does not hold it
+     */
+    public RestoredEntry take(String cacheName, String key) {
+        Map<String, Integer> offsets = entryOffsets.get(cacheName);
+        Integer offset = offsets != null ? offsets.remove(key) : null;
+        if (offset == null) {
+            return null;
+        }
+
+        Dictionary dictionary = dictionariesByCache.get(cacheName);
+        long loadedAtMillis = buffer.getLong(offset);
+        boolean pinned = buffer.get(offset + 8) != 0;
+        int codeCount = buffer.getInt(offset + 9);
+        List<String> values = new ArrayList<>(codeCount);
+        for (int i = 0; i < codeCount; i++) {
+            values.add(symbol(dictionary, buffer.getInt(offset + 13 + 4 * i)));
+        }
+        return new RestoredEntry(values, loadedAtMillis, pinned);
+    }
+
+    /**
+     * Drop matching entries without decoding them, so invalidated keys cannot be restored later
+     */
+    public int discard(String cacheName, Predicate<String> keyPredicate) {
+        Map<String, Integer> offsets = entryOffsets.get(cacheName);
+        if (offsets == null) {
+            return 0;
+        }
+        int before = offsets.size();
+        offsets.keySet().removeIf(keyPredicate);
+        return before - offsets.size();
+    }
+
+    private String symbol(Dictionary dictionary, int code) {
+        String value = dictionary.decoded[code];
+        if (value == null) {
+            value = readString(dictionary.offsets[code]);
+            dictionary.decoded[code] = value;
+        }
+        return value;
+    }
+
+    private String readString(int position) {
+        byte[] bytes = new byte[buffer.getInt(position)];
+        buffer.get(position + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write the caches and the symbols their entries reference to the given path. Symbols are
+     * renumbered per table name from the captured entries, so symbols no live entry uses are not
+     * persisted, and entries encoded against an older instance of a table (before it was rebuilt)
+     * share a dictionary with the rest. The snapshot is written to a temporary file and moved into
+     * place, so readers never see a partial file.
+     */
+    public static void write(Path path, Map<String, LookupCache<CompactStringList>> caches) throws IOException {
+        Map<String, List<Map.Entry<String, CacheEntry<CompactStringList>>>> captured = new LinkedHashMap<>();
+        Map<String, Map<String, Integer>> dictionaries = new LinkedHashMap<>();
+        Map<String, String> cacheTables = new HashMap<>();
+        for (Map.Entry<String, LookupCache<CompactStringList>> cache : caches.entrySet()) {
+            List<Map.Entry<String, CacheEntry<CompactStringList>>> entries = new ArrayList<>();
+            cache.getValue().forEachEntry((key, entry) -> entries.add(Map.entry(key, entry)));
+            captured.put(cache.getKey(), entries);
+            for (Map.Entry<String, CacheEntry<CompactStringList>> entry : entries) {
+                CompactStringList values = entry.getValue().getValue();
+                String tableName = values.getTable().getName();
+                cacheTables.putIfAbsent(cache.getKey(), tableName);
+                Map<String, Integer> dictionary = dictionaries.computeIfAbsent(tableName, name -> new HashMap<>());
+                for (String value : values) {
+                    dictionary.putIfAbsent(value, dictionary.size());
+                }
+            }
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedWriter writer = new MappedWriter(channel);
+            writer.putInt(MAGIC);
+            writer.putInt(VERSION);
+            writer.putLong(System.currentTimeMillis());
+
+            writer.putInt(dictionaries.size());
+            for (Map.Entry<String, Map<String, Integer>> dictionary : dictionaries.entrySet()) {
+                String[] symbols = new String[dictionary.getValue().size()];
+                dictionary.getValue().forEach((symbol, code) -> symbols[code] = symbol);
+                writer.putString(dictionary.getKey());
+                writer.putInt(symbols.length);
+                for (String symbol : symbols) {
+                    writer.putString(symbol);
+                }
+            }
+
+            writer.putInt(captured.size());
+            for (Map.Entry<String, List<Map.Entry<String, CacheEntry<CompactStringList>>>> cache : captured.entrySet()) {
+                String tableName = cacheTables.get(cache.getKey());
+                Map<String, Integer> dictionary = tableName != null ? dictionaries.get(tableName) : Map.of();
+                writer.putString(cache.getKey());
+                writer.putString(tableName != null ? tableName : "");
+                writer.putInt(cache.getValue().size());
+                for (Map.Entry<String, CacheEntry<CompactStringList>> entry : cache.getValue()) {
+                    CompactStringList values = entry.getValue().getValue();
+                    writer.putString(entry.getKey());
+                    writer.putLong(entry.getValue().getLoadedAtMillis());
+                    writer.putByte(entry.getValue().isPinned() ? (byte) 1 : (byte) 0);
+                    writer.putInt(values.size());
+                    for (String value : values) {
+                        writer.putInt(dictionary.get(value));
+                    }
+                }
+            }
+            writer.finish();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Sequential writer over a file mapping that is remapped further along the file as it fills
+     */
+    private static class MappedWriter {
+        private final FileChannel channel;
+        private MappedByteBuffer mapping;
+        private long base = 0;
+        private int capacity = INITIAL_MAPPING_BYTES;
+
+        MappedWriter(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.mapping = channel.map(FileChannel.MapMode.READ_WRITE, base, capacity);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (mapping.remaining() >= bytes) {
+                return;
+            }
+            mapping.force();
+            base += mapping.position();
+            capacity = Math.max(capacity * 2, bytes);
+            mapping = channel.map(FileChannel.MapMode.READ_WRITE, base, capacity);
+        }
+
+        void putByte(byte value) throws IOException {
+            ensure(1);
+            mapping.put(value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            mapping.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            mapping.putLong(value);
+        }
+
+        void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensure(4 + bytes.length);
+            mapping.putInt(bytes.length);
+            mapping.put(bytes);
+        }
+
+        void finish() throws IOException {
+            mapping.force();
+            channel.truncate(base + mapping.position());
+        }
+    }
+}
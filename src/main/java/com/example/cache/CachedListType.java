@@ -0,0 +1,15 @@
+package com.example.cache;
+
+import com.example.generated.ListType;
+
+import java.util.List;
+
+/**
+ * ListType view over a cached list, so serving a cached result does not copy or decode its values
+ */
+public class CachedListType extends ListType {
+
+    public CachedListType(List<String> values) {
+        this.listValue = values;
+    }
+}
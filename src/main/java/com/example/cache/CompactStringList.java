@@ -0,0 +1,142 @@
+package com.example.cache;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of strings stored as symbol codes packed into 1, 2 or 4 bytes each, depending on
+ * the size of the table when the list was encoded. Elements are decoded on access, so a cached list
+ * only materializes strings when it is serialized.
+ * <p>
+ * Membership checks build a lazily cached index over the codes: a bitset when the codes are dense
+ * enough (typically roles), otherwise a sorted code array searched by binary search.
+ */
+public final class CompactStringList extends AbstractList<String> implements RandomAccess {
+
+    private final SymbolTable table;
+    private final byte[] packed;
+    private final int width;
+    private final int size;
+
+    /** long[] bitset or sorted int[] of codes; built on the first membership check */
+    private volatile Object membershipIndex;
+
+    private CompactStringList(SymbolTable table, byte[] packed, int width, int size) {
+        this.table = table;
+        this.packed = packed;
+        this.width = width;
+        this.size = size;
+    }
+
+    static CompactStringList of(SymbolTable table, int[] codes) {
+        int max = 0;
+        for (int code : codes) {
+            max = Math.max(max, code);
+        }
+        int width = max < 0x100 ? 1 : max < 0x10000 ? 2 : 4;
+
+        byte[] packed = new byte[codes.length * width];
+        for (int i = 0; i < codes.length; i++) {
+            int code = codes[i];
+            int offset = i * width;
+            for (int b = 0; b < width; b++) {
+                packed[offset + b] = (byte) (code >>> (8 * b));
+            }
+        }
+        return new CompactStringList(table, packed, width, codes.length);
+    }
+
+    public SymbolTable getTable() { return table; }
+
+    @Override
+    public String get(int index) {
+        return table.decode(codeAt(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Symbol code of the element at the given index, without decoding it
+     */
+    public int codeAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int offset = index * width;
+        int code = 0;
+        for (int b = 0; b < width; b++) {
+            code |= (packed[offset + b] & 0xFF) << (8 * b);
+        }
+        return code;
+    }
+
+    /**
+     * Whether the list contains the given symbol, answered without decoding any element
+     */
+    public boolean containsSymbol(String symbol) {
+        return containsCode(table.codeOf(symbol));
+    }
+
+    public boolean containsCode(int code) {
+        if (code < 0) {
+            return false;
+        }
+        Object index = membershipIndex;
+        if (index == null) {
+            index = buildMembershipIndex();
+            membershipIndex = index;
+        }
+        if (index instanceof long[]) {
+            long[] bits = (long[]) index;
+            int word = code >>> 6;
+            return word < bits.length && (bits[word] & (1L << code)) != 0;
+        }
+        return Arrays.binarySearch((int[]) index, code) >= 0;
+    }
+
+    private Object buildMembershipIndex() {
+        int[] codes = new int[size];
+        int max = 0;
+        for (int i = 0; i < size; i++) {
+            codes[i] = codeAt(i);
+            max = Math.max(max, codes[i]);
+        }
+        // Use a bitset when it is no larger than the sorted code array
+        if (max < 4096 || max / 8 <= codes.length * 4) {
+            long[] bits = new long[(max >>> 6) + 1];
+            for (int code : codes) {
+                bits[code >>> 6] |= 1L << code;
+            }
+            return bits;
+        }
+        Arrays.sort(codes);
+        return codes;
+    }
+
+    /**
+     * Approximate heap held by this list, excluding the shared symbol table
+     */
+    public long estimateBytes() {
+        return 32L + 16L + packed.length;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof CompactStringList) {
+            CompactStringList that = (CompactStringList) other;
+            if (that.table == table && that.width == width) {
+                return Arrays.equals(that.packed, packed);
+            }
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
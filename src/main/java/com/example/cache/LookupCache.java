@@ -0,0 +1,276 @@
+package com.example.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Concurrent string-keyed lookup cache with a staleness bound and hit/miss statistics
+ */
+public class LookupCache<V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, CacheEntry<V>> entries = new ConcurrentHashMap<>();
+
+    private volatile long ttlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public LookupCache(String name, long ttlMillis, int maxEntries) {
+        this.name = name;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    public String getName() { return name; }
+    public long getTtlMillis() { return ttlMillis; }
+    public void setTtlMillis(long ttlMillis) { this.ttlMillis = ttlMillis; }
+    public int size() { return entries.size(); }
+
+    /**
+     * Return the cached value if present and within the staleness bound, recording a hit or miss
+     */
+    public V getFresh(String key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry != null && entry.ageMillis(System.currentTimeMillis()) <= ttlMillis) {
+            hits.increment();
+            entry.recordAccess();
+            return entry.getValue();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Return the entry regardless of age, without touching the statistics
+     */
+    public CacheEntry<V> getEntry(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Store a freshly loaded value. A key that was pinned stays pinned when refreshed by a read,
+     * and its access count carries over so a refreshed hot key stays hot.
+     */
+    public void put(String key, V value, boolean pinned) {
+        long now = System.currentTimeMillis();
+        entries.compute(key, (k, existing) -> existing == null
+            ? new CacheEntry<>(value, now, pinned)
+            : new CacheEntry<>(value, now, pinned || existing.isPinned(), existing.getAccessCount()));
+        if (entries.size() > maxEntries) {
+            evictOldest(Math.max(1, maxEntries / 100));
+        }
+    }
+
+    /**
+     * Store a value restored from a snapshot, keeping its original load time so the staleness
+     * bound still applies from when it was fetched. Entries already past the bound are ignored.
+     */
+    public boolean restore(String key, V value, long loadedAtMillis, boolean pinned) {
+        if (System.currentTimeMillis() - loadedAtMillis > ttlMillis) {
+            return false;
+        }
+        entries.putIfAbsent(key, new CacheEntry<>(value, loadedAtMillis, pinned));
+        return true;
+    }
+
+    /**
+     * Replace the value of an entry with an equivalent one (re-encoded), keeping its load time,
+     * pin and access count. Does nothing if the entry was replaced or removed in the meantime.
+     */
+    public boolean replaceValue(String key, CacheEntry<V> expected, V value) {
+        return entries.replace(key, expected,
+            new CacheEntry<>(value, expected.getLoadedAtMillis(), expected.isPinned(), expected.getAccessCount()));
+    }
+
+    /**
+     * Mark an existing entry as pinned without changing its load time
+     */
+    public void pin(String key) {
+        entries.computeIfPresent(key, (k, existing) -> existing.isPinned()
+            ? existing
+            : new CacheEntry<>(existing.getValue(), existing.getLoadedAtMillis(), true, existing.getAccessCount()));
+    }
+
+    /**
+     * Whether the key is present and within the staleness bound, without touching the statistics
+     */
+    public boolean isFresh(String key) {
+        CacheEntry<V> entry = entries.get(key);
+        return entry != null && entry.ageMillis(System.currentTimeMillis()) <= ttlMillis;
+    }
+
+    /**
+     * Whether the key is present and within the given window of (or past) the staleness bound
+     */
+    public boolean isExpiringWithin(String key, long windowMillis) {
+        CacheEntry<V> entry = entries.get(key);
+        return entry != null && entry.ageMillis(System.currentTimeMillis()) > ttlMillis - windowMillis;
+    }
+
+    public void forEachEntry(BiConsumer<String, CacheEntry<V>> action) {
+        entries.forEach(action);
+    }
+
+    public void recordLoad(long elapsedNanos, boolean success) {
+        loads.increment();
+        totalLoadNanos.add(elapsedNanos);
+        if (!success) {
+            loadFailures.increment();
+        }
+    }
+
+    public boolean invalidate(String key) {
+        if (entries.remove(key) != null) {
+            invalidations.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove every entry matching the predicate and return how many were removed
+     */
+    public int invalidateIf(BiPredicate<String, V> predicate) {
+        int removed = 0;
+        for (Map.Entry<String, CacheEntry<V>> entry : entries.entrySet()) {
+            CacheEntry<V> value = entry.getValue();
+            if (predicate.test(entry.getKey(), value.getValue()) && entries.remove(entry.getKey(), value)) {
+                removed++;
+            }
+        }
+        invalidations.add(removed);
+        return removed;
+    }
+
+    public int clear() {
+        int removed = entries.size();
+        entries.clear();
+        invalidations.add(removed);
+        return removed;
+    }
+
+    /**
+     * Approximate heap held by the entries: key characters, entry overhead and the values
+     * as measured by the given function
+     */
+    public long estimateBytes(ToLongFunction<V> valueBytes) {
+        long bytes = 0;
+        for (Map.Entry<String, CacheEntry<V>> entry : entries.entrySet()) {
+            // map node, key string and entry object headers
+            bytes += 96 + 2L * entry.getKey().length() + valueBytes.applyAsLong(entry.getValue().getValue());
+        }
+        return bytes;
+    }
+
+    /**
+     * Keys whose entries are older than the given age, oldest first
+     */
+    public List<String> keysOlderThan(long ageMillis, boolean pinnedOnly, int limit) {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, CacheEntry<V>>> candidates = new ArrayList<>();
+        for (Map.Entry<String, CacheEntry<V>> entry : entries.entrySet()) {
+            CacheEntry<V> value = entry.getValue();
+            if (value.ageMillis(now) > ageMillis && (!pinnedOnly || value.isPinned())) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(entry -> entry.getValue().getLoadedAtMillis()));
+
+        List<String> keys = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < limit; i++) {
+            keys.add(candidates.get(i).getKey());
+        }
+        return keys;
+    }
+
+    /**
+     * Keys read at least {@code minAccesses} times recently that are still fresh but will pass the
+     * staleness bound within {@code windowMillis}, hottest first. Every entry's access count is
+     * halved on each call, so hotness reflects recent traffic rather than lifetime totals.
+     */
+    public List<String> hotKeysExpiringWithin(long windowMillis, int minAccesses, int limit) {
+        long now = System.currentTimeMillis();
+        long refreshAge = ttlMillis - windowMillis;
+        List<Map.Entry<String, Integer>> candidates = new ArrayList<>();
+        for (Map.Entry<String, CacheEntry<V>> entry : entries.entrySet()) {
+            CacheEntry<V> value = entry.getValue();
+            int accessCount = value.decayAccessCount();
+            long age = value.ageMillis(now);
+            if (accessCount >= minAccesses && age > refreshAge && age <= ttlMillis) {
+                candidates.add(Map.entry(entry.getKey(), accessCount));
+            }
+        }
+        candidates.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+
+        List<String> keys = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < limit; i++) {
+            keys.add(candidates.get(i).getKey());
+        }
+        return keys;
+    }
+
+    /**
+     * Drop unpinned entries that are past the staleness bound by more than the given grace period
+     */
+    public int evictExpired(long graceMillis) {
+        long now = System.currentTimeMillis();
+        long limit = ttlMillis + graceMillis;
+        int removed = 0;
+        for (Map.Entry<String, CacheEntry<V>> entry : entries.entrySet()) {
+            CacheEntry<V> value = entry.getValue();
+            if (!value.isPinned() && value.ageMillis(now) > limit && entries.remove(entry.getKey(), value)) {
+                removed++;
+            }
+        }
+        evictions.add(removed);
+        return removed;
+    }
+
+    /**
+     * Make room on overflow: the oldest unpinned entries go first, since a read brings them back,
+     * and pinned entries only once no unpinned ones are left
+     */
+    private void evictOldest(int count) {
+        List<Map.Entry<String, CacheEntry<V>>> candidates = new ArrayList<>(entries.entrySet());
+        candidates.sort(Comparator.<Map.Entry<String, CacheEntry<V>>, Boolean>comparing(entry -> entry.getValue().isPinned())
+            .thenComparingLong(entry -> entry.getValue().getLoadedAtMillis()));
+        for (int i = 0; i < candidates.size() && i < count; i++) {
+            Map.Entry<String, CacheEntry<V>> entry = candidates.get(i);
+            if (entries.remove(entry.getKey(), entry.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getLoads() { return loads.sum(); }
+    public long getLoadFailures() { return loadFailures.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+    public long getInvalidations() { return invalidations.sum(); }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public double getAverageLoadMillis() {
+        long loadCount = loads.sum();
+        return loadCount == 0 ? 0.0 : totalLoadNanos.sum() / 1_000_000.0 / loadCount;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.cache;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only dictionary that interns strings to dense int codes.
+ * <p>
+ * Lookups by code are lock-free; adding a new symbol takes a lock. Codes are never reclaimed, so a
+ * table should hold a vocabulary that repeats across many entries (roles, office IDs, user IDs)
+ * rather than arbitrary unique values; an owner whose entries come and go replaces the table with
+ * one re-encoded from its live entries instead ({@link #liveCodes}).
+ */
+public class SymbolTable {
+
+    private final String name;
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[64];
+    private volatile int size = 0;
+
+    public SymbolTable(String name) {
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+    public int size() { return size; }
+
+    /**
+     * Return the code for a symbol, adding it to the table if needed
+     */
+    public int encode(String symbol) {
+        Integer code = codes.get(symbol);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(symbol);
+            if (code != null) {
+                return code;
+            }
+            int next = size;
+            String[] current = symbols;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[next] = symbol;
+            symbols = current;
+            size = next + 1;
+            codes.put(symbol, next);
+            return next;
+        }
+    }
+
+    /**
+     * Return the code for a symbol, or -1 if it has never been encoded
+     */
+    public int codeOf(String symbol) {
+        Integer code = codes.get(symbol);
+        return code != null ? code : -1;
+    }
+
+    public String decode(int code) {
+        return symbols[code];
+    }
+
+    /**
+     * Encode a list of strings into a compact, immutable list backed by this table
+     */
+    public CompactStringList encodeAll(List<String> values) {
+        int[] encoded = new int[values.size()];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = encode(values.get(i));
+        }
+        return CompactStringList.of(this, encoded);
+    }
+
+    /**
+     * Codes of this table still referenced by the given lists; lists of other tables are ignored
+     */
+    public BitSet liveCodes(Iterable<CompactStringList> lists) {
+        BitSet live = new BitSet(size);
+        for (CompactStringList list : lists) {
+            if (list.getTable() == this) {
+                for (int i = 0; i < list.size(); i++) {
+                    live.set(list.codeAt(i));
+                }
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Approximate heap held by the table: each distinct string once, plus the index structures
+     */
+    public long estimateBytes() {
+        String[] current = symbols;
+        int count = size;
+        long bytes = 16L + 4L * current.length;
+        for (int i = 0; i < count; i++) {
+            // String header + backing array header + Latin-1 contents + map node and boxed code
+            bytes += 40 + current[i].length() + 48;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for the REST API, modelled on CoDel.
+ * <p>
+ * At most {@code maxConcurrent} API requests run at once; the rest wait for a permit. The filter
+ * tracks the minimum time requests spent waiting over each interval. If even the luckiest request
+ * waited longer than the target, there is a standing queue rather than a burst, and the filter
+ * switches to overload mode: waits are cut to the target delay and bulk requests are shed
+ * immediately. Shed requests get a pre-serialized 503 that costs almost nothing to produce, so
+ * under overload some traffic is served quickly instead of all of it timing out.
+ * <p>
+ * Critical paths (health, roles, access checks) can additionally use a reserve of permits that
+ * other requests cannot take. Bulk paths never queue. Actuator endpoints are not filtered.
+ * A streamed response keeps its permit until the async request completes, not just until the
+ * handler returns, so long-running exports count against the limit for as long as they run.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private static final byte[] OVERLOADED_BODY =
+        "{\"status\":503,\"error\":\"Service Unavailable\",\"message\":\"Server is overloaded, please retry\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Admission classes, highest priority first
+     */
+    enum Priority { CRITICAL, NORMAL, BULK }
+
+    private final AdmissionControlProperties properties;
+    private final Set<String> criticalPaths;
+    private final Set<String> bulkPaths;
+
+    /** Permits any request may use */
+    private final Semaphore sharedPermits;
+    /** Permits held back for critical requests */
+    private final Semaphore reservedPermits;
+
+    private final long targetDelayNanos;
+    private final long intervalNanos;
+    private final AtomicLong minDelayNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong intervalEndNanos;
+    private volatile boolean overloaded = false;
+
+    private final Counter[] admitted = new Counter[Priority.values().length];
+    private final Counter[] shed = new Counter[Priority.values().length];
+    private final Timer queueDelay;
+
+    @Autowired
+    public AdmissionControlFilter(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.criticalPaths = new HashSet<>(properties.getCriticalPaths());
+        this.bulkPaths = new HashSet<>(properties.getBulkPaths());
+
+        int reserve = Math.max(0, Math.min(properties.getCriticalReserve(), properties.getMaxConcurrent() - 1));
+        this.sharedPermits = new Semaphore(properties.getMaxConcurrent() - reserve);
+        this.reservedPermits = new Semaphore(reserve);
+
+        this.targetDelayNanos = TimeUnit.MILLISECONDS.toNanos(properties.getTargetDelayMs());
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIntervalMs());
+        this.intervalEndNanos = new AtomicLong(System.nanoTime() + intervalNanos);
+
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            admitted[priority.ordinal()] = Counter.builder("authorization.admission.requests")
+                .tag("priority", tag).tag("outcome", "admitted").register(meterRegistry);
+            shed[priority.ordinal()] = Counter.builder("authorization.admission.requests")
+                .tag("priority", tag).tag("outcome", "shed").register(meterRegistry);
+        }
+        this.queueDelay = Timer.builder("authorization.admission.queue-delay")
+            .description("Time API requests waited for an admission permit")
+            .register(meterRegistry);
+        Gauge.builder("authorization.admission.overloaded", () -> overloaded ? 1 : 0).register(meterRegistry);
+        Gauge.builder("authorization.admission.available-permits", sharedPermits, Semaphore::availablePermits)
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Priority priority = classify(request.getRequestURI());
+        Semaphore permit;
+        try {
+            permit = admit(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permit = null;
+        }
+
+        if (permit == null) {
+            shed[priority.ordinal()].increment();
+            reject(response);
+            return;
+        }
+
+        admitted[priority.ordinal()].increment();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new PermitReleasingListener(permit));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * Releases the permit of a request that went async once it completes, times out or fails
+     */
+    private static class PermitReleasingListener implements AsyncListener {
+        private final Semaphore permit;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingListener(Semaphore permit) {
+            this.permit = permit;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permit.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    Priority classify(String path) {
+        if (criticalPaths.contains(path)) {
+            return Priority.CRITICAL;
+        }
+        return bulkPaths.contains(path) ? Priority.BULK : Priority.NORMAL;
+    }
+
+    /**
+     * Acquire a permit for the request, or return null if it should be shed
+     */
+    private Semaphore admit(Priority priority) throws InterruptedException {
+        if (sharedPermits.tryAcquire()) {
+            recordDelay(0);
+            return sharedPermits;
+        }
+        if (priority == Priority.CRITICAL && reservedPermits.tryAcquire()) {
+            recordDelay(0);
+            return reservedPermits;
+        }
+        if (priority == Priority.BULK) {
+            // Bulk work never queues behind interactive requests
+            return null;
+        }
+
+        long waitLimit = overloaded ? targetDelayNanos : intervalNanos;
+        if (priority == Priority.CRITICAL) {
+            waitLimit *= 2;
+        }
+        long start = System.nanoTime();
+        boolean acquired = sharedPermits.tryAcquire(waitLimit, TimeUnit.NANOSECONDS);
+        recordDelay(System.nanoTime() - start);
+        return acquired ? sharedPermits : null;
+    }
+
+    /**
+     * Fold a queue delay into the current interval; at the end of each interval decide whether
+     * the minimum delay shows a standing queue
+     */
+    private void recordDelay(long delayNanos) {
+        queueDelay.record(delayNanos, TimeUnit.NANOSECONDS);
+        minDelayNanos.accumulateAndGet(delayNanos, Math::min);
+
+        long now = System.nanoTime();
+        long intervalEnd = intervalEndNanos.get();
+        if (now - intervalEnd >= 0 && intervalEndNanos.compareAndSet(intervalEnd, now + intervalNanos)) {
+            long minDelay = minDelayNanos.getAndSet(Long.MAX_VALUE);
+            boolean wasOverloaded = overloaded;
+            overloaded = minDelay != Long.MAX_VALUE && minDelay > targetDelayNanos;
+            if (overloaded != wasOverloaded) {
+                logger.warn(overloaded ? "Admission control: standing queue of {} ms, shedding load"
+                                       : "Admission control: queue drained ({} ms), leaving overload mode",
+                    TimeUnit.NANOSECONDS.toMillis(minDelay == Long.MAX_VALUE ? 0 : minDelay));
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(OVERLOADED_BODY.length);
+        response.getOutputStream().write(OVERLOADED_BODY);
+    }
+
+    boolean isOverloaded() {
+        return overloaded;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admission control and load shedding for the REST API (authorization.admission.*)
+ */
+@ConfigurationProperties(prefix = "authorization.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = false;
+
+    /** Requests allowed to run concurrently; the rest wait for a permit or are shed */
+    private int maxConcurrent = 64;
+
+    /** Permits out of maxConcurrent that only critical requests may use */
+    private int criticalReserve = 8;
+
+    /** Acceptable standing queue delay; above this for a whole interval the server is overloaded */
+    private long targetDelayMs = 20;
+
+    /** Window over which the minimum queue delay is measured, and the wait limit when not overloaded */
+    private long intervalMs = 200;
+
+    /** Paths served first and allowed to use the reserved permits */
+    private List<String> criticalPaths = new ArrayList<>(List.of(
+        "/api/authorization/health",
+        "/api/authorization/get-user-roles",
+        "/api/authorization/check-access"));
+
+    /** Paths never queued, and shed first when overloaded */
+    private List<String> bulkPaths = new ArrayList<>(List.of(
+        "/api/authorization/bulk-export",
+        "/api/authorization/find-users/stream",
+        "/api/authorization/find-offices/stream"));
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+    public int getCriticalReserve() { return criticalReserve; }
+    public void setCriticalReserve(int criticalReserve) { this.criticalReserve = criticalReserve; }
+    public long getTargetDelayMs() { return targetDelayMs; }
+    public void setTargetDelayMs(long targetDelayMs) { this.targetDelayMs = targetDelayMs; }
+    public long getIntervalMs() { return intervalMs; }
+    public void setIntervalMs(long intervalMs) { this.intervalMs = intervalMs; }
+    public List<String> getCriticalPaths() { return criticalPaths; }
+    public void setCriticalPaths(List<String> criticalPaths) { this.criticalPaths = criticalPaths; }
+    public List<String> getBulkPaths() { return bulkPaths; }
+    public void setBulkPaths(List<String> bulkPaths) { this.bulkPaths = bulkPaths; }
+}
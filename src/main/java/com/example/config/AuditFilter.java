@@ -0,0 +1,88 @@
+package com.example.config;
+
+import com.example.service.AuditContext;
+import com.example.service.AuditEvent;
+import com.example.service.AuditTrail;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens an {@link AuditEvent} for each API request and hands it to the {@link AuditTrail} once
+ * the response is complete. For streamed responses that is when the async request completes,
+ * so the latency covers the whole body.
+ */
+@Component
+public class AuditFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/authorization/";
+
+    private final AuditTrail auditTrail;
+
+    @Autowired
+    public AuditFilter(AuditTrail auditTrail) {
+        this.auditTrail = auditTrail;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !auditTrail.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AuditEvent event = new AuditEvent(operation(request.getRequestURI()), request.getRemoteAddr(),
+            System.currentTimeMillis(), System.nanoTime());
+        AuditContext.begin(event);
+        boolean escaped = true;
+        try {
+            filterChain.doFilter(request, response);
+            escaped = false;
+        } finally {
+            AuditContext.clear();
+            if (!escaped && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent asyncEvent) {
+                        complete(event, response.getStatus());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent asyncEvent) {
+                        event.markFailed();
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent asyncEvent) {
+                        event.markFailed();
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent asyncEvent) {
+                    }
+                });
+            } else {
+                // An exception that got past the handlers becomes a 500
+                complete(event, escaped ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus());
+            }
+        }
+    }
+
+    private void complete(AuditEvent event, int status) {
+        event.complete(status);
+        auditTrail.submit(event);
+    }
+
+    static String operation(String requestUri) {
+        return requestUri.startsWith(API_PREFIX) ? requestUri.substring(API_PREFIX.length()) : requestUri;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Audit trail of API lookups (authorization.audit.*)
+ */
+@ConfigurationProperties(prefix = "authorization.audit")
+public class AuditProperties {
+
+    private boolean enabled = true;
+
+    /** Directory the audit files are written to */
+    private String directory = "audit";
+
+    /** Size each file is mapped at; a file is closed, trimmed to its records, once the next record does not fit */
+    private long fileBytes = 64L * 1024 * 1024;
+
+    /** Audit files kept; the oldest is deleted when a new one would exceed this */
+    private int maxFiles = 30;
+
+    /** Events waiting to be written; beyond this new events are dropped and counted */
+    private int queueCapacity = 65536;
+
+    /** How often the writer drains the queue into the file */
+    private long flushIntervalMs = 100;
+
+    /** How often written records are forced to disk; a host crash can lose what was written since */
+    private long forceIntervalMs = 1000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+    public long getFileBytes() { return fileBytes; }
+    public void setFileBytes(long fileBytes) { this.fileBytes = fileBytes; }
+    public int getMaxFiles() { return maxFiles; }
+    public void setMaxFiles(int maxFiles) { this.maxFiles = maxFiles; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public long getFlushIntervalMs() { return flushIntervalMs; }
+    public void setFlushIntervalMs(long flushIntervalMs) { this.flushIntervalMs = flushIntervalMs; }
+    public long getForceIntervalMs() { return forceIntervalMs; }
+    public void setForceIntervalMs(long forceIntervalMs) { this.forceIntervalMs = forceIntervalMs; }
+}
@@ -0,0 +1,57 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Capture of upstream SOAP traffic for replay (soap.capture.*)
+ */
+@ConfigurationProperties(prefix = "soap.capture")
+public class CaptureProperties {
+
+    /** Record every upstream request/response pair, redacted, with its latency */
+    private boolean enabled = false;
+
+    /** Directory the capture files are written to */
+    private String directory = "capture";
+
+    /** Compressed size at which the current file is closed and a new one started */
+    private long maxFileBytes = 64L * 1024 * 1024;
+
+    /** Capture files kept; the oldest is deleted when a new one would exceed this */
+    private int maxFiles = 10;
+
+    /** Records waiting to be written; beyond this new records are dropped and counted */
+    private int queueCapacity = 10000;
+
+    /**
+     * Elements whose text is replaced by a pseudonym: the same value always gets the same
+     * pseudonym, of the same length, so lookups still repeat and payloads keep their size
+     */
+    private List<String> redactedElements = new ArrayList<>(List.of(
+        "UserLoginName", "AuthenticationSystemIdentifier", "AuthorizationSystemIdentifier",
+        "UsdaEauthId", "requestHost", "Value", "ListValue", "StringValue"));
+
+    /**
+     * Key for the pseudonyms. Empty means a random key per run, so captures from different runs
+     * cannot be correlated; set one to keep pseudonyms stable across restarts.
+     */
+    private String pseudonymKey = "";
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+    public long getMaxFileBytes() { return maxFileBytes; }
+    public void setMaxFileBytes(long maxFileBytes) { this.maxFileBytes = maxFileBytes; }
+    public int getMaxFiles() { return maxFiles; }
+    public void setMaxFiles(int maxFiles) { this.maxFiles = maxFiles; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public List<String> getRedactedElements() { return redactedElements; }
+    public void setRedactedElements(List<String> redactedElements) { this.redactedElements = redactedElements; }
+    public String getPseudonymKey() { return pseudonymKey; }
+    public void setPseudonymKey(String pseudonymKey) { this.pseudonymKey = pseudonymKey; }
+}
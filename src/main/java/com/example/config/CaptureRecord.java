@@ -0,0 +1,103 @@
+package com.example.config;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * One captured upstream call: when it started, how long the service took to answer, the
+ * operation and caller priority, and the redacted request and response envelopes. Written by
+ * {@link TrafficCaptureWriter} as one JSON line each.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CaptureRecord {
+
+    /**
+     * How the call ended: an answer, a SOAP fault, or no response at all (connect or read failure, timeout)
+     */
+    public enum Outcome { OK, FAULT, ERROR }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final long startedAt;
+    private final long latencyMicros;
+    private final String operation;
+    private final String priority;
+    private final Outcome outcome;
+    private final String request;
+    private final String response;
+
+    @JsonCreator
+    public CaptureRecord(@JsonProperty("startedAt") long startedAt,
+                         @JsonProperty("latencyMicros") long latencyMicros,
+                         @JsonProperty("operation") String operation,
+                         @JsonProperty("priority") String priority,
+                         @JsonProperty("outcome") Outcome outcome,
+                         @JsonProperty("request") String request,
+                         @JsonProperty("response") String response) {
+        this.startedAt = startedAt;
+        this.latencyMicros = latencyMicros;
+        this.operation = operation;
+        this.priority = priority;
+        this.outcome = outcome;
+        this.request = request;
+        this.response = response;
+    }
+
+    /** Wall-clock start of the call, epoch milliseconds */
+    public long getStartedAt() { return startedAt; }
+    public long getLatencyMicros() { return latencyMicros; }
+    public String getOperation() { return operation; }
+    public String getPriority() { return priority; }
+    public Outcome getOutcome() { return outcome; }
+    public String getRequest() { return request; }
+    /** Null when the call ended without a response */
+    public String getResponse() { return response; }
+
+    static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Read every record in the capture files of a directory, oldest file first. A file cut off
+     * mid-write (the one being written, or one left by a crash) yields the records before the cut.
+     */
+    public static List<CaptureRecord> readAll(Path directory) throws IOException {
+        List<CaptureRecord> records = new ArrayList<>();
+        for (Path file : TrafficCaptureWriter.files(directory)) {
+            read(file, records);
+        }
+        return records;
+    }
+
+    private static void read(Path file, List<CaptureRecord> records) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    records.add(MAPPER.readValue(line, CaptureRecord.class));
+                }
+            }
+        } catch (EOFException | ZipException e) {
+            // Truncated file: the lines read so far are complete, a partial last line was dropped
+        } catch (NoSuchFileException e) {
+            // Deleted by rotation since the directory was listed
+        }
+    }
+}
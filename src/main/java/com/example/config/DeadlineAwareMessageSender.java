@@ -0,0 +1,208 @@
+package com.example.config;
+
+import com.example.exception.DeadlineExceededException;
+import com.example.service.UpstreamCallContext;
+import com.example.service.UpstreamTimeoutPolicy;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.transport.WebServiceConnection;
+import org.springframework.ws.transport.http.HttpTransportException;
+import org.springframework.ws.transport.http.HttpUrlConnection;
+import org.springframework.ws.transport.http.HttpUrlConnectionMessageSender;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * HttpURLConnection message sender that applies per-operation timeouts and the caller's deadline.
+ * <p>
+ * Connect and read timeouts come from {@link UpstreamTimeoutPolicy} for the operation being sent,
+ * capped to the time left before the deadline in {@link UpstreamCallContext}. Because a read
+ * timeout only bounds each individual read, a connection that is still open when the deadline
+ * passes is also disconnected by a watchdog, so no call keeps waiting after its caller gave up.
+ * <p>
+ * The sender also handles compression: gzip responses are decoded as a stream, request bodies
+ * larger than {@code compressRequestsAbove} bytes are gzipped (off unless configured, since the
+ * service must accept Content-Encoding: gzip), and wire and uncompressed byte counts of both
+ * directions are recorded in {@link UpstreamTransferMetrics}.
+ */
+public class DeadlineAwareMessageSender extends HttpUrlConnectionMessageSender {
+
+    private final UpstreamTimeoutPolicy timeoutPolicy;
+    private final UpstreamTransferMetrics transferMetrics;
+    private final ScheduledExecutorService watchdog;
+    private long compressRequestsAbove = -1;
+
+    public DeadlineAwareMessageSender(UpstreamTimeoutPolicy timeoutPolicy, UpstreamTransferMetrics transferMetrics) {
+        this.timeoutPolicy = timeoutPolicy;
+        this.transferMetrics = transferMetrics;
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soap-deadline-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public WebServiceConnection createConnection(URI uri) throws IOException {
+        long remainingNanos = UpstreamCallContext.remainingNanos();
+        if (remainingNanos <= 0) {
+            throw new DeadlineExceededException("Request deadline passed before calling " + operationName());
+        }
+
+        URLConnection connection = uri.toURL().openConnection();
+        if (!(connection instanceof HttpURLConnection httpConnection)) {
+            throw new HttpTransportException("URI [" + uri + "] is not an HTTP URL");
+        }
+        prepareConnection(httpConnection);
+
+        ScheduledFuture<?> abort = remainingNanos == Long.MAX_VALUE
+            ? null
+            : watchdog.schedule(httpConnection::disconnect, remainingNanos, TimeUnit.NANOSECONDS);
+        return new DeadlineConnection(httpConnection, abort, transferMetrics, compressRequestsAbove);
+    }
+
+    /**
+     * Gzip request bodies larger than this many bytes; negative disables request compression
+     */
+    public void setCompressRequestsAbove(long minBytes) {
+        this.compressRequestsAbove = minBytes;
+    }
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection) throws IOException {
+        super.prepareConnection(connection);
+        connection.setConnectTimeout(toIntMillis(timeoutPolicy.connectTimeoutMillis()));
+        connection.setReadTimeout(toIntMillis(timeoutPolicy.readTimeoutMillis(UpstreamCallContext.currentOperation())));
+    }
+
+    public void shutdown() {
+        watchdog.shutdownNow();
+    }
+
+    private static String operationName() {
+        String operation = UpstreamCallContext.currentOperation();
+        return operation != null ? operation : "the SOAP service";
+    }
+
+    private static int toIntMillis(long millis) {
+        return (int) Math.min(Integer.MAX_VALUE, millis);
+    }
+
+    /**
+     * Connection that cancels its deadline watchdog when closed, and compresses and counts its bodies.
+     * <p>
+     * Gzip responses are decoded here rather than by the base class so the uncompressed size can be
+     * counted; the Content-Encoding header is hidden from the base class so it does not decode again.
+     */
+    private static class DeadlineConnection extends HttpUrlConnection {
+        private static final String CONTENT_ENCODING = "Content-Encoding";
+
+        private final ScheduledFuture<?> abort;
+        private final UpstreamTransferMetrics transferMetrics;
+        private final long compressRequestsAbove;
+        private RequestBodyOutputStream requestBody;
+        private CountingInputStream responseWire;
+        private CountingInputStream responseBody;
+        private boolean responseCompressed;
+
+        DeadlineConnection(HttpURLConnection connection, ScheduledFuture<?> abort,
+                           UpstreamTransferMetrics transferMetrics, long compressRequestsAbove) {
+            super(connection);
+            this.abort = abort;
+            this.transferMetrics = transferMetrics;
+            this.compressRequestsAbove = compressRequestsAbove;
+        }
+
+        @Override
+        protected OutputStream getRequestOutputStream() throws IOException {
+            requestBody = new RequestBodyOutputStream(getConnection(), compressRequestsAbove);
+            return requestBody;
+        }
+
+        @Override
+        protected void onSendAfterWrite(WebServiceMessage message) throws IOException {
+            if (requestBody != null) {
+                requestBody.finish();
+            }
+            super.onSendAfterWrite(message);
+        }
+
+        /**
+         * Header names are matched ignoring case; the base class looks them up exactly, so a fault
+         * sent with "Content-type" would not be recognised as XML and would surface as an HTTP error
+         */
+        @Override
+        public Iterator<String> getResponseHeaders(String name) throws IOException {
+            if (CONTENT_ENCODING.equalsIgnoreCase(name) && isGzipResponse()) {
+                return Collections.emptyIterator();
+            }
+            for (Map.Entry<String, List<String>> header : getConnection().getHeaderFields().entrySet()) {
+                if (name.equalsIgnoreCase(header.getKey())) {
+                    return header.getValue().iterator();
+                }
+            }
+            return Collections.emptyIterator();
+        }
+
+        @Override
+        protected InputStream getRawResponseInputStream() throws IOException {
+            if (responseBody != null) {
+                return responseBody;
+            }
+            InputStream raw = super.getRawResponseInputStream();
+            if (raw == null) {
+                return null;
+            }
+            responseWire = new CountingInputStream(raw);
+            InputStream body = responseWire;
+            if (isGzipResponse()) {
+                responseCompressed = true;
+                // An empty body has no gzip header to read
+                PushbackInputStream probe = new PushbackInputStream(responseWire);
+                int first = probe.read();
+                if (first >= 0) {
+                    probe.unread(first);
+                    body = new GZIPInputStream(probe);
+                } else {
+                    body = probe;
+                }
+            }
+            responseBody = new CountingInputStream(body);
+            return responseBody;
+        }
+
+        private boolean isGzipResponse() {
+            String encoding = getConnection().getContentEncoding();
+            return encoding != null && encoding.toLowerCase().contains("gzip");
+        }
+
+        @Override
+        public void onClose() {
+            if (abort != null) {
+                abort.cancel(false);
+            }
+            if (requestBody != null) {
+                transferMetrics.recordRequest(requestBody.getWireBytes(), requestBody.getPayloadBytes(),
+                    requestBody.isCompressed());
+            }
+            if (responseWire != null) {
+                transferMetrics.recordResponse(responseWire.getCount(), responseBody.getCount(), responseCompressed);
+            }
+            super.onClose();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.config;
+
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.client.WebServiceIOException;
+import org.springframework.ws.client.WebServiceTransportException;
+import org.springframework.ws.client.core.WebServiceMessageCallback;
+import org.springframework.ws.client.core.WebServiceTemplate;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.support.MarshallingUtils;
+import org.springframework.ws.transport.TransportException;
+import org.springframework.ws.transport.WebServiceConnection;
+import org.springframework.ws.transport.context.DefaultTransportContext;
+import org.springframework.ws.transport.context.TransportContext;
+import org.springframework.ws.transport.context.TransportContextHolder;
+import org.springframework.ws.transport.support.TransportUtils;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * WebServiceTemplate that sends requests with a precompiled envelope straight from the template.
+ * <p>
+ * Requests {@link SoapEnvelopeTemplates} can write skip JAXB marshalling and the SAAJ request
+ * document; the send itself (connection, interceptors, fault and error handling, unmarshalling
+ * the response) is the template's own, so callers see no difference.
+ */
+public class FastPathWebServiceTemplate extends WebServiceTemplate {
+
+    private SoapEnvelopeTemplates envelopeTemplates;
+
+    public void setEnvelopeTemplates(SoapEnvelopeTemplates envelopeTemplates) {
+        this.envelopeTemplates = envelopeTemplates;
+    }
+
+    SoapEnvelopeTemplates getEnvelopeTemplates() {
+        return envelopeTemplates;
+    }
+
+    @Override
+    public Object marshalSendAndReceive(String uri, Object requestPayload, WebServiceMessageCallback requestCallback) {
+        WebServiceMessage request = requestCallback == null && envelopeTemplates != null
+            ? envelopeTemplates.createMessage(requestPayload)
+            : null;
+        if (request == null) {
+            return super.marshalSendAndReceive(uri, requestPayload, requestCallback);
+        }
+
+        // Same steps as sendAndReceive, with the precompiled message as the request
+        TransportContext previousTransportContext = TransportContextHolder.getTransportContext();
+        WebServiceConnection connection = null;
+        try {
+            connection = createConnection(URI.create(uri));
+            TransportContextHolder.setTransportContext(new DefaultTransportContext(connection));
+            return doSendAndReceive(new DefaultMessageContext(request, getMessageFactory()), connection, null,
+                response -> MarshallingUtils.unmarshal(getUnmarshaller(), response));
+        } catch (TransportException e) {
+            throw new WebServiceTransportException("Could not use transport: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new WebServiceIOException("I/O error: " + e.getMessage(), e);
+        } finally {
+            TransportUtils.closeConnection(connection);
+            TransportContextHolder.setTransportContext(previousTransportContext);
+        }
+    }
+}
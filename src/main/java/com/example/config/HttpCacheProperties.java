@@ -0,0 +1,31 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * ETag revalidation and Cache-Control of the read endpoints (authorization.http-cache.*)
+ */
+@ConfigurationProperties(prefix = "authorization.http-cache")
+public class HttpCacheProperties {
+
+    /** Send ETags and Cache-Control, and answer a matching If-None-Match with 304 */
+    private boolean enabled = true;
+
+    /** max-age of find-offices, find-users and get-user-roles responses; 0 means revalidate every time */
+    private long lookupMaxAgeSeconds = 0;
+
+    /** Let shared caches (proxies) store lookup responses, not only the client */
+    private boolean lookupShared = false;
+
+    /** max-age of office-types, which only changes with a deployment */
+    private long officeTypesMaxAgeSeconds = 86400;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public long getLookupMaxAgeSeconds() { return lookupMaxAgeSeconds; }
+    public void setLookupMaxAgeSeconds(long lookupMaxAgeSeconds) { this.lookupMaxAgeSeconds = lookupMaxAgeSeconds; }
+    public boolean isLookupShared() { return lookupShared; }
+    public void setLookupShared(boolean lookupShared) { this.lookupShared = lookupShared; }
+    public long getOfficeTypesMaxAgeSeconds() { return officeTypesMaxAgeSeconds; }
+    public void setOfficeTypesMaxAgeSeconds(long officeTypesMaxAgeSeconds) { this.officeTypesMaxAgeSeconds = officeTypesMaxAgeSeconds; }
+}
@@ -33,10 +33,14 @@ public class LoggingInterceptor implements ClientInterceptor {
         return true;
     }
 
+    /**
+     * Faults and failed calls are classified and logged, throttled, by the calling service; most
+     * faults (not found, invalid request) are expected answers, so only payload tracing shows them here
+     */
     @Override
     public boolean handleFault(MessageContext messageContext) throws WebServiceClientException {
-        if (logger.isWarnEnabled()) {
-            logger.warn("SOAP Fault: {}", getMessageContent(messageContext.getResponse().getPayloadSource()));
+        if (logger.isDebugEnabled()) {
+            logger.debug("SOAP Fault: {}", getMessageContent(messageContext.getResponse().getPayloadSource()));
         }
         return true;
     }
@@ -44,7 +48,7 @@ public class LoggingInterceptor implements ClientInterceptor {
     @Override
     public void afterCompletion(MessageContext messageContext, Exception ex) throws WebServiceClientException {
         if (ex != null) {
-            logger.error("SOAP call failed", ex);
+            logger.debug("SOAP call failed: {}", ex.toString());
         }
     }
 
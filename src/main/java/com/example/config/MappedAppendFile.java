@@ -0,0 +1,125 @@
+package com.example.config;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only record files written through a memory mapping. Not thread-safe: one writer thread.
+ * <p>
+ * Each file is mapped at its full size when it is opened and filled from the start, so an append
+ * is a memory copy; the kernel writes the pages back by itself and {@link #force()} waits for
+ * them. When a record no longer fits, the file is trimmed to what was written and a new one is
+ * started, deleting the oldest files beyond {@code maxFiles}. A file left at full size by a crash
+ * ends in zeros; those are trimmed when the directory is next opened.
+ */
+public class MappedAppendFile implements AutoCloseable {
+
+    private static final String SUFFIX = ".ndjson";
+
+    private final RotatingFiles files;
+    private final long fileBytes;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    public MappedAppendFile(Path directory, String prefix, long fileBytes, int maxFiles) throws IOException {
+        this.files = new RotatingFiles(Files.createDirectories(directory), prefix, SUFFIX, maxFiles);
+        this.fileBytes = Math.min(fileBytes, Integer.MAX_VALUE);
+        for (Path file : files.list()) {
+            trimZeroTail(file);
+        }
+    }
+
+    /**
+     * Append a record; false if it is larger than a whole file and was not written
+     */
+    public boolean append(byte[] record, int length) throws IOException {
+        if (length > fileBytes) {
+            return false;
+        }
+        if (buffer == null || buffer.remaining() < length) {
+            finishFile();
+            openFile();
+        }
+        buffer.put(record, 0, length);
+        return true;
+    }
+
+    /**
+     * Wait until the records appended so far are on disk
+     */
+    public void force() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finishFile();
+    }
+
+    /**
+     * The record files in the directory, oldest first
+     */
+    public static List<Path> files(Path directory, String prefix) throws IOException {
+        return RotatingFiles.list(directory, prefix, SUFFIX);
+    }
+
+    private void openFile() throws IOException {
+        channel = FileChannel.open(files.next(),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes);
+    }
+
+    private void finishFile() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            buffer.force();
+            channel.truncate(buffer.position());
+        } finally {
+            buffer = null;
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Cut the zero-filled end off a file that was not finished; records never end in a zero byte
+     */
+    private static void trimZeroTail(Path file) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+            long end = fileChannel.size();
+            while (end > 0) {
+                long start = Math.max(0, end - chunk.capacity());
+                chunk.clear().limit((int) (end - start));
+                while (chunk.hasRemaining()) {
+                    if (fileChannel.read(chunk, start + chunk.position()) < 0) {
+                        break;
+                    }
+                }
+                int last = chunk.position() - 1;
+                while (last >= 0 && chunk.get(last) == 0) {
+                    last--;
+                }
+                if (last >= 0) {
+                    end = start + last + 1;
+                    break;
+                }
+                end = start;
+            }
+            if (end < fileChannel.size()) {
+                fileChannel.truncate(end);
+            }
+        }
+    }
+}
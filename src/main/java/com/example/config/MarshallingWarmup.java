@@ -0,0 +1,117 @@
+package com.example.config;
+
+import com.example.generated.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.oxm.Marshaller;
+import org.springframework.oxm.Unmarshaller;
+import org.springframework.stereotype.Component;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.WebServiceMessageFactory;
+import org.springframework.ws.client.core.WebServiceTemplate;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Warms up the SOAP marshalling path before the application reports ready.
+ * <p>
+ * Every request and response type is marshalled into a SOAP message from the template's own
+ * message factory and read back, a few times over, so JAXB's per-class metadata, SAAJ and the
+ * XML parsers are loaded and compiled before the first real call. Runners complete before
+ * Spring Boot publishes the ready event, so /actuator/health/readiness stays OUT_OF_SERVICE
+ * until this has finished. No upstream calls are made.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MarshallingWarmup implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarshallingWarmup.class);
+
+    private final WebServiceTemplate webServiceTemplate;
+    private final int iterations;
+
+    @Autowired
+    public MarshallingWarmup(WebServiceTemplate webServiceTemplate,
+                             @Value("${soap.warmup.iterations:20}") int iterations) {
+        this.webServiceTemplate = webServiceTemplate;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (iterations <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Object> samples = samples();
+        try {
+            for (int i = 0; i < iterations; i++) {
+                for (Object sample : samples) {
+                    roundTrip(sample);
+                }
+            }
+            logger.info("Warmed up SOAP marshalling for {} message types in {} ms",
+                samples.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            // A failed warm-up only costs latency on the first calls
+            logger.warn("SOAP marshalling warm-up failed", e);
+        }
+    }
+
+    private void roundTrip(Object payload) throws IOException {
+        WebServiceMessageFactory messageFactory = webServiceTemplate.getMessageFactory();
+        Marshaller marshaller = webServiceTemplate.getMarshaller();
+        Unmarshaller unmarshaller = webServiceTemplate.getUnmarshaller();
+
+        WebServiceMessage message = messageFactory.createWebServiceMessage();
+        marshaller.marshal(payload, message.getPayloadResult());
+        unmarshaller.unmarshal(message.getPayloadSource());
+    }
+
+    /**
+     * One populated instance of every message the client sends or receives
+     */
+    private static List<Object> samples() {
+        ObjectFactory factory = new ObjectFactory();
+        RequestToken token = new RequestToken().withApplicationIdentifier("warmup").withRequestHost("localhost");
+        UserIdentity identity = new UserIdentity()
+            .withAuthenticationSystemIdentifier("warmup")
+            .withAuthorizationSystemIdentifier("warmup")
+            .withUserLoginName("warmup");
+        ListType list = new ListType().withListValue("a", "b", "c");
+        MapType map = new MapType().withMapValue(new MapEntry().withKey("key").withValue("value"));
+        AttributeRequest attribute = new AttributeRequest().withUserIdentity(identity).withAttributeName("warmup");
+
+        return List.of(
+            new FindMatchingUserIdentityRequest().withMapEntry(new MapEntry().withKey("key").withValue("value")),
+            new FindMatchingUserIdentityResponse().withUserIdentity(identity),
+            new FindOfficesByEauthIdRequest().withUsdaEauthId("warmup")
+                .withOfficeType(OfficeType.values()[0]).withRequestToken(token),
+            new FindOfficesByEauthIdResponse().withOffices(list),
+            new FindUsersByCriteriaRequest().withOfficeId("warmup").withRoleName("warmup").withRequestToken(token),
+            new FindUserCriteriaResponse().withUsers(list),
+            new GetUserRolesRequest().withUserIdentity(identity),
+            new GetUserRolesResponse().withUserRoles(list),
+            factory.createGetSimpleAttribute(new GetSimpleAttribute().withArg0(attribute)),
+            factory.createGetSimpleAttributeResponse(new GetSimpleAttributeResponse2()),
+            new GetSimpleAttributeResponse().withStringValue("warmup").withAttributeName("warmup").withUserIdentity(identity),
+            factory.createGetListAttribute(new GetListAttribute().withArg0(attribute)),
+            factory.createGetListAttributeResponse(new GetListAttributeResponse2()),
+            new GetListAttributeResponse().withListValues(list).withAttributeName("warmup").withUserIdentity(identity),
+            factory.createGetMapAttribute(new GetMapAttribute().withArg0(attribute)),
+            factory.createGetMapAttributeResponse(new GetMapAttributeResponse2()),
+            new GetMapAttributeResponse().withMapValues(map).withAttributeName("warmup").withUserIdentity(identity),
+            factory.createGetUserIdentifyingProperties(new GetUserIdentifyingProperties()),
+            factory.createGetUserIdentifyingPropertiesResponse(new GetUserIdentifyingPropertiesResponse2()),
+            new GetUserIdentifyingPropertiesResponse().withMapValues(map),
+            factory.createIsHealthy(new IsHealthy()),
+            factory.createIsHealthyResponse(new IsHealthyResponse().withReturn(true)));
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the local authorization directory mirror (authorization.mirror.*)
+ */
+@ConfigurationProperties(prefix = "authorization.mirror")
+public class MirrorProperties {
+
+    /** Serve reads from the local index instead of calling the SOAP service every time */
+    private boolean enabled = false;
+
+    /** Maximum age of an index entry before reads fall back to a live SOAP call */
+    private long stalenessMs = 300000;
+
+    /** Delay between refresh runs */
+    private long refreshIntervalMs = 60000;
+
+    /** Scope entries older than this are re-fetched by the refresh job */
+    private long refreshAfterMs = 120000;
+
+    /** Maximum number of entries re-fetched per cache in one refresh run */
+    private int refreshBatchSize = 200;
+
+    /** Maximum entries per index */
+    private int maxEntries = 100000;
+
+    /** Request token used for refresh calls made on behalf of the mirror */
+    private String applicationId = "authorization-mirror";
+    private String requestHost = "localhost";
+
+    private Scope scope = new Scope();
+
+    private Snapshot snapshot = new Snapshot();
+
+    private RefreshAhead refreshAhead = new RefreshAhead();
+
+    /**
+     * Keys populated eagerly and kept fresh by the refresh job
+     */
+    public static class Scope {
+        /** Office IDs whose users are mirrored, crossed with roleNames */
+        private List<String> officeIds = new ArrayList<>();
+        private List<String> roleNames = new ArrayList<>();
+
+        /** EAuth IDs whose offices are mirrored for officeTypes */
+        private List<String> eauthIds = new ArrayList<>();
+        private List<String> officeTypes = new ArrayList<>(List.of("FSA", "FLP", "FLPFinance", "FLPJurisdiction"));
+
+        /** Users whose roles are mirrored, as authenticationSystemId:authorizationSystemId:loginName */
+        private List<String> users = new ArrayList<>();
+
+        public List<String> getOfficeIds() { return officeIds; }
+        public void setOfficeIds(List<String> officeIds) { this.officeIds = officeIds; }
+        public List<String> getRoleNames() { return roleNames; }
+        public void setRoleNames(List<String> roleNames) { this.roleNames = roleNames; }
+        public List<String> getEauthIds() { return eauthIds; }
+        public void setEauthIds(List<String> eauthIds) { this.eauthIds = eauthIds; }
+        public List<String> getOfficeTypes() { return officeTypes; }
+        public void setOfficeTypes(List<String> officeTypes) { this.officeTypes = officeTypes; }
+        public List<String> getUsers() { return users; }
+        public void setUsers(List<String> users) { this.users = users; }
+    }
+
+    /**
+     * Warm-start snapshot of the indexes, written periodically and on shutdown
+     */
+    public static class Snapshot {
+        /** Snapshot file location; snapshots are disabled when empty */
+        private String path = "";
+
+        /** Delay between periodic snapshots */
+        private long intervalMs = 300000;
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+        public long getIntervalMs() { return intervalMs; }
+        public void setIntervalMs(long intervalMs) { this.intervalMs = intervalMs; }
+    }
+
+    /**
+     * Re-fetch frequently read entries shortly before they pass the staleness bound
+     */
+    public static class RefreshAhead {
+        private boolean enabled = true;
+
+        /** Delay between scans for hot keys */
+        private long intervalMs = 5000;
+
+        /** Entries within this long of the staleness bound are eligible */
+        private long windowMs = 30000;
+
+        /** Minimum recent reads for an entry to count as hot; counts are halved on every scan */
+        private int minAccesses = 4;
+
+        /** Maximum keys queued per scan */
+        private int maxKeysPerRun = 100;
+
+        /** Dedicated refresh threads, separate from request threads */
+        private int maxConcurrency = 2;
+
+        /** Upper bound on refresh-ahead calls per second across all refresh threads */
+        private int maxRatePerSecond = 10;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public long getIntervalMs() { return intervalMs; }
+        public void setIntervalMs(long intervalMs) { this.intervalMs = intervalMs; }
+        public long getWindowMs() { return windowMs; }
+        public void setWindowMs(long windowMs) { this.windowMs = windowMs; }
+        public int getMinAccesses() { return minAccesses; }
+        public void setMinAccesses(int minAccesses) { this.minAccesses = minAccesses; }
+        public int getMaxKeysPerRun() { return maxKeysPerRun; }
+        public void setMaxKeysPerRun(int maxKeysPerRun) { this.maxKeysPerRun = maxKeysPerRun; }
+        public int getMaxConcurrency() { return maxConcurrency; }
+        public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+        public int getMaxRatePerSecond() { return maxRatePerSecond; }
+        public void setMaxRatePerSecond(int maxRatePerSecond) { this.maxRatePerSecond = maxRatePerSecond; }
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public long getStalenessMs() { return stalenessMs; }
+    public void setStalenessMs(long stalenessMs) { this.stalenessMs = stalenessMs; }
+    public long getRefreshIntervalMs() { return refreshIntervalMs; }
+    public void setRefreshIntervalMs(long refreshIntervalMs) { this.refreshIntervalMs = refreshIntervalMs; }
+    public long getRefreshAfterMs() { return refreshAfterMs; }
+    public void setRefreshAfterMs(long refreshAfterMs) { this.refreshAfterMs = refreshAfterMs; }
+    public int getRefreshBatchSize() { return refreshBatchSize; }
+    public void setRefreshBatchSize(int refreshBatchSize) { this.refreshBatchSize = refreshBatchSize; }
+    public int getMaxEntries() { return maxEntries; }
+    public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+    public String getApplicationId() { return applicationId; }
+    public void setApplicationId(String applicationId) { this.applicationId = applicationId; }
+    public String getRequestHost() { return requestHost; }
+    public void setRequestHost(String requestHost) { this.requestHost = requestHost; }
+    public Scope getScope() { return scope; }
+    public void setScope(Scope scope) { this.scope = scope; }
+    public Snapshot getSnapshot() { return snapshot; }
+    public void setSnapshot(Snapshot snapshot) { this.snapshot = snapshot; }
+    public RefreshAhead getRefreshAhead() { return refreshAhead; }
+    public void setRefreshAhead(RefreshAhead refreshAhead) { this.refreshAhead = refreshAhead; }
+}
@@ -0,0 +1,160 @@
+package com.example.config;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces the text of chosen XML elements with keyed pseudonyms.
+ * <p>
+ * A pseudonym is hex from an HMAC of the value, cut to the value's length, so a value maps to
+ * the same pseudonym wherever it appears (a login name in a request and in a user list) and a
+ * redacted payload is as long as the original. Elements are matched by local name, with or
+ * without a prefix and with any attributes (xmlns, xsi:type); the SOAP payloads here carry no
+ * CDATA or nested markup in those elements.
+ * <p>
+ * The texts of a SOAP fault are free-form and often repeat what was asked for ("User jdoe not
+ * found"), so in a fault every value redacted from the request is replaced, as a whole word, by
+ * the same pseudonym.
+ */
+public class PayloadRedactor {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final Pattern FAULT = Pattern.compile("<(?:[\\w.-]+:)?Fault[\\s>].*?</(?:[\\w.-]+:)?Fault>", Pattern.DOTALL);
+    private static final Pattern TEXT = Pattern.compile(">([^<]+)<");
+
+    private final Pattern elements;
+    private final SecretKeySpec key;
+
+    public PayloadRedactor(Collection<String> elementNames, String pseudonymKey) {
+        StringBuilder names = new StringBuilder();
+        for (String name : elementNames) {
+            if (names.length() > 0) {
+                names.append('|');
+            }
+            names.append(Pattern.quote(name));
+        }
+        // <Name> or <prefix:Name>, possibly with attributes but not self-closing, the text, and the close tag
+        this.elements = Pattern.compile("(<(?:[\\w.-]+:)?(?:" + names + ")(?:\\s[^>]*)?(?<!/)>)([^<]+)(</)");
+        byte[] keyBytes;
+        if (pseudonymKey == null || pseudonymKey.isEmpty()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = pseudonymKey.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    public String redact(String xml) {
+        Matcher matcher = elements.matcher(xml);
+        if (!matcher.find()) {
+            return xml;
+        }
+        Mac mac = newMac();
+        StringBuilder redacted = new StringBuilder(xml.length());
+        int last = 0;
+        do {
+            redacted.append(xml, last, matcher.start(2));
+            redacted.append(pseudonym(mac, matcher.group(2)));
+            last = matcher.end(2);
+        } while (matcher.find());
+        redacted.append(xml, last, xml.length());
+        return redacted.toString();
+    }
+
+    /**
+     * Redact a response, and in a fault also the values redacted from its request
+     */
+    public String redactResponse(String request, String response) {
+        String redacted = redact(response);
+        Matcher fault = FAULT.matcher(redacted);
+        if (!fault.find()) {
+            return redacted;
+        }
+        Pattern values = requestValues(request);
+        if (values == null) {
+            return redacted;
+        }
+        Mac mac = newMac();
+        StringBuilder out = new StringBuilder(redacted.length());
+        int last = 0;
+        do {
+            Matcher text = TEXT.matcher(redacted).region(fault.start(), fault.end());
+            while (text.find()) {
+                out.append(redacted, last, text.start(1));
+                out.append(values.matcher(text.group(1))
+                    .replaceAll(value -> Matcher.quoteReplacement(pseudonym(mac, value.group()))));
+                last = text.end(1);
+            }
+        } while (fault.find());
+        out.append(redacted, last, redacted.length());
+        return out.toString();
+    }
+
+    /**
+     * The values redacted from a request as whole words, longest first; null if there are none
+     */
+    private Pattern requestValues(String request) {
+        Set<String> values = new TreeSet<>(Comparator.comparingInt(String::length).reversed()
+            .thenComparing(Comparator.naturalOrder()));
+        Matcher matcher = elements.matcher(request);
+        while (matcher.find()) {
+            if (!matcher.group(2).isBlank()) {
+                values.add(matcher.group(2));
+            }
+        }
+        if (values.isEmpty()) {
+            return null;
+        }
+        StringBuilder alternatives = new StringBuilder();
+        for (String value : values) {
+            if (alternatives.length() > 0) {
+                alternatives.append('|');
+            }
+            alternatives.append(Pattern.quote(value));
+        }
+        return Pattern.compile("(?<!\\w)(?:" + alternatives + ")(?!\\w)");
+    }
+
+    String pseudonym(String value) {
+        return pseudonym(newMac(), value);
+    }
+
+    private static String pseudonym(Mac mac, String value) {
+        byte[] input = value.getBytes(StandardCharsets.UTF_8);
+        char[] pseudonym = new char[value.length()];
+        int filled = 0;
+        // Values longer than one digest take further blocks, each keyed by its index
+        for (byte block = 0; filled < pseudonym.length; block++) {
+            mac.update(block);
+            byte[] digest = mac.doFinal(input);
+            for (int i = 0; i < digest.length && filled < pseudonym.length; i++) {
+                pseudonym[filled++] = HEX[(digest[i] >> 4) & 0xF];
+                if (filled < pseudonym.length) {
+                    pseudonym[filled++] = HEX[digest[i] & 0xF];
+                }
+            }
+        }
+        return new String(pseudonym);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create " + ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.config;
+
+import org.springframework.ws.FaultAwareWebServiceMessage;
+import org.springframework.ws.WebServiceMessageFactory;
+import org.springframework.ws.transport.TransportOutputStream;
+
+import javax.xml.namespace.QName;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Outgoing SOAP message written straight from a {@link SoapEnvelopeTemplate}, without JAXB
+ * or a SAAJ document. The payload is only parsed if something asks for it, such as debug logging.
+ * <p>
+ * It is fault-aware like any SOAP message, which is what tells the template to read an HTTP 500
+ * response as a SOAP fault rather than a transport error. A request never holds a fault itself.
+ */
+class PrecompiledSoapMessage implements FaultAwareWebServiceMessage {
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    private final SoapEnvelopeTemplate template;
+    private final String[] values;
+    private final WebServiceMessageFactory messageFactory;
+
+    PrecompiledSoapMessage(SoapEnvelopeTemplate template, String[] values, WebServiceMessageFactory messageFactory) {
+        this.template = template;
+        this.values = values;
+        this.messageFactory = messageFactory;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        if (outputStream instanceof TransportOutputStream transportOutputStream) {
+            for (String[] header : template.getHeaders()) {
+                String value = CONTENT_LENGTH.equalsIgnoreCase(header[0])
+                    ? Long.toString(template.contentLength(values))
+                    : header[1];
+                transportOutputStream.addHeader(header[0], value);
+            }
+        }
+        template.write(outputStream, values);
+        outputStream.flush();
+    }
+
+    @Override
+    public Source getPayloadSource() {
+        try {
+            return messageFactory.createWebServiceMessage(new ByteArrayInputStream(template.toByteArray(values)))
+                .getPayloadSource();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Result getPayloadResult() {
+        throw new UnsupportedOperationException("Precompiled " + template.getOperation() + " messages cannot be modified");
+    }
+
+    @Override
+    public boolean hasFault() {
+        return false;
+    }
+
+    @Override
+    public QName getFaultCode() {
+        return null;
+    }
+
+    @Override
+    public String getFaultReason() {
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "PrecompiledSoapMessage " + template.getOperation();
+    }
+}
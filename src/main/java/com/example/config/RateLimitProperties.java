@@ -0,0 +1,58 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-application request rate limits for the REST API (authorization.rate-limit.*)
+ */
+@ConfigurationProperties(prefix = "authorization.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = false;
+
+    /** Limit for each application across all endpoints, unless overridden in applications */
+    private Limit defaultLimit = new Limit(50, 100);
+
+    /** Per-applicationId overrides of the default limit */
+    private Map<String, Limit> applications = new LinkedHashMap<>();
+
+    /** Additional per-endpoint limits, applied to each application separately */
+    private Map<String, Limit> endpoints = new LinkedHashMap<>();
+
+    /** Distinct applicationIds tracked individually; further IDs share one overflow bucket */
+    private int maxApplications = 1000;
+
+    /**
+     * Sustained rate and burst size of a token bucket
+     */
+    public static class Limit {
+        private double ratePerSecond;
+        private int burst;
+
+        public Limit() {}
+
+        public Limit(double ratePerSecond, int burst) {
+            this.ratePerSecond = ratePerSecond;
+            this.burst = burst;
+        }
+
+        public double getRatePerSecond() { return ratePerSecond; }
+        public void setRatePerSecond(double ratePerSecond) { this.ratePerSecond = ratePerSecond; }
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Limit getDefaultLimit() { return defaultLimit; }
+    public void setDefaultLimit(Limit defaultLimit) { this.defaultLimit = defaultLimit; }
+    public Map<String, Limit> getApplications() { return applications; }
+    public void setApplications(Map<String, Limit> applications) { this.applications = applications; }
+    public Map<String, Limit> getEndpoints() { return endpoints; }
+    public void setEndpoints(Map<String, Limit> endpoints) { this.endpoints = endpoints; }
+    public int getMaxApplications() { return maxApplications; }
+    public void setMaxApplications(int maxApplications) { this.maxApplications = maxApplications; }
+}
@@ -0,0 +1,111 @@
+package com.example.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Request body stream of an upstream SOAP call that gzips large bodies.
+ * <p>
+ * The first {@code minCompressBytes} are buffered without opening the connection's own stream.
+ * If the body grows past that, Content-Encoding: gzip is set (still possible, since nothing has
+ * been sent) and the rest is compressed on the fly; smaller bodies are sent as they are, where
+ * gzip would cost more CPU than it saves bytes. A negative threshold never compresses.
+ * Both the uncompressed and the on-the-wire size are counted.
+ */
+class RequestBodyOutputStream extends OutputStream {
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final HttpURLConnection connection;
+    private final long minCompressBytes;
+    private ByteArrayOutputStream pending;
+    private CountingOutputStream wire;
+    private OutputStream target;
+    private long payloadBytes;
+    private boolean compressed;
+    private boolean finished;
+
+    RequestBodyOutputStream(HttpURLConnection connection, long minCompressBytes) {
+        this.connection = connection;
+        this.minCompressBytes = minCompressBytes;
+        this.pending = minCompressBytes < 0
+            ? null
+            : new ByteArrayOutputStream((int) Math.min(minCompressBytes, GZIP_BUFFER_SIZE));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        payloadBytes += length;
+        if (target == null) {
+            if (pending != null && pending.size() + length <= minCompressBytes) {
+                pending.write(buffer, offset, length);
+                return;
+            }
+            open(pending != null);
+        }
+        target.write(buffer, offset, length);
+    }
+
+    /**
+     * Nothing is flushed before the body is complete; see finish()
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Complete the body: send a small buffered body uncompressed, or write the gzip trailer
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (target == null) {
+            open(false);
+        }
+        if (compressed) {
+            ((GZIPOutputStream) target).finish();
+        }
+        target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        target.close();
+    }
+
+    private void open(boolean compress) throws IOException {
+        if (compress) {
+            connection.setRequestProperty("Content-Encoding", "gzip");
+        }
+        wire = new CountingOutputStream(connection.getOutputStream());
+        target = compress ? new GZIPOutputStream(wire, GZIP_BUFFER_SIZE) : wire;
+        compressed = compress;
+        if (pending != null) {
+            pending.writeTo(target);
+            pending = null;
+        }
+    }
+
+    long getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    long getWireBytes() {
+        return wire != null ? wire.getCount() : 0;
+    }
+
+    boolean isCompressed() {
+        return compressed;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Names and rotates the files of one writer in a directory. Not thread-safe: one writer thread.
+ * <p>
+ * A name is the prefix, the time the file was started, a sequence number and the suffix, so
+ * names sort oldest first. Starting a file deletes the oldest ones beyond {@code maxFiles}.
+ */
+class RotatingFiles {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path directory;
+    private final String prefix;
+    private final String suffix;
+    private final int maxFiles;
+
+    private int fileSequence;
+
+    RotatingFiles(Path directory, String prefix, String suffix, int maxFiles) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    /**
+     * The files in the directory, oldest first
+     */
+    List<Path> list() throws IOException {
+        return list(directory, prefix, suffix);
+    }
+
+    /**
+     * Delete the oldest files so that the next one keeps at most {@code maxFiles}, and name it
+     */
+    Path next() throws IOException {
+        List<Path> files = list();
+        for (int i = 0; i < files.size() - (maxFiles - 1); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+        return directory.resolve(prefix + FILE_TIME.format(LocalDateTime.now()) + '-'
+            + String.format("%04d", fileSequence++ % 10000) + suffix);
+    }
+
+    static List<Path> list(Path directory, String prefix, String suffix) throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(prefix) && name.endsWith(suffix);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Serialized SOAP request with parameter slots, compiled from the output of the JAXB path.
+ * <p>
+ * A sample request whose string fields hold unique slot tokens is marshalled and serialized
+ * once; the bytes between the tokens become literals, and the transport headers the message
+ * wrote are kept too (Content-Length is recomputed per message). Writing a request is then copying the literals with the escaped values
+ * in between, which produces the same bytes as the JAXB path for any value it can escape.
+ */
+final class SoapEnvelopeTemplate {
+
+    private final String operation;
+    private final byte[][] literals;
+    /** Index of the value that goes into each slot, in document order */
+    private final int[] slotOrder;
+    private final List<String[]> headers;
+
+    private SoapEnvelopeTemplate(String operation, byte[][] literals, int[] slotOrder, List<String[]> headers) {
+        this.operation = operation;
+        this.literals = literals;
+        this.slotOrder = slotOrder;
+        this.headers = headers;
+    }
+
+    /**
+     * Split a serialized sample at its slot tokens
+     *
+     * @throws IllegalArgumentException if a token does not occur exactly once
+     */
+    static SoapEnvelopeTemplate compile(String operation, byte[] sample, String[] tokens, List<String[]> headers) {
+        String text = new String(sample, StandardCharsets.UTF_8);
+        int[] positions = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            positions[i] = text.indexOf(tokens[i]);
+            if (positions[i] < 0 || text.indexOf(tokens[i], positions[i] + 1) >= 0) {
+                throw new IllegalArgumentException("Slot " + i + " of " + operation + " does not occur exactly once");
+            }
+        }
+
+        Integer[] order = new Integer[tokens.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(positions[a], positions[b]));
+
+        byte[][] literals = new byte[tokens.length + 1][];
+        int[] slotOrder = new int[tokens.length];
+        int start = 0;
+        for (int i = 0; i < order.length; i++) {
+            int slot = order[i];
+            literals[i] = text.substring(start, positions[slot]).getBytes(StandardCharsets.UTF_8);
+            slotOrder[i] = slot;
+            start = positions[slot] + tokens[slot].length();
+        }
+        literals[tokens.length] = text.substring(start).getBytes(StandardCharsets.UTF_8);
+        return new SoapEnvelopeTemplate(operation, literals, slotOrder, List.copyOf(headers));
+    }
+
+    String getOperation() {
+        return operation;
+    }
+
+    int getSlotCount() {
+        return slotOrder.length;
+    }
+
+    List<String[]> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * True if every value can be written by {@link #write}: non-empty (the serializer writes an
+     * empty element as {@code <a/>}) and free of characters it would encode differently
+     * (control characters other than tab, and surrogates)
+     */
+    static boolean canWrite(String[] values) {
+        for (String value : values) {
+            if (value == null || value.isEmpty()) {
+                return false;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x20 && c != '\t' || c >= 0x7f && c < 0xa0 || Character.isSurrogate(c) || c == 0xfffe || c == 0xffff) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    void write(OutputStream out, String[] values) throws IOException {
+        out.write(literals[0]);
+        for (int i = 0; i < slotOrder.length; i++) {
+            writeEscaped(out, values[slotOrder[i]]);
+            out.write(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Number of bytes {@link #write} produces for these values
+     */
+    long contentLength(String[] values) {
+        long length = 0;
+        for (byte[] literal : literals) {
+            length += literal.length;
+        }
+        for (String value : values) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                length += switch (c) {
+                    case '&' -> 5;
+                    case '<', '>' -> 4;
+                    default -> c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+                };
+            }
+        }
+        return length;
+    }
+
+    byte[] toByteArray(String[] values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try {
+            write(out, values);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Escape character data the way the SAAJ serializer does: &amp;, &lt; and &gt;, everything
+     * else as UTF-8
+     */
+    private static void writeEscaped(OutputStream out, String value) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String entity = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.write(value.substring(start, i).getBytes(StandardCharsets.UTF_8));
+                out.write(entity.getBytes(StandardCharsets.US_ASCII));
+                start = i + 1;
+            }
+        }
+        out.write(start == 0 ? value.getBytes(StandardCharsets.UTF_8)
+                             : value.substring(start).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Unique token for a slot; plain ASCII so the serializer writes it unchanged
+     */
+    static String token(int slot) {
+        return "zzSlot" + slot + "zz";
+    }
+
+    static String[] tokens(int count) {
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tokens.add(token(i));
+        }
+        return tokens.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.config;
+
+import com.example.generated.*;
+import jakarta.xml.bind.JAXBElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.oxm.Marshaller;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.WebServiceMessageFactory;
+import org.springframework.ws.support.MarshallingUtils;
+import org.springframework.ws.transport.TransportOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Precompiled envelopes for the small fixed-shape SOAP requests.
+ * <p>
+ * Enabled per operation (soap.upstream.fast-path-operations). Each template is compiled at
+ * startup from the marshaller and message factory the template actually uses, so its bytes and
+ * headers are those of the JAXB path. A request only takes the fast path if it has the shape the
+ * template was compiled from (every slot set) and its values can be escaped here; anything else,
+ * and every other operation, goes through JAXB as before.
+ */
+public class SoapEnvelopeTemplates {
+
+    private static final Logger logger = LoggerFactory.getLogger(SoapEnvelopeTemplates.class);
+
+    /**
+     * How to build a sample of an operation's request from slot values, and read the values back
+     */
+    private record Shape<T>(Class<T> type, int slots, Function<String[], Object> sample, Function<T, String[]> values) {
+        String[] valuesOf(Object request) {
+            return values.apply(type.cast(request));
+        }
+    }
+
+    private static final List<Shape<?>> SHAPES = List.of(
+        new Shape<>(IsHealthy.class, 0,
+            slot -> new ObjectFactory().createIsHealthy(new IsHealthy()),
+            request -> new String[0]),
+        new Shape<>(GetUserRolesRequest.class, 3,
+            slot -> new GetUserRolesRequest().withUserIdentity(new UserIdentity()
+                .withAuthenticationSystemIdentifier(slot[0])
+                .withAuthorizationSystemIdentifier(slot[1])
+                .withUserLoginName(slot[2])),
+            request -> {
+                UserIdentity identity = request.getUserIdentity();
+                return identity == null ? null : new String[] {
+                    identity.getAuthenticationSystemIdentifier(),
+                    identity.getAuthorizationSystemIdentifier(),
+                    identity.getUserLoginName()};
+            }),
+        new Shape<>(FindUsersByCriteriaRequest.class, 4,
+            slot -> new FindUsersByCriteriaRequest().withOfficeId(slot[0]).withRoleName(slot[1])
+                .withRequestToken(new RequestToken().withApplicationIdentifier(slot[2]).withRequestHost(slot[3])),
+            request -> {
+                RequestToken token = request.getRequestToken();
+                return token == null ? null : new String[] {
+                    request.getOfficeId(), request.getRoleName(),
+                    token.getApplicationIdentifier(), token.getRequestHost()};
+            }));
+
+    private record Compiled(Shape<?> shape, SoapEnvelopeTemplate template) {}
+
+    private final WebServiceMessageFactory messageFactory;
+    private final Map<Class<?>, Compiled> templates = new HashMap<>();
+
+    public SoapEnvelopeTemplates(WebServiceMessageFactory messageFactory, Marshaller marshaller,
+                                 Collection<String> operations) {
+        this.messageFactory = messageFactory;
+        for (Shape<?> shape : SHAPES) {
+            String operation = shape.type().getSimpleName();
+            if (!operations.contains(operation)) {
+                continue;
+            }
+            try {
+                templates.put(shape.type(), new Compiled(shape, compile(operation, shape, marshaller)));
+            } catch (Exception e) {
+                logger.warn("Could not precompile the {} envelope, it will be marshalled with JAXB", operation, e);
+            }
+        }
+        if (!templates.isEmpty()) {
+            logger.info("Precompiled SOAP envelopes for {}", templates.values().stream()
+                .map(compiled -> compiled.template().getOperation()).toList());
+        }
+    }
+
+    private SoapEnvelopeTemplate compile(String operation, Shape<?> shape, Marshaller marshaller) throws IOException {
+        String[] tokens = SoapEnvelopeTemplate.tokens(shape.slots());
+        CapturingOutputStream out = new CapturingOutputStream();
+        WebServiceMessage message = messageFactory.createWebServiceMessage();
+        MarshallingUtils.marshal(marshaller, shape.sample().apply(tokens), message);
+        message.writeTo(out);
+        return SoapEnvelopeTemplate.compile(operation, out.toByteArray(), tokens, out.headers);
+    }
+
+    /**
+     * A message for the request written from its template, or null if it has to go through JAXB
+     */
+    WebServiceMessage createMessage(Object request) {
+        if (request instanceof JAXBElement<?> element) {
+            request = element.getValue();
+        }
+        Compiled compiled = request != null ? templates.get(request.getClass()) : null;
+        if (compiled == null) {
+            return null;
+        }
+        String[] values = compiled.shape().valuesOf(request);
+        if (values == null || !SoapEnvelopeTemplate.canWrite(values)) {
+            return null;
+        }
+        return new PrecompiledSoapMessage(compiled.template(), values, messageFactory);
+    }
+
+    boolean isEnabled(Class<?> requestType) {
+        return templates.containsKey(requestType);
+    }
+
+    /**
+     * Transport stream that records the headers and body a message writes
+     */
+    static class CapturingOutputStream extends TransportOutputStream {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final List<String[]> headers = new ArrayList<>();
+
+        @Override
+        public void addHeader(String name, String value) {
+            headers.add(new String[] {name, value});
+        }
+
+        @Override
+        protected OutputStream createOutputStream() {
+            return body;
+        }
+
+        byte[] toByteArray() {
+            return body.toByteArray();
+        }
+    }
+}
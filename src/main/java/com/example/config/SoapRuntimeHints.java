@@ -0,0 +1,72 @@
+package com.example.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Native-image metadata for the SOAP client.
+ * <p>
+ * JAXB binds the wsimport classes in com.example.generated entirely by reflection, and SAAJ and
+ * the JAXB runtime find their implementations through META-INF/services, so none of it is
+ * visible to static analysis. The generated classes are found by scanning the package while the
+ * AOT step runs, so new WSDL types are covered without editing this list.
+ * The client uses no Java serialization, so no serialization hints are needed.
+ */
+public class SoapRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final String GENERATED_PACKAGE = "com.example.generated";
+
+    /** Service implementations looked up reflectively by SAAJ and JAXB */
+    private static final List<String> SERVICE_IMPLEMENTATIONS = List.of(
+        "com.sun.xml.messaging.saaj.soap.SAAJMetaFactoryImpl",
+        "com.sun.xml.messaging.saaj.soap.ver1_1.SOAPMessageFactory1_1Impl",
+        "com.sun.xml.messaging.saaj.soap.ver1_2.SOAPMessageFactory1_2Impl",
+        "com.sun.xml.messaging.saaj.soap.ver1_1.SOAPFactory1_1Impl",
+        "com.sun.xml.messaging.saaj.soap.ver1_2.SOAPFactory1_2Impl",
+        "org.glassfish.jaxb.runtime.v2.JAXBContextFactory",
+        "org.glassfish.jaxb.runtime.v2.ContextFactory");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String className : generatedClassNames(classLoader)) {
+            hints.reflection().registerType(TypeReference.of(className), MemberCategory.values());
+        }
+        for (String className : SERVICE_IMPLEMENTATIONS) {
+            hints.reflection().registerType(TypeReference.of(className),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        hints.resources()
+            .registerPattern("META-INF/services/jakarta.xml.soap.*")
+            .registerPattern("META-INF/services/jakarta.xml.bind.*")
+            .registerPattern(GENERATED_PACKAGE.replace('.', '/') + "/jaxb.index")
+            .registerPattern(GENERATED_PACKAGE.replace('.', '/') + "/jaxb.properties")
+            .registerPattern("*.wsdl");
+    }
+
+    static List<String> generatedClassNames(ClassLoader classLoader) {
+        String pattern = "classpath*:" + GENERATED_PACKAGE.replace('.', '/') + "/*.class";
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver(classLoader).getResources(pattern);
+            return Arrays.stream(resources)
+                .map(Resource::getFilename)
+                .filter(name -> name != null && name.endsWith(".class"))
+                // Not a valid type name for hints; package-info is in META-INF/native-image reflect-config.json
+                .filter(name -> !name.equals("package-info.class"))
+                .map(name -> GENERATED_PACKAGE + "." + name.substring(0, name.length() - ".class".length()))
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list " + GENERATED_PACKAGE + " classes", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.config;
+
+import com.example.service.DirectoryMirrorService;
+import com.example.service.RefreshAheadService;
+import com.example.service.UpstreamConnectionWarmer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Startup tuning and measurement.
+ * <p>
+ * With spring.main.lazy-initialization (the fast-startup profile) beans are created on first
+ * use, except the ones listed here that must run on their own: scheduled work, the mirror
+ * snapshot, the marshalling warm-up and the upstream connection pre-warm. The time from JVM
+ * start to the first served request is logged and published as application.first-request.time,
+ * next to Spring Boot's application.started.time and application.ready.time; /actuator/startup
+ * has the step breakdown.
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+
+    public StartupConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+            DirectoryMirrorService.class, RefreshAheadService.class, MarshallingWarmup.class, StartupConfig.class,
+            UpstreamAddressCache.class, UpstreamConnectionWarmer.class);
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        logger.info("Ready to serve {} ms after JVM start", jvmUptimeMillis());
+    }
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (firstRequestSeen.compareAndSet(false, true)) {
+            long millis = jvmUptimeMillis();
+            logger.info("First request ({}) served {} ms after JVM start", event.getRequestUrl(), millis);
+            Gauge.builder("application.first-request.time", () -> millis)
+                .baseUnit("milliseconds")
+                .description("Time from JVM start to the first request served")
+                .register(meterRegistry);
+        }
+    }
+
+    private static long jvmUptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.config;
+
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+
+/**
+ * Jaxb2Marshaller that reuses one JAXB Marshaller and Unmarshaller per thread.
+ * <p>
+ * The base class creates and configures a fresh instance for every message. JAXB marshallers
+ * are not thread-safe but are reusable, so each request thread keeps its own. MTOM attachments
+ * would be set per call on the shared instance, so reuse is only enabled without MTOM.
+ */
+public class ThreadConfinedJaxb2Marshaller extends Jaxb2Marshaller {
+
+    private final ThreadLocal<Marshaller> marshallers = new ThreadLocal<>();
+    private final ThreadLocal<Unmarshaller> unmarshallers = new ThreadLocal<>();
+    private boolean mtomEnabled;
+
+    @Override
+    public void setMtomEnabled(boolean mtomEnabled) {
+        super.setMtomEnabled(mtomEnabled);
+        this.mtomEnabled = mtomEnabled;
+    }
+
+    @Override
+    public Marshaller createMarshaller() {
+        if (mtomEnabled) {
+            return super.createMarshaller();
+        }
+        Marshaller marshaller = marshallers.get();
+        if (marshaller == null) {
+            marshaller = super.createMarshaller();
+            marshallers.set(marshaller);
+        }
+        return marshaller;
+    }
+
+    @Override
+    public Unmarshaller createUnmarshaller() {
+        if (mtomEnabled) {
+            return super.createUnmarshaller();
+        }
+        Unmarshaller unmarshaller = unmarshallers.get();
+        if (unmarshaller == null) {
+            unmarshaller = super.createUnmarshaller();
+            unmarshallers.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
+}
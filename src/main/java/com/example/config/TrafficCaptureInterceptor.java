@@ -0,0 +1,97 @@
+package com.example.config;
+
+import com.example.service.UpstreamCallContext;
+import org.springframework.ws.FaultAwareWebServiceMessage;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.client.WebServiceClientException;
+import org.springframework.ws.client.support.interceptor.ClientInterceptor;
+import org.springframework.ws.context.MessageContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records each upstream call, with its envelopes redacted, for later replay (soap.capture.enabled).
+ * <p>
+ * The latency is from just before the request is sent to the response being read, the time the
+ * service itself accounts for. Envelopes are serialized and redacted after the call completes and
+ * handed to the {@link TrafficCaptureWriter} queue, so the caller never waits on the file.
+ */
+public class TrafficCaptureInterceptor implements ClientInterceptor {
+
+    private static final String STARTED_AT = TrafficCaptureInterceptor.class.getName() + ".startedAt";
+    private static final String STARTED_NANOS = TrafficCaptureInterceptor.class.getName() + ".startedNanos";
+    private static final String ANSWERED_NANOS = TrafficCaptureInterceptor.class.getName() + ".answeredNanos";
+
+    private final PayloadRedactor redactor;
+    private final TrafficCaptureWriter writer;
+
+    public TrafficCaptureInterceptor(PayloadRedactor redactor, TrafficCaptureWriter writer) {
+        this.redactor = redactor;
+        this.writer = writer;
+    }
+
+    @Override
+    public boolean handleRequest(MessageContext messageContext) throws WebServiceClientException {
+        messageContext.setProperty(STARTED_AT, System.currentTimeMillis());
+        messageContext.setProperty(STARTED_NANOS, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public boolean handleResponse(MessageContext messageContext) throws WebServiceClientException {
+        messageContext.setProperty(ANSWERED_NANOS, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(MessageContext messageContext) throws WebServiceClientException {
+        messageContext.setProperty(ANSWERED_NANOS, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(MessageContext messageContext, Exception ex) throws WebServiceClientException {
+        Long startedNanos = (Long) messageContext.getProperty(STARTED_NANOS);
+        if (startedNanos == null) {
+            return;
+        }
+        Long answeredNanos = (Long) messageContext.getProperty(ANSWERED_NANOS);
+        long latencyNanos = (answeredNanos != null ? answeredNanos : System.nanoTime()) - startedNanos;
+
+        WebServiceMessage response = answeredNanos != null && messageContext.hasResponse()
+            ? messageContext.getResponse()
+            : null;
+        CaptureRecord.Outcome outcome;
+        if (response == null) {
+            outcome = CaptureRecord.Outcome.ERROR;
+        } else if (response instanceof FaultAwareWebServiceMessage faultAware && faultAware.hasFault()) {
+            outcome = CaptureRecord.Outcome.FAULT;
+        } else {
+            outcome = CaptureRecord.Outcome.OK;
+        }
+
+        try {
+            String request = serialize(messageContext.getRequest());
+            writer.offer(new CaptureRecord(
+                (Long) messageContext.getProperty(STARTED_AT),
+                TimeUnit.NANOSECONDS.toMicros(latencyNanos),
+                UpstreamCallContext.currentOperation(),
+                UpstreamCallContext.currentPriority().name(),
+                outcome,
+                redactor.redact(request),
+                response != null ? redactor.redactResponse(request, serialize(response)) : null));
+        } catch (IOException | RuntimeException e) {
+            // Capture is best effort and must not fail the call
+            writer.recordDropped();
+        }
+    }
+
+    private static String serialize(WebServiceMessage message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        message.writeTo(bytes);
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
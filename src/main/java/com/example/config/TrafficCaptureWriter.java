@@ -0,0 +1,154 @@
+package com.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends capture records to gzip-compressed JSON-lines files on a background thread.
+ * <p>
+ * Callers only offer a record to a bounded queue; when the writer falls behind, records are
+ * dropped and counted rather than slowing upstream calls. Each batch is flushed with a sync flush,
+ * so a crash loses at most the batch being written. A file is closed once it reaches the size
+ * limit, and the oldest files are deleted to keep at most {@code maxFiles}.
+ */
+public class TrafficCaptureWriter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficCaptureWriter.class);
+
+    private static final String PREFIX = "capture-";
+    private static final String SUFFIX = ".ndjson.gz";
+    private static final int BATCH_SIZE = 512;
+    private static final byte NEWLINE = '\n';
+
+    private final RotatingFiles files;
+    private final long maxFileBytes;
+    private final BlockingQueue<CaptureRecord> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    private CountingOutputStream fileBytes;
+    private GZIPOutputStream out;
+
+    public TrafficCaptureWriter(Path directory, long maxFileBytes, int maxFiles, int queueCapacity) throws IOException {
+        this.files = new RotatingFiles(Files.createDirectories(directory), PREFIX, SUFFIX, maxFiles);
+        this.maxFileBytes = maxFileBytes;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.thread = new Thread(this::run, "traffic-capture");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queue a record for writing; false if it was dropped because the queue is full or the writer closed
+     */
+    public boolean offer(CaptureRecord record) {
+        if (!closed && queue.offer(record)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Count a record that could not be produced, alongside the ones the queue turned away
+     */
+    public void recordDropped() {
+        dropped.incrementAndGet();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Write what is queued, finish the current file and stop the writer thread
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The capture files in a directory, oldest first
+     */
+    static List<Path> files(Path directory) throws IOException {
+        return RotatingFiles.list(directory, PREFIX, SUFFIX);
+    }
+
+    private void run() {
+        List<CaptureRecord> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                CaptureRecord first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeFile();
+        }
+    }
+
+    private void write(List<CaptureRecord> batch) {
+        try {
+            if (out == null) {
+                openFile();
+            }
+            for (CaptureRecord record : batch) {
+                out.write(CaptureRecord.mapper().writeValueAsBytes(record));
+                out.write(NEWLINE);
+            }
+            out.flush();
+            if (fileBytes.getCount() >= maxFileBytes) {
+                closeFile();
+            }
+        } catch (IOException e) {
+            dropped.addAndGet(batch.size());
+            logger.warn("Failed to write {} traffic capture record(s): {}", batch.size(), e.getMessage());
+            closeFile();
+        }
+    }
+
+    private void openFile() throws IOException {
+        fileBytes = new CountingOutputStream(Files.newOutputStream(files.next(),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+        // Sync flush: each flushed batch can be read back without the gzip trailer
+        out = new GZIPOutputStream(fileBytes, 64 * 1024, true);
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close traffic capture file: {}", e.getMessage());
+            }
+            out = null;
+            fileBytes = null;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.ws.client.core.WebServiceTemplate;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the service host's address resolved ahead of need.
+ * <p>
+ * Addresses are cached by the JVM for soap.upstream.dns.ttl-seconds (see
+ * {@link UpstreamNetworkSettings}). The host is re-resolved here every refresh interval: while
+ * the cached entry is fresh that is a map lookup, and once it expires it is this thread, not a
+ * request, that does the DNS query and puts the new entry in place. A lookup that fails keeps
+ * the last known addresses reported and is retried on the next refresh. Java 17 has no resolver
+ * SPI, so the cache itself has to stay the JVM's.
+ */
+@Component
+public class UpstreamAddressCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamAddressCache.class);
+
+    private final String host;
+    private final Timer lookups;
+    private final Counter failures;
+    private volatile List<InetAddress> addresses = List.of();
+    private volatile boolean failing;
+
+    @Autowired
+    public UpstreamAddressCache(WebServiceTemplate webServiceTemplate, MeterRegistry meterRegistry) {
+        this.host = URI.create(webServiceTemplate.getDefaultUri()).getHost();
+        this.lookups = Timer.builder("authorization.upstream.dns.lookup")
+            .description("Time to resolve the SOAP service host, from the address cache or DNS")
+            .register(meterRegistry);
+        this.failures = Counter.builder("authorization.upstream.dns.failures").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${soap.upstream.dns.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (host == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            List<InetAddress> resolved = Arrays.asList(InetAddress.getAllByName(host));
+            lookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!resolved.equals(addresses)) {
+                logger.info("SOAP service host {} resolves to {}", host, resolved);
+                addresses = List.copyOf(resolved);
+            }
+            failing = false;
+        } catch (UnknownHostException e) {
+            failures.increment();
+            if (!failing) {
+                logger.warn("Could not resolve SOAP service host {}, keeping {}", host, addresses);
+                failing = true;
+            }
+        }
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Addresses from the last successful lookup
+     */
+    public List<InetAddress> getAddresses() {
+        return addresses;
+    }
+}
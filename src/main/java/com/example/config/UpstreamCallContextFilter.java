@@ -0,0 +1,100 @@
+package com.example.config;
+
+import com.example.service.UpstreamCallContext;
+import com.example.service.UpstreamPriority;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sets up the {@link UpstreamCallContext} for the upstream calls made while serving an API request.
+ * <ul>
+ *   <li>Priority comes from the X-Upstream-Priority header (interactive, batch or background).
+ *       Without it, configured batch paths default to batch and everything else to interactive.</li>
+ *   <li>The deadline starts when the request arrives, with the budget from the X-Request-Timeout-Ms
+ *       header, or the configured request budget. A header budget can only shorten the default.</li>
+ * </ul>
+ */
+@Component
+public class UpstreamCallContextFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamCallContextFilter.class);
+
+    public static final String PRIORITY_HEADER = "X-Upstream-Priority";
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final Set<String> batchPaths;
+    private final long requestBudgetMs;
+
+    @Autowired
+    public UpstreamCallContextFilter(UpstreamProperties properties) {
+        this.batchPaths = new HashSet<>(properties.getBatchPaths());
+        this.requestBudgetMs = properties.getRequestBudgetMs();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long arrivedNanos = System.nanoTime();
+        UpstreamCallContext.setPriority(resolvePriority(request));
+        long budgetMs = resolveBudgetMillis(request);
+        if (budgetMs > 0) {
+            UpstreamCallContext.setDeadline(arrivedNanos + TimeUnit.MILLISECONDS.toNanos(budgetMs));
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            UpstreamCallContext.clear();
+        }
+    }
+
+    private UpstreamPriority resolvePriority(HttpServletRequest request) {
+        String header = request.getHeader(PRIORITY_HEADER);
+        if (header != null && !header.isBlank()) {
+            try {
+                return UpstreamPriority.fromValue(header.trim());
+            } catch (IllegalArgumentException e) {
+                logger.debug("Ignoring {} header: {}", PRIORITY_HEADER, e.getMessage());
+            }
+        }
+        return batchPaths.contains(request.getRequestURI()) ? UpstreamPriority.BATCH : UpstreamPriority.INTERACTIVE;
+    }
+
+    private long resolveBudgetMillis(HttpServletRequest request) {
+        return resolveBudgetMillis(request.getHeader(TIMEOUT_HEADER), requestBudgetMs);
+    }
+
+    /**
+     * The request's time budget: the X-Request-Timeout-Ms value if it is valid and shorter than
+     * the default, otherwise the default
+     */
+    static long resolveBudgetMillis(String header, long requestBudgetMs) {
+        if (header != null && !header.isBlank()) {
+            try {
+                long clientBudget = Long.parseLong(header.trim());
+                if (clientBudget > 0) {
+                    return requestBudgetMs > 0 ? Math.min(clientBudget, requestBudgetMs) : clientBudget;
+                }
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring {} header: {}", TIMEOUT_HEADER, header);
+            }
+        }
+        return requestBudgetMs;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.security.Security;
+
+/**
+ * Applies soap.upstream settings that only exist JVM-wide: the address cache TTLs and the number
+ * of idle keep-alive connections kept per host. The JDK reads these once, on the first lookup and
+ * the first HTTP connection, so they are set while the environment is prepared, before either
+ * happens. Values given on the command line (-Dhttp.maxConnections) are left alone.
+ */
+public class UpstreamNetworkSettings implements EnvironmentPostProcessor {
+
+    /** The JDK's idle keep-alive connections per destination unless http.maxConnections is set */
+    private static final int DEFAULT_MAX_CONNECTIONS = 5;
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        UpstreamProperties properties = Binder.get(environment)
+            .bindOrCreate("soap.upstream", UpstreamProperties.class);
+
+        UpstreamProperties.Dns dns = properties.getDns();
+        Security.setProperty("networkaddress.cache.ttl", Integer.toString(dns.getTtlSeconds()));
+        Security.setProperty("networkaddress.cache.negative.ttl", Integer.toString(dns.getNegativeTtlSeconds()));
+
+        UpstreamProperties.Prewarm prewarm = properties.getPrewarm();
+        int keepAlive = Math.max(prewarm.isEnabled() ? prewarm.getConnections() : 0, properties.getMaxConcurrent());
+        if (System.getProperty("http.maxConnections") == null && keepAlive > DEFAULT_MAX_CONNECTIONS) {
+            System.setProperty("http.maxConnections", Integer.toString(keepAlive));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scheduling, timeouts and transport of upstream SOAP calls (soap.upstream.*)
+ */
+@ConfigurationProperties(prefix = "soap.upstream")
+public class UpstreamProperties {
+
+    /** Upstream calls allowed in flight at once, across all priorities */
+    private int maxConcurrent = 16;
+
+    /** Permits batch and background calls can never hold, kept free for interactive calls */
+    private int interactiveReserve = 4;
+
+    /** Relative share of contended permits handed to each class */
+    private int interactiveWeight = 8;
+    private int batchWeight = 3;
+    private int backgroundWeight = 1;
+
+    /** Longest a call waits for a permit before failing */
+    private long acquireTimeoutMs = 10000;
+
+    /** REST paths whose upstream calls default to the batch class */
+    private List<String> batchPaths = new ArrayList<>(List.of(
+        "/api/authorization/bulk-export",
+        "/api/authorization/check-access/batch"));
+
+    /**
+     * Time budget of an API request, from which every upstream call it makes is deducted.
+     * Clients can send a smaller budget in the X-Request-Timeout-Ms header; 0 disables the default.
+     */
+    private long requestBudgetMs = 60000;
+
+    private Timeouts timeouts = new Timeouts();
+
+    private Compression compression = new Compression();
+
+    /**
+     * Operations whose requests are written from precompiled envelopes instead of JAXB
+     * (IsHealthy, GetUserRolesRequest, FindUsersByCriteriaRequest)
+     */
+    private List<String> fastPathOperations = new ArrayList<>();
+
+    private Prewarm prewarm = new Prewarm();
+
+    private Dns dns = new Dns();
+
+    private Reactive reactive = new Reactive();
+
+    /**
+     * Keep-alive connections opened to the service ahead of traffic and validated with isHealthy pings
+     */
+    public static class Prewarm {
+        private boolean enabled = true;
+
+        /** Connections opened concurrently at startup and on every round */
+        private int connections = 4;
+
+        /**
+         * Time between rounds; the JDK drops idle keep-alive connections after 5 seconds unless
+         * the service sends a Keep-Alive timeout, so keep this below that
+         */
+        private long intervalMs = 4000;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getConnections() { return connections; }
+        public void setConnections(int connections) { this.connections = connections; }
+        public long getIntervalMs() { return intervalMs; }
+        public void setIntervalMs(long intervalMs) { this.intervalMs = intervalMs; }
+    }
+
+    /**
+     * Connection pool of the non-blocking SOAP client used by the reactive profile
+     */
+    public static class Reactive {
+        /** Connections the client may hold open to the service */
+        private int maxConnections = 500;
+
+        /** Calls allowed to wait for a connection; further calls are rejected with 503 at once */
+        private int maxPendingCalls = 20000;
+
+        /** Longest a call waits for a connection */
+        private long pendingTimeoutMs = 10000;
+
+        /** Idle pooled connections are closed after this long */
+        private long maxIdleMs = 30000;
+
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+        public int getMaxPendingCalls() { return maxPendingCalls; }
+        public void setMaxPendingCalls(int maxPendingCalls) { this.maxPendingCalls = maxPendingCalls; }
+        public long getPendingTimeoutMs() { return pendingTimeoutMs; }
+        public void setPendingTimeoutMs(long pendingTimeoutMs) { this.pendingTimeoutMs = pendingTimeoutMs; }
+        public long getMaxIdleMs() { return maxIdleMs; }
+        public void setMaxIdleMs(long maxIdleMs) { this.maxIdleMs = maxIdleMs; }
+    }
+
+    /**
+     * Caching of the service's host name lookups
+     */
+    public static class Dns {
+        /** How long a resolved address is used; applied to the JVM-wide address cache */
+        private int ttlSeconds = 60;
+
+        /** How long a failed lookup is remembered */
+        private int negativeTtlSeconds = 10;
+
+        /** How often the host is re-resolved in the background, so expired entries are refreshed off the request path */
+        private long refreshIntervalMs = 1000;
+
+        public int getTtlSeconds() { return ttlSeconds; }
+        public void setTtlSeconds(int ttlSeconds) { this.ttlSeconds = ttlSeconds; }
+        public int getNegativeTtlSeconds() { return negativeTtlSeconds; }
+        public void setNegativeTtlSeconds(int negativeTtlSeconds) { this.negativeTtlSeconds = negativeTtlSeconds; }
+        public long getRefreshIntervalMs() { return refreshIntervalMs; }
+        public void setRefreshIntervalMs(long refreshIntervalMs) { this.refreshIntervalMs = refreshIntervalMs; }
+    }
+
+    /**
+     * Gzip of SOAP messages on the upstream link
+     */
+    public static class Compression {
+        /** Advertise Accept-Encoding: gzip and decode compressed responses */
+        private boolean acceptGzip = true;
+
+        /** Gzip request bodies; only enable if the service accepts Content-Encoding: gzip */
+        private boolean gzipRequests = false;
+
+        /** Smallest request body worth compressing */
+        private long requestMinBytes = 8192;
+
+        public boolean isAcceptGzip() { return acceptGzip; }
+        public void setAcceptGzip(boolean acceptGzip) { this.acceptGzip = acceptGzip; }
+        public boolean isGzipRequests() { return gzipRequests; }
+        public void setGzipRequests(boolean gzipRequests) { this.gzipRequests = gzipRequests; }
+        public long getRequestMinBytes() { return requestMinBytes; }
+        public void setRequestMinBytes(long requestMinBytes) { this.requestMinBytes = requestMinBytes; }
+    }
+
+    /**
+     * Connect and read timeouts of upstream calls, per SOAP operation
+     */
+    public static class Timeouts {
+        private long connectTimeoutMs = 5000;
+
+        /** Read timeout for operations without their own entry */
+        private long defaultReadTimeoutMs = 30000;
+
+        /** Read timeout by operation (request element name, e.g. GetUserRolesRequest) */
+        private Map<String, Long> operations = new LinkedHashMap<>();
+
+        private Adaptive adaptive = new Adaptive();
+
+        public long getConnectTimeoutMs() { return connectTimeoutMs; }
+        public void setConnectTimeoutMs(long connectTimeoutMs) { this.connectTimeoutMs = connectTimeoutMs; }
+        public long getDefaultReadTimeoutMs() { return defaultReadTimeoutMs; }
+        public void setDefaultReadTimeoutMs(long defaultReadTimeoutMs) { this.defaultReadTimeoutMs = defaultReadTimeoutMs; }
+        public Map<String, Long> getOperations() { return operations; }
+        public void setOperations(Map<String, Long> operations) { this.operations = operations; }
+        public Adaptive getAdaptive() { return adaptive; }
+        public void setAdaptive(Adaptive adaptive) { this.adaptive = adaptive; }
+    }
+
+    /**
+     * Derive read timeouts from observed latency: percentile x multiplier, clamped between the
+     * floor and the operation's configured timeout
+     */
+    public static class Adaptive {
+        private boolean enabled = false;
+        private double percentile = 99.0;
+        private double multiplier = 2.0;
+        private long floorMs = 250;
+
+        /** Latency samples kept per operation, and the minimum before adapting */
+        private int windowSize = 512;
+        private int minSamples = 50;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public double getPercentile() { return percentile; }
+        public void setPercentile(double percentile) { this.percentile = percentile; }
+        public double getMultiplier() { return multiplier; }
+        public void setMultiplier(double multiplier) { this.multiplier = multiplier; }
+        public long getFloorMs() { return floorMs; }
+        public void setFloorMs(long floorMs) { this.floorMs = floorMs; }
+        public int getWindowSize() { return windowSize; }
+        public void setWindowSize(int windowSize) { this.windowSize = windowSize; }
+        public int getMinSamples() { return minSamples; }
+        public void setMinSamples(int minSamples) { this.minSamples = minSamples; }
+    }
+
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+    public int getInteractiveReserve() { return interactiveReserve; }
+    public void setInteractiveReserve(int interactiveReserve) { this.interactiveReserve = interactiveReserve; }
+    public int getInteractiveWeight() { return interactiveWeight; }
+    public void setInteractiveWeight(int interactiveWeight) { this.interactiveWeight = interactiveWeight; }
+    public int getBatchWeight() { return batchWeight; }
+    public void setBatchWeight(int batchWeight) { this.batchWeight = batchWeight; }
+    public int getBackgroundWeight() { return backgroundWeight; }
+    public void setBackgroundWeight(int backgroundWeight) { this.backgroundWeight = backgroundWeight; }
+    public long getAcquireTimeoutMs() { return acquireTimeoutMs; }
+    public void setAcquireTimeoutMs(long acquireTimeoutMs) { this.acquireTimeoutMs = acquireTimeoutMs; }
+    public List<String> getBatchPaths() { return batchPaths; }
+    public void setBatchPaths(List<String> batchPaths) { this.batchPaths = batchPaths; }
+    public long getRequestBudgetMs() { return requestBudgetMs; }
+    public void setRequestBudgetMs(long requestBudgetMs) { this.requestBudgetMs = requestBudgetMs; }
+    public Timeouts getTimeouts() { return timeouts; }
+    public void setTimeouts(Timeouts timeouts) { this.timeouts = timeouts; }
+    public List<String> getFastPathOperations() { return fastPathOperations; }
+    public void setFastPathOperations(List<String> fastPathOperations) { this.fastPathOperations = fastPathOperations; }
+    public Compression getCompression() { return compression; }
+    public void setCompression(Compression compression) { this.compression = compression; }
+    public Prewarm getPrewarm() { return prewarm; }
+    public void setPrewarm(Prewarm prewarm) { this.prewarm = prewarm; }
+    public Dns getDns() { return dns; }
+    public void setDns(Dns dns) { this.dns = dns; }
+    public Reactive getReactive() { return reactive; }
+    public void setReactive(Reactive reactive) { this.reactive = reactive; }
+}
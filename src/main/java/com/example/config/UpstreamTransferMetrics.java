@@ -0,0 +1,53 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Byte counts of upstream SOAP traffic, as sent on the wire and before compression
+ * (authorization.upstream.bytes, tagged direction and measure=wire|uncompressed)
+ */
+public class UpstreamTransferMetrics {
+
+    private final Counter requestWire;
+    private final Counter requestUncompressed;
+    private final Counter responseWire;
+    private final Counter responseUncompressed;
+    private final Counter compressedRequests;
+    private final Counter compressedResponses;
+
+    public UpstreamTransferMetrics(MeterRegistry meterRegistry) {
+        this.requestWire = bytes(meterRegistry, "request", "wire");
+        this.requestUncompressed = bytes(meterRegistry, "request", "uncompressed");
+        this.responseWire = bytes(meterRegistry, "response", "wire");
+        this.responseUncompressed = bytes(meterRegistry, "response", "uncompressed");
+        this.compressedRequests = Counter.builder("authorization.upstream.compressed")
+            .tag("direction", "request").register(meterRegistry);
+        this.compressedResponses = Counter.builder("authorization.upstream.compressed")
+            .tag("direction", "response").register(meterRegistry);
+    }
+
+    private static Counter bytes(MeterRegistry meterRegistry, String direction, String measure) {
+        return Counter.builder("authorization.upstream.bytes")
+            .baseUnit("bytes")
+            .tag("direction", direction)
+            .tag("measure", measure)
+            .register(meterRegistry);
+    }
+
+    void recordRequest(long wireBytes, long uncompressedBytes, boolean compressed) {
+        requestWire.increment(wireBytes);
+        requestUncompressed.increment(uncompressedBytes);
+        if (compressed) {
+            compressedRequests.increment();
+        }
+    }
+
+    void recordResponse(long wireBytes, long uncompressedBytes, boolean compressed) {
+        responseWire.increment(wireBytes);
+        responseUncompressed.increment(uncompressedBytes);
+        if (compressed) {
+            compressedResponses.increment();
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.config;
 
+import com.example.service.UpstreamTimeoutPolicy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import org.springframework.ws.client.core.WebServiceTemplate;
 import org.springframework.ws.client.support.interceptor.ClientInterceptor;
 import org.springframework.ws.transport.http.HttpUrlConnectionMessageSender;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
+@ImportRuntimeHints(SoapRuntimeHints.class)
 public class WebServiceConfig {
 
     @Value("${soap.service.url:http://10.29.60.95:8080/easws/sharedservice/AuthorizationSharedService}")
@@ -21,33 +32,49 @@ public class WebServiceConfig {
 
     @Bean
     public Jaxb2Marshaller marshaller() {
-        Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
+        // Reuses marshaller instances per thread; the JAXBContext is built when the bean initializes
+        Jaxb2Marshaller marshaller = new ThreadConfinedJaxb2Marshaller();
         // Use the package where JAX-WS generated your classes
         marshaller.setContextPath("com.example.generated");
         return marshaller;
     }
 
-    @Bean
-    public HttpUrlConnectionMessageSender messageSender() {
-        HttpUrlConnectionMessageSender sender = new HttpUrlConnectionMessageSender();
+    @Bean(destroyMethod = "shutdown")
+    public DeadlineAwareMessageSender messageSender(UpstreamTimeoutPolicy timeoutPolicy,
+                                                    UpstreamProperties upstreamProperties,
+                                                    MeterRegistry meterRegistry) {
+        // Per-operation timeouts and the request deadline are applied to each connection
+        DeadlineAwareMessageSender sender =
+            new DeadlineAwareMessageSender(timeoutPolicy, new UpstreamTransferMetrics(meterRegistry));
         sender.setConnectionTimeout(Duration.ofMillis(timeout));
         sender.setReadTimeout(Duration.ofMillis(timeout));
+
+        UpstreamProperties.Compression compression = upstreamProperties.getCompression();
+        sender.setAcceptGzipEncoding(compression.isAcceptGzip());
+        sender.setCompressRequestsAbove(compression.isGzipRequests() ? compression.getRequestMinBytes() : -1);
         return sender;
     }
 
     @Bean
     public WebServiceTemplate webServiceTemplate(Jaxb2Marshaller marshaller, 
-                                                HttpUrlConnectionMessageSender messageSender) {
-        WebServiceTemplate ws = new WebServiceTemplate();
+                                                HttpUrlConnectionMessageSender messageSender,
+                                                UpstreamProperties upstreamProperties,
+                                                ObjectProvider<TrafficCaptureInterceptor> captureInterceptor) {
+        FastPathWebServiceTemplate ws = new FastPathWebServiceTemplate();
         ws.setMarshaller(marshaller);
         ws.setUnmarshaller(marshaller);
         ws.setDefaultUri(serviceUrl);
         ws.setMessageSender(messageSender);
+
+        // Small fixed-shape requests can skip JAXB and the SAAJ request document
+        ws.setEnvelopeTemplates(new SoapEnvelopeTemplates(ws.getMessageFactory(), marshaller,
+            upstreamProperties.getFastPathOperations()));
         
         // Optional: Add interceptors for logging
-        ws.setInterceptors(new ClientInterceptor[]{
-            new LoggingInterceptor()
-        });
+        List<ClientInterceptor> interceptors = new ArrayList<>();
+        interceptors.add(new LoggingInterceptor());
+        captureInterceptor.ifAvailable(interceptors::add);
+        ws.setInterceptors(interceptors.toArray(new ClientInterceptor[0]));
         
         return ws;
     }
@@ -56,4 +83,25 @@ public class WebServiceConfig {
     public LoggingInterceptor loggingInterceptor() {
         return new LoggingInterceptor();
     }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "soap.capture", name = "enabled", havingValue = "true")
+    public TrafficCaptureWriter trafficCaptureWriter(CaptureProperties captureProperties,
+                                                     MeterRegistry meterRegistry) throws IOException {
+        TrafficCaptureWriter writer = new TrafficCaptureWriter(Path.of(captureProperties.getDirectory()),
+            captureProperties.getMaxFileBytes(), captureProperties.getMaxFiles(), captureProperties.getQueueCapacity());
+        FunctionCounter.builder("soap.capture.dropped", writer, TrafficCaptureWriter::getDropped)
+            .description("Captured upstream calls not written because the writer fell behind or failed")
+            .register(meterRegistry);
+        return writer;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "soap.capture", name = "enabled", havingValue = "true")
+    public TrafficCaptureInterceptor trafficCaptureInterceptor(CaptureProperties captureProperties,
+                                                               TrafficCaptureWriter trafficCaptureWriter) {
+        return new TrafficCaptureInterceptor(
+            new PayloadRedactor(captureProperties.getRedactedElements(), captureProperties.getPseudonymKey()),
+            trafficCaptureWriter);
+    }
 }
\ No newline at end of file
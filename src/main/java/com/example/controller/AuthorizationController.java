@@ -1,28 +1,74 @@
 package com.example.controller;
 
 import com.example.generated.*;
+import com.example.service.AuditContext;
+import com.example.service.AuditEvent;
+import com.example.service.AuthorizationDecisionService;
 import com.example.service.AuthorizationSoapClientService;
+import com.example.service.BulkExportService;
+import com.example.service.DirectoryMirrorService;
+import com.example.service.ListStreamWriter;
+import com.example.service.RateLimitService;
 import com.example.service.SoapRequestBuilderService;
+import com.example.service.UpstreamCallContext;
+import com.example.service.UserAttributeService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/authorization")
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = HttpHeaders.ETAG)
 public class AuthorizationController {
     
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationController.class);
+    
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
     private final AuthorizationSoapClientService soapClientService;
     private final SoapRequestBuilderService requestBuilderService;
+    private final ListStreamWriter listStreamWriter;
+    private final BulkExportService bulkExportService;
+    private final DirectoryMirrorService directoryMirrorService;
+    private final AuthorizationDecisionService decisionService;
+    private final RateLimitService rateLimitService;
+    private final ConditionalResponses conditionalResponses;
+    private final UserAttributeService userAttributeService;
     
     @Autowired
     public AuthorizationController(AuthorizationSoapClientService soapClientService,
-                                 SoapRequestBuilderService requestBuilderService) {
+                                 SoapRequestBuilderService requestBuilderService,
+                                 ListStreamWriter listStreamWriter,
+                                 BulkExportService bulkExportService,
+                                 DirectoryMirrorService directoryMirrorService,
+                                 AuthorizationDecisionService decisionService,
+                                 RateLimitService rateLimitService,
+                                 ConditionalResponses conditionalResponses,
+                                 UserAttributeService userAttributeService) {
         this.soapClientService = soapClientService;
         this.requestBuilderService = requestBuilderService;
+        this.listStreamWriter = listStreamWriter;
+        this.bulkExportService = bulkExportService;
+        this.directoryMirrorService = directoryMirrorService;
+        this.decisionService = decisionService;
+        this.rateLimitService = rateLimitService;
+        this.conditionalResponses = conditionalResponses;
+        this.userAttributeService = userAttributeService;
     }
     
     @GetMapping("/health")
@@ -34,8 +80,9 @@ public class AuthorizationController {
     @PostMapping("/find-user-identity")
     public ResponseEntity<UserIdentityResponse> findUserIdentity(@RequestBody Map<String, String> searchCriteria) {
         List<MapEntry> mapEntries = requestBuilderService.createMapEntries(searchCriteria);
-        UserIdentity userIdentity = soapClientService.findMatchingUserIdentity(mapEntries);
+        UserIdentity userIdentity = directoryMirrorService.findMatchingUserIdentity(mapEntries);
         
+        auditIdentitySearch(AuditContext.current(), mapEntries, userIdentity);
         UserIdentityResponse response = new UserIdentityResponse();
         if (userIdentity != null) {
             response.setFound(true);
@@ -49,12 +96,39 @@ public class AuthorizationController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Audit an identity search by the identity found, or by its criteria when nothing matched
+     */
+    static void auditIdentitySearch(AuditEvent event, List<MapEntry> criteria, UserIdentity found) {
+        if (event == null) {
+            return;
+        }
+        if (found != null) {
+            event.setUser(found);
+        } else {
+            StringBuilder subject = new StringBuilder();
+            for (MapEntry entry : criteria) {
+                if (subject.length() > 0) {
+                    subject.append(',');
+                }
+                subject.append(entry.getKey()).append('=').append(entry.getValue());
+            }
+            event.setSubject("criteria", subject.toString());
+        }
+        event.setResultCount(found != null ? 1 : 0);
+    }
+    
     @GetMapping("/find-offices")
     public ResponseEntity<OfficesResponse> findOffices(
             @RequestParam String eauthId,
             @RequestParam List<String> officeTypes,
             @RequestParam String applicationId,
-            @RequestParam String requestHost) {
+            @RequestParam String requestHost,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        
+        AuditContext.caller(applicationId, requestHost);
+        AuditContext.subject("eauthId", eauthId);
+        rateLimitService.acquire(applicationId, "find-offices");
         
         // Validate office types
         for (String officeType : officeTypes) {
@@ -71,16 +145,13 @@ public class AuthorizationController {
         );
         RequestToken requestToken = requestBuilderService.createValidatedRequestToken(applicationId, requestHost);
         
-        ListType offices = soapClientService.findOfficesByEauthId(eauthId, officeTypeList, requestToken);
-        List<String> officeList = requestBuilderService.extractListValues(offices);
-        
-        OfficesResponse response = new OfficesResponse();
-        response.setFound(!officeList.isEmpty());
-        response.setOffices(officeList);
-        response.setMessage(officeList.isEmpty() ? "No offices found for the given criteria" : 
-                           "Found " + officeList.size() + " office(s)");
+        ListType offices = directoryMirrorService.findOfficesByEauthId(eauthId, officeTypeList, requestToken);
         
-        return ResponseEntity.ok(response);
+        // Counted before the lookup so a 304 is audited with its count too
+        List<String> officeList = requestBuilderService.listValues(offices);
+        AuditContext.resultCount(officeList.size());
+        return conditionalResponses.lookup(ifNoneMatch, ConditionalResponses.eTag(offices),
+            () -> new OfficesResponse(!officeList.isEmpty(), officeList, CountMessages.OFFICES.of(officeList.size())));
     }
     
     @GetMapping("/find-users")
@@ -88,40 +159,210 @@ public class AuthorizationController {
             @RequestParam String officeId,
             @RequestParam String roleName,
             @RequestParam String applicationId,
-            @RequestParam String requestHost) {
+            @RequestParam String requestHost,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
+        AuditContext.caller(applicationId, requestHost);
+        AuditContext.subject("office-role", officeId + '/' + roleName);
+        rateLimitService.acquire(applicationId, "find-users");
         RequestToken requestToken = requestBuilderService.createValidatedRequestToken(applicationId, requestHost);
         
-        ListType users = soapClientService.findUsersByCriteria(officeId, roleName, requestToken);
-        List<String> userList = requestBuilderService.extractListValues(users);
+        ListType users = directoryMirrorService.findUsersByCriteria(officeId, roleName, requestToken);
         
-        UsersResponse response = new UsersResponse();
-        response.setFound(!userList.isEmpty());
-        response.setUsers(userList);
-        response.setMessage(userList.isEmpty() ? "No users found for the given criteria" : 
-                           "Found " + userList.size() + " user(s)");
+        return usersResponse(ifNoneMatch, users);
+    }
+    
+    @GetMapping("/find-users/by-office")
+    public ResponseEntity<UsersResponse> findUsersByOffice(
+            @RequestParam String officeId,
+            @RequestParam String applicationId,
+            @RequestParam String requestHost,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        return ResponseEntity.ok(response);
+        AuditContext.caller(applicationId, requestHost);
+        AuditContext.subject("office", officeId);
+        rateLimitService.acquire(applicationId, "find-users/by-office");
+        RequestToken requestToken = requestBuilderService.createValidatedRequestToken(applicationId, requestHost);
+        
+        return usersResponse(ifNoneMatch, soapClientService.findUsersByOfficeId(officeId, requestToken));
+    }
+    
+    @GetMapping("/find-users/by-role")
+    public ResponseEntity<UsersResponse> findUsersByRole(
+            @RequestParam String roleName,
+            @RequestParam String applicationId,
+            @RequestParam String requestHost,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        
+        AuditContext.caller(applicationId, requestHost);
+        AuditContext.subject("role", roleName);
+        rateLimitService.acquire(applicationId, "find-users/by-role");
+        RequestToken requestToken = requestBuilderService.createValidatedRequestToken(applicationId, requestHost);
+        
+        return usersResponse(ifNoneMatch, soapClientService.findUsersByRole(roleName, requestToken));
+    }
+    
+    private ResponseEntity<UsersResponse> usersResponse(String ifNoneMatch, ListType users) {
+        List<String> userList = requestBuilderService.listValues(users);
+        AuditContext.resultCount(userList.size());
+        return conditionalResponses.lookup(ifNoneMatch, ConditionalResponses.eTag(users),
+            () -> new UsersResponse(!userList.isEmpty(), userList, CountMessages.USERS.of(userList.size())));
+    }
+    
+    @GetMapping("/find-offices/stream")
+    public ResponseEntity<StreamingResponseBody> streamOffices(
+            @RequestParam String eauthId,
+            @RequestParam List<String> officeTypes,
+            @RequestParam String applicationId,
+            @RequestParam String requestHost,
+            @RequestParam(required = false) String format) {
+        
+        AuditContext.caller(applicationId, requestHost);
+        AuditContext.subject("eauthId", eauthId);
+        rateLimitService.acquire(applicationId, "find-offices/stream");
+        List<OfficeType> officeTypeList = requestBuilderService.createOfficeTypes(
+            officeTypes.toArray(new String[0])
+        );
+        RequestToken requestToken = requestBuilderService.createValidatedRequestToken(applicationId, requestHost);
+        
+        return streamList(ListStreamWriter.Format.fromValue(format),
+            () -> directoryMirrorService.findOfficesByEauthId(eauthId, officeTypeList, requestToken));
+    }
+    
+    @GetMapping("/find-users/stream")
+    public ResponseEntity<StreamingResponseBody> streamUsers(
+            @RequestParam String officeId,
+            @RequestParam String roleName,
+            @RequestParam String applicationId,
+            @RequestParam String requestHost,
+            @RequestParam(required = false) String format) {
+        
+        AuditContext.caller(applicationId, requestHost);
+        AuditContext.subject("office-role", officeId + '/' + roleName);
+        rateLimitService.acquire(applicationId, "find-users/stream");
+        RequestToken requestToken = requestBuilderService.createValidatedRequestToken(applicationId, requestHost);
+        
+        return streamList(ListStreamWriter.Format.fromValue(format),
+            () -> directoryMirrorService.findUsersByCriteria(officeId, roleName, requestToken));
     }
     
     @PostMapping("/get-user-roles")
-    public ResponseEntity<UserRolesResponse> getUserRoles(@RequestBody UserIdentityRequest userIdentityRequest) {
+    public ResponseEntity<UserRolesResponse> getUserRoles(
+            @RequestBody UserIdentityRequest userIdentityRequest,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         UserIdentity userIdentity = requestBuilderService.createValidatedUserIdentity(
             userIdentityRequest.getAuthenticationSystemIdentifier(),
             userIdentityRequest.getAuthorizationSystemIdentifier(),
             userIdentityRequest.getUserLoginName()
         );
         
-        GetUserRolesResponse rolesResponse = soapClientService.getUserRoles(userIdentity);
-        List<String> roleList = requestBuilderService.extractListValues(rolesResponse.getUserRoles());
+        AuditContext.user(userIdentity);
+        GetUserRolesResponse rolesResponse = directoryMirrorService.getUserRoles(userIdentity);
+        UserIdentity responseIdentity = rolesResponse.getUserIdentity() != null ? rolesResponse.getUserIdentity() : userIdentity;
+        
+        // A POST, so caches do not store it; clients that keep the ETag can still revalidate (412 when unchanged)
+        String eTag = ConditionalResponses.eTag(responseIdentity, rolesResponse.getUserRoles());
+        List<String> roleList = requestBuilderService.listValues(rolesResponse.getUserRoles());
+        AuditContext.resultCount(roleList.size());
+        return conditionalResponses.postedLookup(ifNoneMatch, eTag,
+            () -> new UserRolesResponse(responseIdentity, roleList, CountMessages.ROLES.of(roleList.size())));
+    }
+    
+    @PostMapping("/user-attributes")
+    public ResponseEntity<UserAttributesResponse> getUserAttributes(@RequestBody UserAttributesRequest attributesRequest) {
+        UserIdentity userIdentity = requestBuilderService.createValidatedUserIdentity(
+            attributesRequest.getAuthenticationSystemIdentifier(),
+            attributesRequest.getAuthorizationSystemIdentifier(),
+            attributesRequest.getUserLoginName()
+        );
         
-        UserRolesResponse response = new UserRolesResponse();
-        response.setUserIdentity(rolesResponse.getUserIdentity() != null ? rolesResponse.getUserIdentity() : userIdentity);
-        response.setRoles(roleList);
-        response.setMessage(roleList.isEmpty() ? "No roles found for user" : 
-                           "Found " + roleList.size() + " role(s) for user");
+        List<UserAttributeService.AttributeSpec> specs = new ArrayList<>();
+        addSpecs(specs, attributesRequest.getSimpleAttributes(), UserAttributeService.Kind.SIMPLE);
+        addSpecs(specs, attributesRequest.getListAttributes(), UserAttributeService.Kind.LIST);
+        addSpecs(specs, attributesRequest.getMapAttributes(), UserAttributeService.Kind.MAP);
         
-        return ResponseEntity.ok(response);
+        AuditContext.user(userIdentity);
+        UserAttributeService.UserAttributes attributes = userAttributeService.fetch(userIdentity, specs);
+        AuditContext.resultCount(attributes.getValues().size());
+        return ResponseEntity.ok(new UserAttributesResponse(userIdentity, attributes.getValues(), attributes.getErrors(),
+            "Fetched " + attributes.getValues().size() + " of " + specs.size() + " attribute(s)"));
+    }
+    
+    private static void addSpecs(List<UserAttributeService.AttributeSpec> specs, List<String> names,
+                                 UserAttributeService.Kind kind) {
+        if (names != null) {
+            for (String name : names) {
+                specs.add(new UserAttributeService.AttributeSpec(name != null ? name.trim() : null, kind));
+            }
+        }
+    }
+    
+    @GetMapping("/user-identifying-properties")
+    public ResponseEntity<Map<String, String>> getUserIdentifyingProperties() {
+        MapType properties = soapClientService.getUserIdentifyingProperties();
+        Map<String, String> propertyMap = new LinkedHashMap<>();
+        if (properties != null) {
+            for (MapEntry entry : properties.getMapValue()) {
+                propertyMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return ResponseEntity.ok(propertyMap);
+    }
+    
+    @PostMapping("/check-access")
+    public ResponseEntity<AccessCheckResponse> checkAccess(@RequestBody AccessCheckRequest checkRequest) {
+        AuditContext.caller(checkRequest.getApplicationId(), checkRequest.getRequestHost());
+        rateLimitService.acquire(checkRequest.getApplicationId(), "check-access");
+        RequestToken requestToken = checkRequest.getOfficeId() != null
+            ? requestBuilderService.createValidatedRequestToken(checkRequest.getApplicationId(), checkRequest.getRequestHost())
+            : null;
+        AuthorizationDecisionService.AccessCheck check = toAccessCheck(checkRequest);
+        AuditContext.user(check.getUserIdentity());
+        boolean allowed = decisionService.isAllowed(check, requestToken);
+        return ResponseEntity.ok(new AccessCheckResponse(allowed));
+    }
+    
+    @PostMapping("/check-access/batch")
+    public ResponseEntity<BatchAccessCheckResponse> checkAccessBatch(@RequestBody BatchAccessCheckRequest batchRequest) {
+        AuditContext.caller(batchRequest.getApplicationId(), batchRequest.getRequestHost());
+        rateLimitService.acquire(batchRequest.getApplicationId(), "check-access/batch");
+        if (batchRequest.getChecks() == null || batchRequest.getChecks().isEmpty()) {
+            throw new IllegalArgumentException("At least one access check must be provided");
+        }
+        
+        List<AuthorizationDecisionService.AccessCheck> checks = new ArrayList<>(batchRequest.getChecks().size());
+        boolean needsToken = false;
+        for (AccessCheckRequest checkRequest : batchRequest.getChecks()) {
+            // Only the batch's request token is sent, so a per-check one would be silently ignored
+            if (checkRequest.getApplicationId() != null || checkRequest.getRequestHost() != null) {
+                throw new IllegalArgumentException("Batch checks cannot set applicationId or requestHost; "
+                    + "they are taken from the batch for every check (check " + checks.size() + ")");
+            }
+            checks.add(toAccessCheck(checkRequest));
+            needsToken |= checkRequest.getOfficeId() != null;
+        }
+        RequestToken requestToken = needsToken
+            ? requestBuilderService.createValidatedRequestToken(batchRequest.getApplicationId(), batchRequest.getRequestHost())
+            : null;
+        
+        // A batch can cover many users, so it is audited by caller and number of checks only
+        AuditContext.resultCount(checks.size());
+        return ResponseEntity.ok(new BatchAccessCheckResponse(decisionService.checkAll(checks, requestToken)));
+    }
+    
+    private AuthorizationDecisionService.AccessCheck toAccessCheck(AccessCheckRequest checkRequest) {
+        if (checkRequest.getRoleName() == null || checkRequest.getRoleName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Role name cannot be null or empty");
+        }
+        UserIdentity userIdentity = requestBuilderService.createValidatedUserIdentity(
+            checkRequest.getAuthenticationSystemIdentifier(),
+            checkRequest.getAuthorizationSystemIdentifier(),
+            checkRequest.getUserLoginName()
+        );
+        String officeId = checkRequest.getOfficeId() != null && !checkRequest.getOfficeId().trim().isEmpty()
+            ? checkRequest.getOfficeId().trim()
+            : null;
+        return new AuthorizationDecisionService.AccessCheck(userIdentity, checkRequest.getRoleName().trim(), officeId);
     }
     
     @PostMapping("/advanced-user-search")
@@ -139,8 +380,9 @@ public class AuthorizationController {
                 .body(new UserIdentityResponse(false, null, "At least one search criteria must be provided"));
         }
         
-        UserIdentity userIdentity = soapClientService.findMatchingUserIdentity(mapEntries);
+        UserIdentity userIdentity = directoryMirrorService.findMatchingUserIdentity(mapEntries);
         
+        auditIdentitySearch(AuditContext.current(), mapEntries, userIdentity);
         UserIdentityResponse response = new UserIdentityResponse();
         if (userIdentity != null) {
             response.setFound(true);
@@ -154,9 +396,59 @@ public class AuthorizationController {
         return ResponseEntity.ok(response);
     }
     
+    @PostMapping("/bulk-export")
+    public ResponseEntity<StreamingResponseBody> bulkExport(@RequestBody BulkExportRequest exportRequest) {
+        AuditContext.caller(exportRequest.getApplicationId(), exportRequest.getRequestHost());
+        rateLimitService.acquire(exportRequest.getApplicationId(), "bulk-export");
+        RequestToken requestToken = requestBuilderService.createValidatedRequestToken(
+            exportRequest.getApplicationId(), exportRequest.getRequestHost());
+        List<BulkExportService.ExportPair> pairs = bulkExportService.expandPairs(
+            exportRequest.getOfficeIds(), exportRequest.getRoleNames(), exportRequest.getPairs());
+        int parallelism = bulkExportService.resolveParallelism(exportRequest.getParallelism());
+        int resumeFrom = exportRequest.getResumeFrom() != null ? exportRequest.getResumeFrom() : 0;
+        
+        StreamingResponseBody body = outputStream ->
+            bulkExportService.export(pairs, requestToken, parallelism, resumeFrom, outputStream);
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+    
     @GetMapping("/office-types")
-    public ResponseEntity<List<String>> getValidOfficeTypes() {
-        return ResponseEntity.ok(requestBuilderService.getValidOfficeTypes());
+    public ResponseEntity<List<String>> getValidOfficeTypes(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<String> officeTypes = requestBuilderService.getValidOfficeTypes();
+        return conditionalResponses.officeTypes(ifNoneMatch, ConditionalResponses.eTag(officeTypes), () -> officeTypes);
+    }
+    
+    /**
+     * Stream list values as NDJSON or an incrementally written JSON array. The response is
+     * committed before the upstream call is made, and values are written straight from the
+     * unmarshalled ListType without building a response DTO.
+     */
+    private ResponseEntity<StreamingResponseBody> streamList(ListStreamWriter.Format format,
+                                                             Supplier<ListType> lookup) {
+        // The body runs on an async thread, so carry the request's upstream priority and deadline over
+        UpstreamCallContext.Snapshot callContext = UpstreamCallContext.capture();
+        AuditEvent audit = AuditContext.current();
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = listStreamWriter.open(outputStream, format);
+            String errorMessage = null;
+            try {
+                int written = listStreamWriter.writeValues(generator, format, callContext.call(lookup));
+                if (audit != null) {
+                    audit.setResultCount(written);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Streaming lookup failed after response was committed: {}", e.getMessage());
+                errorMessage = e.getMessage();
+                if (audit != null) {
+                    audit.markFailed();
+                }
+            }
+            listStreamWriter.close(generator, format, errorMessage);
+        };
+        
+        MediaType contentType = format == ListStreamWriter.Format.NDJSON ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok().contentType(contentType).body(body);
     }
     
     // Response DTOs
@@ -177,6 +469,7 @@ public class AuthorizationController {
         public void setMessage(String message) { this.message = message; }
     }
     
+    @JsonSerialize(using = ResponseJsonSerializers.UserIdentityResponseSerializer.class)
     public static class UserIdentityResponse {
         private boolean found;
         private UserIdentity userIdentity;
@@ -198,6 +491,7 @@ public class AuthorizationController {
         public void setMessage(String message) { this.message = message; }
     }
     
+    @JsonSerialize(using = ResponseJsonSerializers.OfficesResponseSerializer.class)
     public static class OfficesResponse {
         private boolean found;
         private List<String> offices;
@@ -219,6 +513,7 @@ public class AuthorizationController {
         public void setMessage(String message) { this.message = message; }
     }
     
+    @JsonSerialize(using = ResponseJsonSerializers.UsersResponseSerializer.class)
     public static class UsersResponse {
         private boolean found;
         private List<String> users;
@@ -240,6 +535,7 @@ public class AuthorizationController {
         public void setMessage(String message) { this.message = message; }
     }
     
+    @JsonSerialize(using = ResponseJsonSerializers.UserRolesResponseSerializer.class)
     public static class UserRolesResponse {
         private UserIdentity userIdentity;
         private List<String> roles;
@@ -291,6 +587,45 @@ public class AuthorizationController {
         }
     }
     
+    public static class UserAttributesRequest extends UserIdentityRequest {
+        private List<String> simpleAttributes;
+        private List<String> listAttributes;
+        private List<String> mapAttributes;
+        
+        public List<String> getSimpleAttributes() { return simpleAttributes; }
+        public void setSimpleAttributes(List<String> simpleAttributes) { this.simpleAttributes = simpleAttributes; }
+        public List<String> getListAttributes() { return listAttributes; }
+        public void setListAttributes(List<String> listAttributes) { this.listAttributes = listAttributes; }
+        public List<String> getMapAttributes() { return mapAttributes; }
+        public void setMapAttributes(List<String> mapAttributes) { this.mapAttributes = mapAttributes; }
+    }
+    
+    public static class UserAttributesResponse {
+        private UserIdentity userIdentity;
+        private Map<String, Object> attributes;
+        private Map<String, String> errors;
+        private String message;
+        
+        public UserAttributesResponse() {}
+        
+        public UserAttributesResponse(UserIdentity userIdentity, Map<String, Object> attributes,
+                                      Map<String, String> errors, String message) {
+            this.userIdentity = userIdentity;
+            this.attributes = attributes;
+            this.errors = errors;
+            this.message = message;
+        }
+        
+        public UserIdentity getUserIdentity() { return userIdentity; }
+        public void setUserIdentity(UserIdentity userIdentity) { this.userIdentity = userIdentity; }
+        public Map<String, Object> getAttributes() { return attributes; }
+        public void setAttributes(Map<String, Object> attributes) { this.attributes = attributes; }
+        public Map<String, String> getErrors() { return errors; }
+        public void setErrors(Map<String, String> errors) { this.errors = errors; }
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+    
     public static class AdvancedUserSearchRequest {
         private String username;
         private String email;
@@ -309,4 +644,87 @@ public class AuthorizationController {
         public String getDepartment() { return department; }
         public void setDepartment(String department) { this.department = department; }
     }
-}
\ No newline at end of file
+    
+    public static class BulkExportRequest {
+        private List<String> officeIds;
+        private List<String> roleNames;
+        private List<BulkExportService.ExportPair> pairs;
+        private String applicationId;
+        private String requestHost;
+        private Integer parallelism;
+        private Integer resumeFrom;
+        
+        public List<String> getOfficeIds() { return officeIds; }
+        public void setOfficeIds(List<String> officeIds) { this.officeIds = officeIds; }
+        public List<String> getRoleNames() { return roleNames; }
+        public void setRoleNames(List<String> roleNames) { this.roleNames = roleNames; }
+        public List<BulkExportService.ExportPair> getPairs() { return pairs; }
+        public void setPairs(List<BulkExportService.ExportPair> pairs) { this.pairs = pairs; }
+        public String getApplicationId() { return applicationId; }
+        public void setApplicationId(String applicationId) { this.applicationId = applicationId; }
+        public String getRequestHost() { return requestHost; }
+        public void setRequestHost(String requestHost) { this.requestHost = requestHost; }
+        public Integer getParallelism() { return parallelism; }
+        public void setParallelism(Integer parallelism) { this.parallelism = parallelism; }
+        public Integer getResumeFrom() { return resumeFrom; }
+        public void setResumeFrom(Integer resumeFrom) { this.resumeFrom = resumeFrom; }
+    }
+    
+    public static class AccessCheckRequest extends UserIdentityRequest {
+        private String roleName;
+        private String officeId;
+        private String applicationId;
+        private String requestHost;
+        
+        public String getRoleName() { return roleName; }
+        public void setRoleName(String roleName) { this.roleName = roleName; }
+        public String getOfficeId() { return officeId; }
+        public void setOfficeId(String officeId) { this.officeId = officeId; }
+        public String getApplicationId() { return applicationId; }
+        public void setApplicationId(String applicationId) { this.applicationId = applicationId; }
+        public String getRequestHost() { return requestHost; }
+        public void setRequestHost(String requestHost) { this.requestHost = requestHost; }
+    }
+    
+    /**
+     * Checks sharing one request token: applicationId and requestHost are set here, not on the checks
+     */
+    public static class BatchAccessCheckRequest {
+        private List<AccessCheckRequest> checks;
+        private String applicationId;
+        private String requestHost;
+        
+        public List<AccessCheckRequest> getChecks() { return checks; }
+        public void setChecks(List<AccessCheckRequest> checks) { this.checks = checks; }
+        public String getApplicationId() { return applicationId; }
+        public void setApplicationId(String applicationId) { this.applicationId = applicationId; }
+        public String getRequestHost() { return requestHost; }
+        public void setRequestHost(String requestHost) { this.requestHost = requestHost; }
+    }
+    
+    public static class AccessCheckResponse {
+        private boolean allowed;
+        
+        public AccessCheckResponse() {}
+        
+        public AccessCheckResponse(boolean allowed) {
+            this.allowed = allowed;
+        }
+        
+        public boolean isAllowed() { return allowed; }
+        public void setAllowed(boolean allowed) { this.allowed = allowed; }
+    }
+    
+    public static class BatchAccessCheckResponse {
+        private boolean[] results;
+        
+        public BatchAccessCheckResponse() {}
+        
+        public BatchAccessCheckResponse(boolean[] results) {
+            this.results = results;
+        }
+        
+        public boolean[] getResults() { return results; }
+        public void setResults(boolean[] results) { this.results = results; }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.controller;
+
+import com.example.config.HttpCacheProperties;
+import com.example.generated.ListType;
+import com.example.generated.UserIdentity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * ETags and Cache-Control for the read endpoints.
+ * <p>
+ * An ETag is a 64-bit FNV-1a hash of the values a response is built from, taken straight from the
+ * ListType, so it costs one pass over the strings and no serialization. The JSON body is a function
+ * of those values; the tags are weak because gzip or formatting may still change the bytes. When
+ * If-None-Match matches, the response is a 304 without a body and the response DTO is never built;
+ * for a lookup requested with POST it is a 412, as RFC 9110 (13.1.2) only allows 304 for GET and HEAD.
+ */
+@Component
+public class ConditionalResponses {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final boolean enabled;
+    private final CacheControl lookupCacheControl;
+    private final CacheControl officeTypesCacheControl;
+
+    @Autowired
+    public ConditionalResponses(HttpCacheProperties properties) {
+        this.enabled = properties.isEnabled();
+        CacheControl lookup = properties.getLookupMaxAgeSeconds() > 0
+            ? CacheControl.maxAge(properties.getLookupMaxAgeSeconds(), TimeUnit.SECONDS)
+            : CacheControl.noCache();
+        this.lookupCacheControl = properties.isLookupShared() ? lookup.cachePublic() : lookup.cachePrivate();
+        this.officeTypesCacheControl = CacheControl.maxAge(properties.getOfficeTypesMaxAgeSeconds(), TimeUnit.SECONDS)
+            .cachePublic();
+    }
+
+    /**
+     * Response of a directory lookup (offices, users, roles)
+     */
+    public <T> ResponseEntity<T> lookup(String ifNoneMatch, String eTag, Supplier<T> body) {
+        return respond(ifNoneMatch, eTag, HttpStatus.NOT_MODIFIED, lookupCacheControl, body);
+    }
+
+    /**
+     * Response of a directory lookup sent as a POST (roles, whose identity is in the body). A
+     * matching If-None-Match gets 412 Precondition Failed without a body, which tells a client
+     * that kept the ETag its copy is current.
+     */
+    public <T> ResponseEntity<T> postedLookup(String ifNoneMatch, String eTag, Supplier<T> body) {
+        return respond(ifNoneMatch, eTag, HttpStatus.PRECONDITION_FAILED, lookupCacheControl, body);
+    }
+
+    /**
+     * Response of the office-types list, which is fixed for the life of the deployment
+     */
+    public <T> ResponseEntity<T> officeTypes(String ifNoneMatch, String eTag, Supplier<T> body) {
+        return respond(ifNoneMatch, eTag, HttpStatus.NOT_MODIFIED, officeTypesCacheControl, body);
+    }
+
+    private <T> ResponseEntity<T> respond(String ifNoneMatch, String eTag, HttpStatus matchedStatus,
+                                          CacheControl cacheControl, Supplier<T> body) {
+        if (!enabled) {
+            return ResponseEntity.ok(body.get());
+        }
+        if (matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(matchedStatus).eTag(eTag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(body.get());
+    }
+
+    /**
+     * Weak comparison of an If-None-Match header (a list of tags, or *) against a tag
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        String opaqueTag = opaque(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || opaque(trimmed).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * ETag of a list response; a missing list tags the same as an empty one, as both render alike
+     */
+    public static String eTag(ListType listType) {
+        return eTag(FNV_OFFSET_BASIS, listType != null ? listType.getListValue() : null);
+    }
+
+    public static String eTag(List<String> values) {
+        return eTag(FNV_OFFSET_BASIS, values);
+    }
+
+    /**
+     * ETag of a roles response, which also echoes the user identity
+     */
+    public static String eTag(UserIdentity userIdentity, ListType roles) {
+        long hash = FNV_OFFSET_BASIS;
+        if (userIdentity != null) {
+            hash = mix(hash, userIdentity.getAuthenticationSystemIdentifier());
+            hash = mix(hash, userIdentity.getAuthorizationSystemIdentifier());
+            hash = mix(hash, userIdentity.getUserLoginName());
+        }
+        return eTag(hash, roles != null ? roles.getListValue() : null);
+    }
+
+    private static String eTag(long hash, List<String> values) {
+        if (values != null) {
+            for (String value : values) {
+                hash = mix(hash, value);
+            }
+        }
+        return "W/\"" + Long.toHexString(hash) + '"';
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            return (hash ^ 0xFF) * FNV_PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        // Separator, so ["ab"] and ["a", "b"] hash differently
+        return (hash ^ 0x1F) * FNV_PRIME;
+    }
+}
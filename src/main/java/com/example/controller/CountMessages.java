@@ -0,0 +1,34 @@
+package com.example.controller;
+
+/**
+ * Result messages such as "Found 3 office(s)", built once for the common counts instead of
+ * concatenated on every response
+ */
+final class CountMessages {
+
+    static final CountMessages OFFICES =
+        new CountMessages("No offices found for the given criteria", "Found ", " office(s)");
+    static final CountMessages USERS =
+        new CountMessages("No users found for the given criteria", "Found ", " user(s)");
+    static final CountMessages ROLES =
+        new CountMessages("No roles found for user", "Found ", " role(s) for user");
+
+    private static final int PRECOMPUTED_COUNTS = 1024;
+
+    private final String prefix;
+    private final String suffix;
+    private final String[] messages = new String[PRECOMPUTED_COUNTS];
+
+    private CountMessages(String none, String prefix, String suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        messages[0] = none;
+        for (int count = 1; count < PRECOMPUTED_COUNTS; count++) {
+            messages[count] = prefix + count + suffix;
+        }
+    }
+
+    String of(int count) {
+        return count < PRECOMPUTED_COUNTS ? messages[count] : prefix + count + suffix;
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.controller;
+
+import com.example.cache.CompactStringList;
+import com.example.cache.LookupCache;
+import com.example.cache.SymbolTable;
+import com.example.service.DirectoryMirrorService;
+import com.example.service.RefreshAheadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.Access;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the directory mirror caches (/actuator/authzcache).
+ * <ul>
+ *   <li>GET lists every cache with its statistics and memory estimate</li>
+ *   <li>GET /{cache} returns one cache</li>
+ *   <li>POST /{cache} with {"ttlMs": ...} changes that cache's staleness bound at runtime</li>
+ *   <li>DELETE with userLoginName, eauthId or officeId evicts just the affected keys;
+ *       DELETE with no parameters flushes every cache</li>
+ *   <li>DELETE /{cache} flushes one cache</li>
+ * </ul>
+ * Access is read-only by default: the POST and DELETE operations are only available with
+ * {@code management.endpoint.authzcache.access=unrestricted}, which should be paired with a
+ * management port or access control that API callers cannot reach.
+ */
+@Component
+@Endpoint(id = "authzcache", defaultAccess = Access.READ_ONLY)
+public class MirrorCacheEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(MirrorCacheEndpoint.class);
+
+    private final DirectoryMirrorService directoryMirrorService;
+    private final RefreshAheadService refreshAheadService;
+
+    @Autowired
+    public MirrorCacheEndpoint(DirectoryMirrorService directoryMirrorService, RefreshAheadService refreshAheadService) {
+        this.directoryMirrorService = directoryMirrorService;
+        this.refreshAheadService = refreshAheadService;
+    }
+
+    /** List caches, symbol tables and refresh-ahead counters */
+    @ReadOperation
+    public CacheReport caches() {
+        CacheReport report = new CacheReport();
+        report.setEnabled(directoryMirrorService.isEnabled());
+        for (LookupCache<CompactStringList> cache : directoryMirrorService.caches()) {
+            report.getCaches().add(new CacheStats(cache));
+        }
+        for (SymbolTable table : directoryMirrorService.symbolTables()) {
+            report.getSymbolTables().put(table.getName(), new SymbolTableStats(table));
+        }
+        report.setRefreshAheadRefreshed(refreshAheadService.getRefreshed());
+        report.setRefreshAheadFailed(refreshAheadService.getFailed());
+        report.setRefreshAheadQueued(refreshAheadService.getQueued());
+        return report;
+    }
+
+    /** Statistics for one cache */
+    @ReadOperation
+    public CacheStats cache(@Selector String cacheName) {
+        LookupCache<CompactStringList> cache = directoryMirrorService.cache(cacheName);
+        return cache != null ? new CacheStats(cache) : null;
+    }
+
+    /** Change a cache's staleness bound; takes effect for the next read */
+    @WriteOperation
+    public CacheStats setTtl(@Selector String cacheName, long ttlMs) {
+        if (ttlMs <= 0) {
+            throw new InvalidEndpointRequestException("ttlMs must be positive", "ttlMs must be positive");
+        }
+        LookupCache<CompactStringList> cache = directoryMirrorService.cache(cacheName);
+        if (cache == null) {
+            return null;
+        }
+        logger.info("Changing {} TTL from {} ms to {} ms", cacheName, cache.getTtlMillis(), ttlMs);
+        cache.setTtlMillis(ttlMs);
+        return new CacheStats(cache);
+    }
+
+    /** Evict the keys affected by a user, EAuth ID or office change, or everything when no target is given */
+    @DeleteOperation
+    public Map<String, Integer> invalidate(@Nullable String userLoginName, @Nullable String eauthId,
+                                           @Nullable String officeId) {
+        Map<String, Integer> removed = new LinkedHashMap<>();
+        if (userLoginName != null) {
+            directoryMirrorService.invalidateUser(userLoginName).forEach((name, count) -> removed.merge(name, count, Integer::sum));
+        }
+        if (eauthId != null) {
+            directoryMirrorService.invalidateEauthId(eauthId).forEach((name, count) -> removed.merge(name, count, Integer::sum));
+        }
+        if (officeId != null) {
+            directoryMirrorService.invalidateOffice(officeId).forEach((name, count) -> removed.merge(name, count, Integer::sum));
+        }
+        if (userLoginName == null && eauthId == null && officeId == null) {
+            removed.putAll(directoryMirrorService.invalidateAll(null));
+        }
+        logger.info("Mirror cache invalidation (user={}, eauthId={}, officeId={}) removed {}",
+            userLoginName, eauthId, officeId, removed);
+        return removed;
+    }
+
+    /** Flush one cache */
+    @DeleteOperation
+    public Map<String, Integer> invalidateCache(@Selector String cacheName) {
+        if (directoryMirrorService.cache(cacheName) == null) {
+            return null;
+        }
+        Map<String, Integer> removed = directoryMirrorService.invalidateAll(cacheName);
+        logger.info("Mirror cache {} flushed, removed {}", cacheName, removed);
+        return removed;
+    }
+
+    /**
+     * Endpoint response listing every cache
+     */
+    public static class CacheReport {
+        private boolean enabled;
+        private List<CacheStats> caches = new ArrayList<>();
+        private Map<String, SymbolTableStats> symbolTables = new LinkedHashMap<>();
+        private long refreshAheadRefreshed;
+        private long refreshAheadFailed;
+        private int refreshAheadQueued;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public List<CacheStats> getCaches() { return caches; }
+        public void setCaches(List<CacheStats> caches) { this.caches = caches; }
+        public Map<String, SymbolTableStats> getSymbolTables() { return symbolTables; }
+        public void setSymbolTables(Map<String, SymbolTableStats> symbolTables) { this.symbolTables = symbolTables; }
+        public long getRefreshAheadRefreshed() { return refreshAheadRefreshed; }
+        public void setRefreshAheadRefreshed(long refreshAheadRefreshed) { this.refreshAheadRefreshed = refreshAheadRefreshed; }
+        public long getRefreshAheadFailed() { return refreshAheadFailed; }
+        public void setRefreshAheadFailed(long refreshAheadFailed) { this.refreshAheadFailed = refreshAheadFailed; }
+        public int getRefreshAheadQueued() { return refreshAheadQueued; }
+        public void setRefreshAheadQueued(int refreshAheadQueued) { this.refreshAheadQueued = refreshAheadQueued; }
+    }
+
+    /**
+     * Point-in-time statistics for one cache. Memory is an estimate of the entries alone;
+     * the shared symbol tables are reported separately.
+     */
+    public static class CacheStats {
+        private final String name;
+        private final int size;
+        private final long ttlMs;
+        private final long hits;
+        private final long misses;
+        private final double hitRatio;
+        private final long loads;
+        private final long loadFailures;
+        private final double averageLoadMs;
+        private final long evictions;
+        private final long invalidations;
+        private final long estimatedBytes;
+
+        CacheStats(LookupCache<CompactStringList> cache) {
+            this.name = cache.getName();
+            this.size = cache.size();
+            this.ttlMs = cache.getTtlMillis();
+            this.hits = cache.getHits();
+            this.misses = cache.getMisses();
+            this.hitRatio = cache.getHitRatio();
+            this.loads = cache.getLoads();
+            this.loadFailures = cache.getLoadFailures();
+            this.averageLoadMs = cache.getAverageLoadMillis();
+            this.evictions = cache.getEvictions();
+            this.invalidations = cache.getInvalidations();
+            this.estimatedBytes = cache.estimateBytes(CompactStringList::estimateBytes);
+        }
+
+        public String getName() { return name; }
+        public int getSize() { return size; }
+        public long getTtlMs() { return ttlMs; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public double getHitRatio() { return hitRatio; }
+        public long getLoads() { return loads; }
+        public long getLoadFailures() { return loadFailures; }
+        public double getAverageLoadMs() { return averageLoadMs; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+        public long getEstimatedBytes() { return estimatedBytes; }
+    }
+
+    /**
+     * Size of a shared symbol table
+     */
+    public static class SymbolTableStats {
+        private final int symbols;
+        private final long estimatedBytes;
+
+        SymbolTableStats(SymbolTable table) {
+            this.symbols = table.size();
+            this.estimatedBytes = table.estimateBytes();
+        }
+
+        public int getSymbols() { return symbols; }
+        public long getEstimatedBytes() { return estimatedBytes; }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.controller;
+
+import com.example.controller.AuthorizationController.OfficesResponse;
+import com.example.controller.AuthorizationController.UserIdentityResponse;
+import com.example.controller.AuthorizationController.UserRolesResponse;
+import com.example.controller.AuthorizationController.UsersResponse;
+import com.example.generated.UserIdentity;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Serializers for the lookup responses, attached to the DTOs with {@code @JsonSerialize}.
+ * <p>
+ * They write the JSON the bean serializer would, field for field and in the same order, but
+ * without introspection: field names are encoded once, and list values are written straight from
+ * the list the response holds, which is normally a view over the unmarshalled ListType rather
+ * than a copy.
+ */
+public final class ResponseJsonSerializers {
+
+    private static final SerializableString FOUND = new SerializedString("found");
+    private static final SerializableString OFFICES = new SerializedString("offices");
+    private static final SerializableString USERS = new SerializedString("users");
+    private static final SerializableString ROLES = new SerializedString("roles");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString USER_IDENTITY = new SerializedString("userIdentity");
+    private static final SerializableString AUTHENTICATION_SYSTEM_IDENTIFIER =
+        new SerializedString("authenticationSystemIdentifier");
+    private static final SerializableString AUTHORIZATION_SYSTEM_IDENTIFIER =
+        new SerializedString("authorizationSystemIdentifier");
+    private static final SerializableString USER_LOGIN_NAME = new SerializedString("userLoginName");
+
+    private ResponseJsonSerializers() {}
+
+    public static class OfficesResponseSerializer extends StdSerializer<OfficesResponse> {
+
+
+        private static final long serialVersionUID = 1L;
+
+        public OfficesResponseSerializer() {
+            super(OfficesResponse.class);
+        }
+
+        @Override
+        public void serialize(OfficesResponse response, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(response);
+            generator.writeFieldName(FOUND);
+            generator.writeBoolean(response.isFound());
+            writeValues(generator, OFFICES, response.getOffices());
+            writeMessage(generator, response.getMessage());
+            generator.writeEndObject();
+        }
+    }
+
+    public static class UsersResponseSerializer extends StdSerializer<UsersResponse> {
+
+
+        private static final long serialVersionUID = 1L;
+
+        public UsersResponseSerializer() {
+            super(UsersResponse.class);
+        }
+
+        @Override
+        public void serialize(UsersResponse response, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(response);
+            generator.writeFieldName(FOUND);
+            generator.writeBoolean(response.isFound());
+            writeValues(generator, USERS, response.getUsers());
+            writeMessage(generator, response.getMessage());
+            generator.writeEndObject();
+        }
+    }
+
+    public static class UserRolesResponseSerializer extends StdSerializer<UserRolesResponse> {
+
+
+        private static final long serialVersionUID = 1L;
+
+        public UserRolesResponseSerializer() {
+            super(UserRolesResponse.class);
+        }
+
+        @Override
+        public void serialize(UserRolesResponse response, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(response);
+            writeUserIdentity(generator, response.getUserIdentity());
+            writeValues(generator, ROLES, response.getRoles());
+            writeMessage(generator, response.getMessage());
+            generator.writeEndObject();
+        }
+    }
+
+    public static class UserIdentityResponseSerializer extends StdSerializer<UserIdentityResponse> {
+
+
+        private static final long serialVersionUID = 1L;
+
+        public UserIdentityResponseSerializer() {
+            super(UserIdentityResponse.class);
+        }
+
+        @Override
+        public void serialize(UserIdentityResponse response, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(response);
+            generator.writeFieldName(FOUND);
+            generator.writeBoolean(response.isFound());
+            writeUserIdentity(generator, response.getUserIdentity());
+            writeMessage(generator, response.getMessage());
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeValues(JsonGenerator generator, SerializableString name, List<String> values) throws IOException {
+        generator.writeFieldName(name);
+        if (values == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray(values, values.size());
+        if (values instanceof RandomAccess) {
+            for (int i = 0, size = values.size(); i < size; i++) {
+                generator.writeString(values.get(i));
+            }
+        } else {
+            for (String value : values) {
+                generator.writeString(value);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeUserIdentity(JsonGenerator generator, UserIdentity userIdentity) throws IOException {
+        generator.writeFieldName(USER_IDENTITY);
+        if (userIdentity == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject(userIdentity);
+        generator.writeFieldName(AUTHENTICATION_SYSTEM_IDENTIFIER);
+        generator.writeString(userIdentity.getAuthenticationSystemIdentifier());
+        generator.writeFieldName(AUTHORIZATION_SYSTEM_IDENTIFIER);
+        generator.writeString(userIdentity.getAuthorizationSystemIdentifier());
+        generator.writeFieldName(USER_LOGIN_NAME);
+        generator.writeString(userIdentity.getUserLoginName());
+        generator.writeEndObject();
+    }
+
+    private static void writeMessage(JsonGenerator generator, String message) throws IOException {
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of starting or continuing an upstream call once the caller's deadline has passed.
+ * It is an IOException so the SOAP transport can raise it from inside a call.
+ */
+public class DeadlineExceededException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        // Raised on an expected path under overload; the stack trace is not useful
+        return this;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.exception;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * JSON body of an API error: timestamp, status, error, message and, for SOAP faults, faultCode.
+ * <p>
+ * Each kind of error is a {@link Shape} whose status and error label are serialized once, so
+ * writing an error only formats the timestamp and the message.
+ */
+@JsonSerialize(using = ErrorResponse.Serializer.class)
+public class ErrorResponse {
+
+    /**
+     * Status and error label of one kind of error, with their JSON written ahead of time
+     */
+    public enum Shape {
+        SOAP_FAULT(HttpStatus.BAD_REQUEST, "SOAP Fault"),
+        INVALID_ARGUMENT(HttpStatus.BAD_REQUEST, "Invalid Argument"),
+        NOT_FOUND(HttpStatus.NOT_FOUND, "Not Found"),
+        TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests"),
+        SERVICE_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable"),
+        BAD_GATEWAY(HttpStatus.BAD_GATEWAY, "Bad Gateway"),
+        GATEWAY_TIMEOUT(HttpStatus.GATEWAY_TIMEOUT, "Gateway Timeout"),
+        INTERNAL_SERVER_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error"),
+        UNEXPECTED_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected Error");
+
+        private final HttpStatus status;
+        private final String error;
+        /** The status and error members, written raw after the timestamp */
+        private final SerializableString members;
+
+        Shape(HttpStatus status, String error) {
+            this.status = status;
+            this.error = error;
+            // Labels are plain ASCII, nothing to escape
+            this.members = new SerializedString(",\"status\":" + status.value() + ",\"error\":\"" + error + '"');
+        }
+
+        public HttpStatus getStatus() { return status; }
+        public String getError() { return error; }
+    }
+
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString FAULT_CODE = new SerializedString("faultCode");
+
+    private final Shape shape;
+    private final LocalDateTime timestamp;
+    private final String message;
+    private final String faultCode;
+
+    public ErrorResponse(Shape shape, String message) {
+        this(shape, message, null);
+    }
+
+    public ErrorResponse(Shape shape, String message, String faultCode) {
+        this.shape = shape;
+        this.timestamp = LocalDateTime.now();
+        this.message = message;
+        this.faultCode = faultCode;
+    }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public int getStatus() { return shape.status.value(); }
+    public String getError() { return shape.error; }
+    public String getMessage() { return message; }
+    public String getFaultCode() { return faultCode; }
+
+    public static class Serializer extends StdSerializer<ErrorResponse> {
+
+        private static final long serialVersionUID = 1L;
+
+        public Serializer() {
+            super(ErrorResponse.class);
+        }
+
+        @Override
+        public void serialize(ErrorResponse response, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(response);
+            generator.writeFieldName(TIMESTAMP);
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(response.timestamp));
+            // The generator still counts the timestamp as the last value, so the next field gets its comma
+            generator.writeRaw(response.shape.members);
+            generator.writeFieldName(MESSAGE);
+            generator.writeString(response.message);
+            if (response.faultCode != null) {
+                generator.writeFieldName(FAULT_CODE);
+                generator.writeString(response.faultCode);
+            }
+            generator.writeEndObject();
+        }
+    }
+}
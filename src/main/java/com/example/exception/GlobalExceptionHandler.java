@@ -2,71 +2,124 @@ package com.example.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.ws.soap.client.SoapFaultClientException;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
-
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
     
+    /** Repeats of the same unexpected exception type are logged once per interval */
+    private final ThrottledErrorLog errorLog = new ThrottledErrorLog(logger, 10_000);
+    
+    /**
+     * A fault is the service's answer about the request, so it is logged without a stack
+     */
     @ExceptionHandler(SoapFaultClientException.class)
-    public ResponseEntity<Map<String, Object>> handleSoapFaultException(SoapFaultClientException e) {
-        logger.error("SOAP fault occurred", e);
+    public ResponseEntity<ErrorResponse> handleSoapFaultException(SoapFaultClientException e) {
+        logger.debug("SOAP fault: {}", e.getFaultStringOrReason());
         
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("timestamp", LocalDateTime.now());
-        errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
-        errorResponse.put("error", "SOAP Fault");
-        errorResponse.put("message", e.getFaultStringOrReason());
-        errorResponse.put("faultCode", e.getFaultCode() != null ? e.getFaultCode().toString() : "Unknown");
+        ErrorResponse errorResponse = new ErrorResponse(ErrorResponse.Shape.SOAP_FAULT, e.getFaultStringOrReason(),
+            e.getFaultCode() != null ? e.getFaultCode().toString() : "Unknown");
         
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
     
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(RateLimitExceededException e) {
+        logger.debug("Rate limit exceeded: {}", e.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(ErrorResponse.Shape.TOO_MANY_REQUESTS, e.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(errorResponse);
+    }
+    
+    /**
+     * Failed SOAP calls. The service has already logged them (throttled), so this only picks the
+     * status: the type was decided once, when the call failed.
+     */
+    @ExceptionHandler(UpstreamCallException.class)
+    public ResponseEntity<ErrorResponse> handleUpstreamCallException(UpstreamCallException e) {
+        logger.debug("Upstream call failed: {}", e.getMessage());
+        
+        ErrorResponse.Shape shape;
+        if (e instanceof UpstreamNotFoundException) {
+            shape = ErrorResponse.Shape.NOT_FOUND;
+        } else if (e instanceof UpstreamValidationException) {
+            shape = ErrorResponse.Shape.SOAP_FAULT;
+        } else if (e instanceof UpstreamTimeoutException) {
+            shape = ErrorResponse.Shape.GATEWAY_TIMEOUT;
+        } else if (e instanceof UpstreamRejectedException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(ErrorResponse.Shape.SERVICE_UNAVAILABLE, e.getMessage()));
+        } else if (e instanceof UpstreamUnavailableException) {
+            shape = ErrorResponse.Shape.BAD_GATEWAY;
+        } else {
+            shape = ErrorResponse.Shape.INTERNAL_SERVER_ERROR;
+        }
+        
+        return ResponseEntity.status(shape.getStatus()).body(new ErrorResponse(shape, e.getMessage(), e.getFaultCode()));
+    }
+    
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(IllegalArgumentException e) {
-        logger.error("Invalid argument provided", e);
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException e) {
+        logger.debug("Invalid argument provided: {}", e.getMessage());
         
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("timestamp", LocalDateTime.now());
-        errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
-        errorResponse.put("error", "Invalid Argument");
-        errorResponse.put("message", e.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse(ErrorResponse.Shape.INVALID_ARGUMENT, e.getMessage());
         
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
     
     @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<Map<String, Object>> handleRuntimeException(RuntimeException e) {
-        logger.error("Runtime exception occurred", e);
+    public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException e) {
+        UpstreamCallException upstreamFailure = findCause(e, UpstreamCallException.class);
+        if (upstreamFailure != null) {
+            return handleUpstreamCallException(upstreamFailure);
+        }
+        
+        DeadlineExceededException deadlineExceeded = findCause(e, DeadlineExceededException.class);
+        if (deadlineExceeded != null) {
+            errorLog.log(Level.WARN, DeadlineExceededException.class.getName(),
+                e.getMessage() + ": " + deadlineExceeded.getMessage(), null);
+            
+            ErrorResponse errorResponse = new ErrorResponse(ErrorResponse.Shape.GATEWAY_TIMEOUT,
+                e.getMessage() + ": " + deadlineExceeded.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+        }
         
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("timestamp", LocalDateTime.now());
-        errorResponse.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        errorResponse.put("error", "Internal Server Error");
-        errorResponse.put("message", e.getMessage());
+        errorLog.log(Level.ERROR, e.getClass().getName(), "Runtime exception occurred: " + e.getMessage(), e);
+        
+        ErrorResponse errorResponse = new ErrorResponse(ErrorResponse.Shape.INTERNAL_SERVER_ERROR, e.getMessage());
         
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
     
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGenericException(Exception e) {
-        logger.error("Unexpected error occurred", e);
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception e) {
+        errorLog.log(Level.ERROR, e.getClass().getName(), "Unexpected error occurred: " + e.getMessage(), e);
         
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("timestamp", LocalDateTime.now());
-        errorResponse.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        errorResponse.put("error", "Unexpected Error");
-        errorResponse.put("message", "An unexpected error occurred. Please try again later.");
+        ErrorResponse errorResponse = new ErrorResponse(ErrorResponse.Shape.UNEXPECTED_ERROR,
+            "An unexpected error occurred. Please try again later.");
         
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
-}
\ No newline at end of file
+    
+    private static <T extends Throwable> T findCause(Throwable throwable, Class<T> type) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.exception;
+
+/**
+ * Thrown when an application exceeds its request rate. Rejections can be frequent under abuse,
+ * so the exception carries no stack trace.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
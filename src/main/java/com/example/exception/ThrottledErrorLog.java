@@ -0,0 +1,73 @@
+package com.example.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs a recurring failure once per interval per key and counts the repeats it held back, so an
+ * upstream brownout produces a few lines per interval instead of one (with a stack) per request.
+ * The count is reported on the next line logged for the key.
+ */
+public class ThrottledErrorLog {
+
+    /** Distinct keys tracked; beyond this the table is cleared rather than grown */
+    private static final int MAX_KEYS = 1024;
+
+    private final Logger logger;
+    private final long intervalNanos;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    private static final class Window {
+        final AtomicLong nextLogNanos;
+        final AtomicInteger suppressed = new AtomicInteger();
+
+        Window(long now) {
+            this.nextLogNanos = new AtomicLong(now);
+        }
+    }
+
+    public ThrottledErrorLog(Logger logger, long intervalMillis) {
+        this.logger = logger;
+        this.intervalNanos = intervalMillis * 1_000_000L;
+    }
+
+    /**
+     * Log the message, with the stack of {@code stackOf} if given, unless the key was logged
+     * within the interval
+     */
+    public void log(Level level, String key, String message, Throwable stackOf) {
+        if (!logger.isEnabledForLevel(level)) {
+            return;
+        }
+        int suppressed = admit(key, System.nanoTime());
+        if (suppressed < 0) {
+            return;
+        }
+        String line = suppressed > 0 ? message + " (" + suppressed + " more like it not logged)" : message;
+        logger.atLevel(level).setCause(stackOf).log(line);
+    }
+
+    /**
+     * -1 if the key is within its interval, otherwise the number of repeats held back since it
+     * was last logged
+     */
+    int admit(String key, long now) {
+        Window window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= MAX_KEYS) {
+                windows.clear();
+            }
+            window = windows.computeIfAbsent(key, k -> new Window(now));
+        }
+        long next = window.nextLogNanos.get();
+        if (now - next >= 0 && window.nextLogNanos.compareAndSet(next, now + intervalNanos)) {
+            return window.suppressed.getAndSet(0);
+        }
+        window.suppressed.incrementAndGet();
+        return -1;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.exception;
+
+/**
+ * A failed call to the SOAP service, with a "Failed to &lt;action&gt;" message for API callers.
+ * <p>
+ * The subclasses say what went wrong, so {@link GlobalExceptionHandler} can answer with a precise
+ * status. They are expected whenever the service misbehaves or the input is wrong, so they skip
+ * the stack trace; the cause keeps the original one. This class itself is used only for failures
+ * that fit none of them, and those keep their stack.
+ */
+public class UpstreamCallException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String faultCode;
+
+    public UpstreamCallException(String message, Throwable cause) {
+        this(message, cause, null, true);
+    }
+
+    protected UpstreamCallException(String message, Throwable cause, String faultCode, boolean writableStackTrace) {
+        super(message, cause, false, writableStackTrace);
+        this.faultCode = faultCode;
+    }
+
+    /**
+     * Local part of the SOAP fault code, when the service answered with a fault
+     */
+    public String getFaultCode() {
+        return faultCode;
+    }
+}
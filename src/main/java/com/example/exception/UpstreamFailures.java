@@ -0,0 +1,62 @@
+package com.example.exception;
+
+import org.springframework.ws.client.WebServiceIOException;
+import org.springframework.ws.soap.client.SoapFaultClientException;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Locale;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Turns whatever a SOAP call failed with into the matching {@link UpstreamCallException}
+ */
+public final class UpstreamFailures {
+
+    private UpstreamFailures() {}
+
+    /**
+     * Classify a failure of the given action ("find users by criteria"). Faults are told apart by
+     * their fault string (not found) and fault code (the request's fault or the service's); other
+     * failures by what their cause chain contains.
+     */
+    public static UpstreamCallException classify(String action, Throwable failure) {
+        String failed = "Failed to " + action;
+        if (failure instanceof SoapFaultClientException fault) {
+            String reason = fault.getFaultStringOrReason();
+            String faultCode = fault.getFaultCode() != null ? fault.getFaultCode().getLocalPart() : null;
+            String message = failed + ": " + reason;
+            if (isNotFound(reason)) {
+                return new UpstreamNotFoundException(message, fault, faultCode);
+            }
+            if ("Client".equals(faultCode) || "Sender".equals(faultCode)) {
+                return new UpstreamValidationException(message, fault, faultCode);
+            }
+            return new UpstreamUnavailableException(message, fault, faultCode);
+        }
+        // Timeouts arrive wrapped in the transport's WebServiceIOException, so look for them first
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UpstreamRejectedException) {
+                return new UpstreamRejectedException(failed + ": " + cause.getMessage(), failure);
+            }
+            if (cause instanceof DeadlineExceededException || cause instanceof SocketTimeoutException
+                    || cause instanceof TimeoutException) {
+                return new UpstreamTimeoutException(failed + ": " + cause.getMessage(), failure);
+            }
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof WebServiceIOException) {
+                return new UpstreamUnavailableException(failed, failure, null);
+            }
+        }
+        return new UpstreamCallException(failed, failure);
+    }
+
+    static boolean isNotFound(String reason) {
+        if (reason == null) {
+            return false;
+        }
+        String lower = reason.toLowerCase(Locale.ROOT);
+        return lower.contains("not found") || lower.contains("does not exist") || lower.contains("no such");
+    }
+}
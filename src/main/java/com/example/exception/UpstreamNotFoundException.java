@@ -0,0 +1,13 @@
+package com.example.exception;
+
+/**
+ * The SOAP service answered with a fault saying the office, user or role does not exist
+ */
+public class UpstreamNotFoundException extends UpstreamCallException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UpstreamNotFoundException(String message, Throwable cause, String faultCode) {
+        super(message, cause, faultCode, false);
+    }
+}
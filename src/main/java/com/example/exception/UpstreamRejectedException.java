@@ -0,0 +1,14 @@
+package com.example.exception;
+
+/**
+ * The call was refused on this side before reaching the SOAP service, because too many calls
+ * were already in flight or waiting
+ */
+public class UpstreamRejectedException extends UpstreamCallException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UpstreamRejectedException(String message, Throwable cause) {
+        super(message, cause, null, false);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.exception;
+
+/**
+ * Thrown when so many upstream calls are already waiting that a new one is refused rather than
+ * queued. Like a rate-limit rejection it is expected under load, so it carries no stack trace.
+ */
+public class UpstreamSaturatedException extends UpstreamRejectedException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UpstreamSaturatedException(String message) {
+        super(message, null);
+    }
+}
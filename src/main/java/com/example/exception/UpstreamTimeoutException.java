@@ -0,0 +1,13 @@
+package com.example.exception;
+
+/**
+ * The SOAP service did not answer within the operation's read timeout or the request's deadline
+ */
+public class UpstreamTimeoutException extends UpstreamCallException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UpstreamTimeoutException(String message, Throwable cause) {
+        super(message, cause, null, false);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.exception;
+
+/**
+ * The SOAP service could not be reached, failed on its side, or answered with something that is
+ * not a usable response
+ */
+public class UpstreamUnavailableException extends UpstreamCallException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UpstreamUnavailableException(String message, Throwable cause, String faultCode) {
+        super(message, cause, faultCode, false);
+    }
+}
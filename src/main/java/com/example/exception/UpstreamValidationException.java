@@ -0,0 +1,13 @@
+package com.example.exception;
+
+/**
+ * The SOAP service rejected the request itself, with a Client (SOAP 1.1) or Sender (SOAP 1.2) fault
+ */
+public class UpstreamValidationException extends UpstreamCallException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UpstreamValidationException(String message, Throwable cause, String faultCode) {
+        super(message, cause, faultCode, false);
+    }
+}
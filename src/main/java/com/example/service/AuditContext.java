@@ -0,0 +1,61 @@
+package com.example.service;
+
+import com.example.generated.UserIdentity;
+
+/**
+ * Thread-bound {@link AuditEvent} of the API request being served on the servlet stack. Handlers
+ * add the caller, subject and result count as they learn them; outside an audited request these
+ * calls do nothing.
+ */
+public final class AuditContext {
+
+    private static final ThreadLocal<AuditEvent> CURRENT = new ThreadLocal<>();
+
+    private AuditContext() {}
+
+    public static void begin(AuditEvent event) {
+        CURRENT.set(event);
+    }
+
+    /**
+     * The current event, to finish filling in on another thread (a streamed body); null outside an audited request
+     */
+    public static AuditEvent current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void caller(String applicationId, String requestHost) {
+        AuditEvent event = CURRENT.get();
+        if (event != null) {
+            event.setCaller(applicationId, requestHost);
+        }
+    }
+
+    public static void subject(String subjectType, String subject) {
+        AuditEvent event = CURRENT.get();
+        if (event != null) {
+            event.setSubject(subjectType, subject);
+        }
+    }
+
+    /**
+     * A user subject; see {@link AuditEvent#setUser}
+     */
+    public static void user(UserIdentity userIdentity) {
+        AuditEvent event = CURRENT.get();
+        if (event != null) {
+            event.setUser(userIdentity);
+        }
+    }
+
+    public static void resultCount(int resultCount) {
+        AuditEvent event = CURRENT.get();
+        if (event != null) {
+            event.setResultCount(resultCount);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.service;
+
+import com.example.generated.UserIdentity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit record of one API request: the operation, who asked (application, request host and
+ * remote address), about whom (the subject), how many results it returned, how long it took and
+ * how it ended. Filled in on the request thread while the request is served, then handed to the
+ * {@link AuditTrail}.
+ */
+public class AuditEvent {
+
+    /**
+     * How the request ended, from its HTTP status unless the handler marked it failed
+     */
+    public enum Outcome {
+        SUCCESS, INVALID, NOT_FOUND, REJECTED, FAILED;
+
+        static Outcome of(int status) {
+            // 412 only answers a revalidated POST lookup whose data is unchanged
+            if (status < 400 || status == 412) {
+                return SUCCESS;
+            }
+            if (status == 404) {
+                return NOT_FOUND;
+            }
+            if (status == 429 || status == 503) {
+                return REJECTED;
+            }
+            return status < 500 ? INVALID : FAILED;
+        }
+    }
+
+    private final String operation;
+    private final String remoteAddress;
+    private final long startedAt;
+    private final long startedNanos;
+
+    private String applicationId;
+    private String requestHost;
+    private String subjectType;
+    private String subject;
+    private int resultCount = -1;
+    private boolean failed;
+
+    private long latencyMicros;
+    private int status;
+    private Outcome outcome;
+
+    public AuditEvent(String operation, String remoteAddress, long startedAt, long startedNanos) {
+        this.operation = operation;
+        this.remoteAddress = remoteAddress;
+        this.startedAt = startedAt;
+        this.startedNanos = startedNanos;
+    }
+
+    public void setCaller(String applicationId, String requestHost) {
+        this.applicationId = applicationId;
+        this.requestHost = requestHost;
+    }
+
+    public void setSubject(String subjectType, String subject) {
+        this.subjectType = subjectType;
+        this.subject = subject;
+    }
+
+    /**
+     * A user subject, as authenticationSystemIdentifier:authorizationSystemIdentifier:userLoginName
+     */
+    public void setUser(UserIdentity userIdentity) {
+        if (userIdentity != null) {
+            setSubject("user", userIdentity.getAuthenticationSystemIdentifier() + ':'
+                + userIdentity.getAuthorizationSystemIdentifier() + ':' + userIdentity.getUserLoginName());
+        }
+    }
+
+    public void setResultCount(int resultCount) {
+        this.resultCount = resultCount;
+    }
+
+    /**
+     * Record a failure the status cannot show, such as a stream that broke off after a 200
+     */
+    public void markFailed() {
+        this.failed = true;
+    }
+
+    /**
+     * Close the event with the response status, fixing its latency
+     */
+    public void complete(int status) {
+        this.latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedNanos);
+        this.status = status;
+        this.outcome = failed ? Outcome.FAILED : Outcome.of(status);
+    }
+
+    public String getOperation() { return operation; }
+    public String getRemoteAddress() { return remoteAddress; }
+    /** Epoch milliseconds */
+    public long getStartedAt() { return startedAt; }
+    public String getApplicationId() { return applicationId; }
+    public String getRequestHost() { return requestHost; }
+    public String getSubjectType() { return subjectType; }
+    public String getSubject() { return subject; }
+    /** -1 when the operation has no result count */
+    public int getResultCount() { return resultCount; }
+    public long getLatencyMicros() { return latencyMicros; }
+    public int getStatus() { return status; }
+    public Outcome getOutcome() { return outcome; }
+}
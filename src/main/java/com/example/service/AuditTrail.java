@@ -0,0 +1,213 @@
+package com.example.service;
+
+import com.example.config.AuditProperties;
+import com.example.config.MappedAppendFile;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only audit trail of API requests, written off the request thread.
+ * <p>
+ * Request threads add events to a lock-free queue bounded by a counter; a single writer thread
+ * drains it every flush interval, or sooner once it is half full, and appends the events as JSON
+ * lines to memory-mapped files ({@link MappedAppendFile}), forcing them to disk every force
+ * interval. Loss is bounded: when the writer falls behind, events beyond the queue capacity are
+ * dropped and counted (audit.events.dropped); a process crash loses at most the queued events,
+ * and a host crash also what was written since the last force.
+ */
+@Service
+public class AuditTrail {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditTrail.class);
+
+    static final String FILE_PREFIX = "audit-";
+
+    private final AuditProperties properties;
+    private final boolean enabled;
+    private final ConcurrentLinkedQueue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int capacity;
+    private final int wakeThreshold;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    @Autowired
+    public AuditTrail(AuditProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.enabled = properties.isEnabled();
+        this.capacity = Math.max(1, properties.getQueueCapacity());
+        this.wakeThreshold = Math.max(1, capacity / 2);
+
+        FunctionCounter.builder("audit.events.written", written, AtomicLong::get)
+            .description("Audit events appended to the audit file")
+            .register(meterRegistry);
+        FunctionCounter.builder("audit.events.dropped", dropped, AtomicLong::get)
+            .description("Audit events lost because the queue was full or the file could not be written")
+            .register(meterRegistry);
+
+        this.writer = new Thread(this::run, "audit-writer");
+        this.writer.setDaemon(true);
+        if (enabled) {
+            writer.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a completed event; never blocks. Returns false if it was dropped.
+     */
+    public boolean submit(AuditEvent event) {
+        if (!enabled) {
+            return false;
+        }
+        if (closed) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        int size = queued.incrementAndGet();
+        if (size > capacity) {
+            queued.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+        queue.offer(event);
+        if (size == wakeThreshold) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Write what is queued, finish the current file and stop the writer thread
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        if (enabled) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, properties.getFlushIntervalMs()));
+        long forceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getForceIntervalMs());
+        RecordBuffer record = new RecordBuffer();
+        MappedAppendFile file = null;
+        long lastForce = System.nanoTime();
+        boolean unforced = false;
+        try {
+            file = new MappedAppendFile(Path.of(properties.getDirectory()), FILE_PREFIX,
+                properties.getFileBytes(), properties.getMaxFiles());
+            while (true) {
+                boolean stopping = closed;
+                AuditEvent event;
+                while ((event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    if (append(file, record, event)) {
+                        written.incrementAndGet();
+                        unforced = true;
+                    } else {
+                        dropped.incrementAndGet();
+                    }
+                }
+                if (stopping) {
+                    break;
+                }
+                if (unforced && System.nanoTime() - lastForce >= forceIntervalNanos) {
+                    file.force();
+                    lastForce = System.nanoTime();
+                    unforced = false;
+                }
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        } catch (IOException | RuntimeException | InternalError e) {
+            // A mapped write that cannot be backed by disk (disk full) surfaces as an InternalError
+            logger.error("Audit trail stopped: {}", e.getMessage(), e);
+            closed = true;
+            dropped.addAndGet(queued.getAndSet(0));
+            queue.clear();
+        } finally {
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close audit file: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private boolean append(MappedAppendFile file, RecordBuffer record, AuditEvent event) throws IOException {
+        record.reset();
+        try (JsonGenerator generator = jsonFactory.createGenerator(record)) {
+            generator.writeStartObject();
+            generator.writeStringField("time", Instant.ofEpochMilli(event.getStartedAt()).toString());
+            generator.writeStringField("operation", event.getOperation());
+            writeOptional(generator, "applicationId", event.getApplicationId());
+            writeOptional(generator, "requestHost", event.getRequestHost());
+            writeOptional(generator, "remoteAddress", event.getRemoteAddress());
+            writeOptional(generator, "subjectType", event.getSubjectType());
+            writeOptional(generator, "subject", event.getSubject());
+            if (event.getResultCount() >= 0) {
+                generator.writeNumberField("resultCount", event.getResultCount());
+            }
+            generator.writeNumberField("latencyMicros", event.getLatencyMicros());
+            generator.writeNumberField("status", event.getStatus());
+            generator.writeStringField("outcome", event.getOutcome() != null ? event.getOutcome().name() : null);
+            generator.writeEndObject();
+        }
+        record.write('\n');
+        return file.append(record.bytes(), record.size());
+    }
+
+    private static void writeOptional(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    /**
+     * Reusable encoding buffer whose bytes are appended without a copy
+     */
+    private static class RecordBuffer extends ByteArrayOutputStream {
+        RecordBuffer() {
+            super(512);
+        }
+
+        byte[] bytes() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.service;
+
+import com.example.cache.CompactStringList;
+import com.example.generated.ListType;
+import com.example.generated.RequestToken;
+import com.example.generated.UserIdentity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers "does user X hold role Y (in office Z)?" from the mirror indexes.
+ * <p>
+ * Without an office the decision is a lookup in the user's role set; with an office it is a
+ * membership check in the (office, role) user set. Indexed lists answer through their bitset or
+ * sorted-code membership index; lists fetched live fall back to a linear scan.
+ */
+@Service
+public class AuthorizationDecisionService {
+
+    private final DirectoryMirrorService directoryMirrorService;
+
+    @Autowired
+    public AuthorizationDecisionService(DirectoryMirrorService directoryMirrorService) {
+        this.directoryMirrorService = directoryMirrorService;
+    }
+
+    /**
+     * A single (user, role, office) question; officeId is optional
+     */
+    public static class AccessCheck {
+        private final UserIdentity userIdentity;
+        private final String roleName;
+        private final String officeId;
+
+        public AccessCheck(UserIdentity userIdentity, String roleName, String officeId) {
+            this.userIdentity = userIdentity;
+            this.roleName = roleName;
+            this.officeId = officeId;
+        }
+
+        public UserIdentity getUserIdentity() { return userIdentity; }
+        public String getRoleName() { return roleName; }
+        public String getOfficeId() { return officeId; }
+    }
+
+    public boolean isAllowed(AccessCheck check, RequestToken requestToken) {
+        return checkAll(List.of(check), requestToken)[0];
+    }
+
+    /**
+     * Answer a batch of checks. Each distinct role set or (office, role) user set is looked up once
+     * per batch, even when the mirror is disabled.
+     */
+    public boolean[] checkAll(List<AccessCheck> checks, RequestToken requestToken) {
+        Map<String, ListType> lookups = new HashMap<>();
+        boolean[] results = new boolean[checks.size()];
+
+        for (int i = 0; i < results.length; i++) {
+            AccessCheck check = checks.get(i);
+            if (check.getOfficeId() == null) {
+                UserIdentity identity = check.getUserIdentity();
+                ListType roles = lookups.computeIfAbsent(DirectoryMirrorService.rolesKey(identity),
+                    key -> directoryMirrorService.getUserRoles(identity).getUserRoles());
+                results[i] = contains(roles, check.getRoleName());
+            } else {
+                if (requestToken == null) {
+                    throw new IllegalArgumentException("Office access checks require applicationId and requestHost");
+                }
+                ListType users = lookups.computeIfAbsent(
+                    "office" + DirectoryMirrorService.usersKey(check.getOfficeId(), check.getRoleName()),
+                    key -> directoryMirrorService.findUsersByCriteria(check.getOfficeId(), check.getRoleName(), requestToken));
+                results[i] = contains(users, check.getUserIdentity().getUserLoginName());
+            }
+        }
+        return results;
+    }
+
+    private static boolean contains(ListType listType, String value) {
+        if (listType == null || listType.getListValue() == null) {
+            return false;
+        }
+        List<String> values = listType.getListValue();
+        if (values instanceof CompactStringList) {
+            return ((CompactStringList) values).containsSymbol(value);
+        }
+        return values.contains(value);
+    }
+}
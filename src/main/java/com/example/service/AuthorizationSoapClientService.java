@@ -1,25 +1,51 @@
 package com.example.service;
 
+import com.example.exception.DeadlineExceededException;
+import com.example.exception.ThrottledErrorLog;
+import com.example.exception.UpstreamCallException;
+import com.example.exception.UpstreamFailures;
+import com.example.exception.UpstreamNotFoundException;
+import com.example.exception.UpstreamRejectedException;
+import com.example.exception.UpstreamValidationException;
 import com.example.generated.*;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import org.springframework.stereotype.Service;
 import org.springframework.ws.client.core.WebServiceTemplate;
 import org.springframework.ws.soap.client.SoapFaultClientException;
+import org.w3c.dom.Element;
 
+import javax.xml.transform.dom.DOMSource;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
 public class AuthorizationSoapClientService {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthorizationSoapClientService.class);
     
+    /** The same failure of the same operation is logged at most once per interval */
+    static final long ERROR_LOG_INTERVAL_MS = 10_000;
+    
     private final WebServiceTemplate webServiceTemplate;
+    private final UpstreamPermitScheduler permitScheduler;
+    private final UpstreamTimeoutPolicy timeoutPolicy;
+    private final ObjectFactory objectFactory = new ObjectFactory();
+    private final ThrottledErrorLog errorLog = new ThrottledErrorLog(logger, ERROR_LOG_INTERVAL_MS);
     
     @Autowired
-    public AuthorizationSoapClientService(WebServiceTemplate webServiceTemplate) {
+    public AuthorizationSoapClientService(WebServiceTemplate webServiceTemplate,
+                                          UpstreamPermitScheduler permitScheduler,
+                                          UpstreamTimeoutPolicy timeoutPolicy) {
         this.webServiceTemplate = webServiceTemplate;
+        this.permitScheduler = permitScheduler;
+        this.timeoutPolicy = timeoutPolicy;
     }
     
     /**
@@ -35,18 +61,14 @@ public class AuthorizationSoapClientService {
             
             // Send the request element directly (not wrapped in JAXBElement)
             FindMatchingUserIdentityResponse response = 
-                (FindMatchingUserIdentityResponse) webServiceTemplate.marshalSendAndReceive(request);
+                (FindMatchingUserIdentityResponse) sendAndReceive(request);
             
             UserIdentity userIdentity = response.getUserIdentity();
             logger.debug("Found user identity: {}", userIdentity != null ? userIdentity.getUserLoginName() : "null");
             return userIdentity;
             
-        } catch (SoapFaultClientException e) {
-            logger.error("SOAP fault occurred while finding matching user identity: {}", e.getFaultStringOrReason());
-            throw new RuntimeException("Failed to find matching user identity: " + e.getFaultStringOrReason(), e);
         } catch (Exception e) {
-            logger.error("Error occurred while finding matching user identity", e);
-            throw new RuntimeException("Failed to find matching user identity", e);
+            throw failure("find matching user identity", e);
         }
     }
     
@@ -65,18 +87,14 @@ public class AuthorizationSoapClientService {
             
             // Send request directly
             FindOfficesByEauthIdResponse response = 
-                (FindOfficesByEauthIdResponse) webServiceTemplate.marshalSendAndReceive(request);
+                (FindOfficesByEauthIdResponse) sendAndReceive(request);
             
             ListType offices = response.getOffices();
             logger.debug("Found {} offices", offices != null && offices.getListValue() != null ? offices.getListValue().size() : 0);
             return offices;
             
-        } catch (SoapFaultClientException e) {
-            logger.error("SOAP fault occurred while finding offices by EAuth ID: {}", e.getFaultStringOrReason());
-            throw new RuntimeException("Failed to find offices by EAuth ID: " + e.getFaultStringOrReason(), e);
         } catch (Exception e) {
-            logger.error("Error occurred while finding offices by EAuth ID", e);
-            throw new RuntimeException("Failed to find offices by EAuth ID", e);
+            throw failure("find offices by EAuth ID", e);
         }
     }
     
@@ -95,18 +113,14 @@ public class AuthorizationSoapClientService {
             
             // Send request directly
             FindUserCriteriaResponse response = 
-                (FindUserCriteriaResponse) webServiceTemplate.marshalSendAndReceive(request);
+                (FindUserCriteriaResponse) sendAndReceive(request);
             
             ListType users = response.getUsers();
             logger.debug("Found {} users", users != null && users.getListValue() != null ? users.getListValue().size() : 0);
             return users;
             
-        } catch (SoapFaultClientException e) {
-            logger.error("SOAP fault occurred while finding users by criteria: {}", e.getFaultStringOrReason());
-            throw new RuntimeException("Failed to find users by criteria: " + e.getFaultStringOrReason(), e);
         } catch (Exception e) {
-            logger.error("Error occurred while finding users by criteria", e);
-            throw new RuntimeException("Failed to find users by criteria", e);
+            throw failure("find users by criteria", e);
         }
     }
     
@@ -123,7 +137,7 @@ public class AuthorizationSoapClientService {
             
             // Send request directly
             GetUserRolesResponse response = 
-                (GetUserRolesResponse) webServiceTemplate.marshalSendAndReceive(request);
+                (GetUserRolesResponse) sendAndReceive(request);
             
             logger.debug("Found {} roles for user", 
                 response.getUserRoles() != null && response.getUserRoles().getListValue() != null ? 
@@ -131,12 +145,130 @@ public class AuthorizationSoapClientService {
             
             return response;
             
-        } catch (SoapFaultClientException e) {
-            logger.error("SOAP fault occurred while getting user roles: {}", e.getFaultStringOrReason());
-            throw new RuntimeException("Failed to get user roles: " + e.getFaultStringOrReason(), e);
         } catch (Exception e) {
-            logger.error("Error occurred while getting user roles", e);
-            throw new RuntimeException("Failed to get user roles", e);
+            throw failure("get user roles", e);
+        }
+    }
+    
+    /**
+     * Find all users of an office, whatever their role
+     */
+    public ListType findUsersByOfficeId(String officeId, RequestToken requestToken) {
+        try {
+            logger.debug("Finding users for office: {}", officeId);
+            
+            FindUsersByOfficeIdRequest request = new FindUsersByOfficeIdRequest()
+                .withOfficeId(officeId)
+                .withRequestToken(requestToken);
+            
+            FindUsersByOfficeIdResponse response = 
+                (FindUsersByOfficeIdResponse) sendAndReceive(request);
+            
+            ListType users = response.getUsers();
+            logger.debug("Found {} users", users != null && users.getListValue() != null ? users.getListValue().size() : 0);
+            return users;
+            
+        } catch (Exception e) {
+            throw failure("find users by office ID", e);
+        }
+    }
+    
+    /**
+     * Find all users holding a role, in any office
+     */
+    public ListType findUsersByRole(String roleName, RequestToken requestToken) {
+        try {
+            logger.debug("Finding users with role: {}", roleName);
+            
+            FindUsersByRoleRequest request = new FindUsersByRoleRequest()
+                .withRoleName(roleName)
+                .withRequestToken(requestToken);
+            
+            FindUsersByRoleResponse response = 
+                (FindUsersByRoleResponse) sendAndReceive(request);
+            
+            ListType users = response.getUsers();
+            logger.debug("Found {} users", users != null && users.getListValue() != null ? users.getListValue().size() : 0);
+            return users;
+            
+        } catch (Exception e) {
+            throw failure("find users by role", e);
+        }
+    }
+    
+    /**
+     * Get a single-valued attribute of a user
+     */
+    public GetSimpleAttributeResponse getSimpleAttribute(UserIdentity userIdentity, String attributeName) {
+        try {
+            logger.debug("Getting simple attribute {} for user: {}", attributeName, userIdentity.getUserLoginName());
+            
+            // The attribute operations are wrapper style: arg0 in, an untyped return out
+            JAXBElement<GetSimpleAttribute> request = objectFactory.createGetSimpleAttribute(
+                new GetSimpleAttribute().withArg0(attributeRequest(userIdentity, attributeName)));
+            
+            GetSimpleAttributeResponse2 response = (GetSimpleAttributeResponse2) sendAndReceive(request);
+            return returnValue(response.getReturn(), GetSimpleAttributeResponse.class, GetSimpleAttributeResponse::new);
+            
+        } catch (Exception e) {
+            throw failure("get simple attribute " + attributeName, e);
+        }
+    }
+    
+    /**
+     * Get a list-valued attribute of a user
+     */
+    public GetListAttributeResponse getListAttribute(UserIdentity userIdentity, String attributeName) {
+        try {
+            logger.debug("Getting list attribute {} for user: {}", attributeName, userIdentity.getUserLoginName());
+            
+            JAXBElement<GetListAttribute> request = objectFactory.createGetListAttribute(
+                new GetListAttribute().withArg0(attributeRequest(userIdentity, attributeName)));
+            
+            GetListAttributeResponse2 response = (GetListAttributeResponse2) sendAndReceive(request);
+            return returnValue(response.getReturn(), GetListAttributeResponse.class, GetListAttributeResponse::new);
+            
+        } catch (Exception e) {
+            throw failure("get list attribute " + attributeName, e);
+        }
+    }
+    
+    /**
+     * Get a map-valued attribute of a user
+     */
+    public GetMapAttributeResponse getMapAttribute(UserIdentity userIdentity, String attributeName) {
+        try {
+            logger.debug("Getting map attribute {} for user: {}", attributeName, userIdentity.getUserLoginName());
+            
+            JAXBElement<GetMapAttribute> request = objectFactory.createGetMapAttribute(
+                new GetMapAttribute().withArg0(attributeRequest(userIdentity, attributeName)));
+            
+            GetMapAttributeResponse2 response = (GetMapAttributeResponse2) sendAndReceive(request);
+            return returnValue(response.getReturn(), GetMapAttributeResponse.class, GetMapAttributeResponse::new);
+            
+        } catch (Exception e) {
+            throw failure("get map attribute " + attributeName, e);
+        }
+    }
+    
+    /**
+     * Get the properties that can identify a user in a findMatchingUserIdentity search
+     */
+    public MapType getUserIdentifyingProperties() {
+        try {
+            logger.debug("Getting user identifying properties");
+            
+            // Wrapper style like the attribute operations, with no argument
+            JAXBElement<GetUserIdentifyingProperties> request =
+                objectFactory.createGetUserIdentifyingProperties(new GetUserIdentifyingProperties());
+            
+            GetUserIdentifyingPropertiesResponse2 response =
+                (GetUserIdentifyingPropertiesResponse2) sendAndReceive(request);
+            return returnValue(response.getReturn(), GetUserIdentifyingPropertiesResponse.class,
+                GetUserIdentifyingPropertiesResponse::new).getMapValues();
+            
+        } catch (Exception e) {
+            throw failure("get user identifying properties", e);
         }
     }
     
@@ -147,23 +279,102 @@ public class AuthorizationSoapClientService {
         try {
             logger.debug("Checking service health");
             
-            // Create the request object - send directly
-            IsHealthy request = new IsHealthy();
+            // IsHealthy has no @XmlRootElement, so it is sent wrapped in its element
+            JAXBElement<IsHealthy> request = objectFactory.createIsHealthy(new IsHealthy());
             
-            // Send request directly
             IsHealthyResponse response = 
-                (IsHealthyResponse) webServiceTemplate.marshalSendAndReceive(request);
+                (IsHealthyResponse) sendAndReceive(request);
             
             boolean result = response.isReturn();
             logger.debug("Service health check result: {}", result);
             return result;
             
-        } catch (SoapFaultClientException e) {
-            logger.warn("SOAP fault during health check: {}", e.getFaultStringOrReason());
-            return false;
         } catch (Exception e) {
-            logger.warn("Error during health check", e);
+            UpstreamCallException failure = UpstreamFailures.classify("check service health", e);
+            errorLog.log(Level.WARN, "health:" + failure.getClass().getSimpleName(), failure.getMessage(), null);
             return false;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Classify and log a failed call. Expected failures are logged without a stack trace, and a
+     * failure that keeps recurring only once per interval.
+     */
+    private UpstreamCallException failure(String action, Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        UpstreamCallException failure = UpstreamFailures.classify(action, e);
+        String key = action + ':' + failure.getClass().getSimpleName() + ':' + failure.getFaultCode();
+        if (failure instanceof UpstreamNotFoundException || failure instanceof UpstreamValidationException) {
+            // An answer about the request, not a problem with the service
+            logger.debug("{}", failure.getMessage());
+        } else if (failure.getClass() == UpstreamCallException.class) {
+            errorLog.log(Level.ERROR, key, failure.getMessage(), e);
+        } else {
+            errorLog.log(Level.WARN, key, failure.getMessage(), null);
+        }
+        return failure;
+    }
+    
+    private static AttributeRequest attributeRequest(UserIdentity userIdentity, String attributeName) {
+        return new AttributeRequest()
+            .withUserIdentity(userIdentity)
+            .withAttributeName(attributeName);
+    }
+    
+    /**
+     * Bind the untyped return of a wrapper-style response. The WSDL leaves it as xs:anyType, so
+     * JAXB hands it over as a DOM element; its children are those of the matching document-style
+     * response (StringValue, AttributeName, ...), which it is bound to here. No return is an empty
+     * response.
+     */
+    private <T> T returnValue(Object value, Class<T> type, Supplier<T> empty) throws JAXBException {
+        if (value == null) {
+            return empty.get();
+        }
+        if (type.isInstance(value)) {
+            return type.cast(value);
+        }
+        if (!(value instanceof Element element)) {
+            throw new IllegalStateException("Unexpected " + value.getClass().getName() + " returned for " + type.getSimpleName());
+        }
+        Jaxb2Marshaller marshaller = (Jaxb2Marshaller) webServiceTemplate.getUnmarshaller();
+        return marshaller.createUnmarshaller().unmarshal(new DOMSource(element), type).getValue();
+    }
+    
+    /**
+     * Send a request once a permit for the caller's upstream priority is available. The permit
+     * wait and the call itself are both bounded by the caller's deadline. Responses that come back
+     * wrapped in a JAXBElement are unwrapped.
+     */
+    private Object sendAndReceive(Object request) throws InterruptedException, DeadlineExceededException {
+        String operation = request instanceof JAXBElement<?> element
+            ? element.getDeclaredType().getSimpleName()
+            : request.getClass().getSimpleName();
+        UpstreamPriority priority = UpstreamCallContext.currentPriority();
+        try {
+            permitScheduler.acquire(priority);
+        } catch (TimeoutException e) {
+            throw new UpstreamRejectedException(e.getMessage(), e);
+        }
+        UpstreamCallContext.setOperation(operation);
+        long start = System.nanoTime();
+        try {
+            Object response = webServiceTemplate.marshalSendAndReceive(request);
+            timeoutPolicy.recordLatency(operation, System.nanoTime() - start);
+            return response instanceof JAXBElement<?> element ? element.getValue() : response;
+        } catch (RuntimeException e) {
+            if (UpstreamCallContext.remainingNanos() <= 0 && !(e instanceof SoapFaultClientException)) {
+                DeadlineExceededException deadlineExceeded =
+                    new DeadlineExceededException("Request deadline exceeded during " + operation);
+                deadlineExceeded.initCause(e);
+                throw deadlineExceeded;
+            }
+            throw e;
+        } finally {
+            UpstreamCallContext.setOperation(null);
+            permitScheduler.release(priority);
+        }
+    }
+}
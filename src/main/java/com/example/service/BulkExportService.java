@@ -0,0 +1,262 @@
+package com.example.service;
+
+import com.example.generated.ListType;
+import com.example.generated.RequestToken;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class BulkExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkExportService.class);
+
+    private final AuthorizationSoapClientService soapClientService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final int maxParallelism;
+    private final int maxPairs;
+    private final int progressInterval;
+
+    @Autowired
+    public BulkExportService(AuthorizationSoapClientService soapClientService,
+                             ObjectMapper objectMapper,
+                             @Value("${authorization.bulk-export.max-parallelism:8}") int maxParallelism,
+                             @Value("${authorization.bulk-export.max-pairs:100000}") int maxPairs,
+                             @Value("${authorization.bulk-export.progress-interval:100}") int progressInterval) {
+        this.soapClientService = soapClientService;
+        this.objectMapper = objectMapper;
+        this.maxParallelism = maxParallelism;
+        this.maxPairs = maxPairs;
+        // Zero or less turns the progress records off; started and complete are always written
+        this.progressInterval = progressInterval;
+
+        // Shared by all jobs, so the pool size is also the global cap on bulk upstream calls
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-export-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * An (officeId, roleName) pair to export
+     */
+    public static class ExportPair {
+        private String officeId;
+        private String roleName;
+
+        public ExportPair() {}
+
+        public ExportPair(String officeId, String roleName) {
+            this.officeId = officeId;
+            this.roleName = roleName;
+        }
+
+        public String getOfficeId() { return officeId; }
+        public void setOfficeId(String officeId) { this.officeId = officeId; }
+        public String getRoleName() { return roleName; }
+        public void setRoleName(String roleName) { this.roleName = roleName; }
+    }
+
+    /**
+     * Outcome of a single pair lookup
+     */
+    private static class PairResult {
+        private final int index;
+        private final ExportPair pair;
+        private final ListType users;
+        private final String errorMessage;
+
+        PairResult(int index, ExportPair pair, ListType users, String errorMessage) {
+            this.index = index;
+            this.pair = pair;
+            this.users = users;
+            this.errorMessage = errorMessage;
+        }
+    }
+
+    /**
+     * Build the ordered pair list: the cartesian product of officeIds and roleNames (office-major),
+     * followed by any explicit pairs. The order is stable so that a checkpoint index can be resumed.
+     */
+    public List<ExportPair> expandPairs(List<String> officeIds, List<String> roleNames, List<ExportPair> explicitPairs) {
+        List<ExportPair> pairs = new ArrayList<>();
+        if (officeIds != null && roleNames != null) {
+            for (String officeId : officeIds) {
+                for (String roleName : roleNames) {
+                    pairs.add(new ExportPair(officeId, roleName));
+                }
+            }
+        }
+        if (explicitPairs != null) {
+            pairs.addAll(explicitPairs);
+        }
+
+        if (pairs.isEmpty()) {
+            throw new IllegalArgumentException("Bulk export requires officeIds and roleNames, or explicit pairs");
+        }
+        if (pairs.size() > maxPairs) {
+            throw new IllegalArgumentException("Bulk export of " + pairs.size() + " pairs exceeds the limit of " + maxPairs);
+        }
+        for (ExportPair pair : pairs) {
+            if (pair.getOfficeId() == null || pair.getOfficeId().isBlank()
+                    || pair.getRoleName() == null || pair.getRoleName().isBlank()) {
+                throw new IllegalArgumentException("Bulk export pairs require both officeId and roleName");
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Resolve the requested parallelism against the configured maximum
+     */
+    public int resolveParallelism(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return maxParallelism;
+        }
+        return Math.min(requested, maxParallelism);
+    }
+
+    /**
+     * Run the export and stream NDJSON records as lookups complete.
+     * <p>
+     * At most {@code parallelism} lookups are outstanding, and a new one is only submitted after a
+     * completed result has been written, so a slow reader throttles the upstream calls. Progress
+     * records carry a checkpoint: every pair with an index below it has been exported successfully,
+     * so passing it back as {@code resumeFrom} continues the export and retries the pairs that
+     * failed (pairs at or above it may be repeated).
+     */
+    public void export(List<ExportPair> pairs, RequestToken requestToken, int parallelism, int resumeFrom,
+                       OutputStream outputStream) throws IOException {
+        int start = Math.max(0, Math.min(resumeFrom, pairs.size()));
+        int total = pairs.size();
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        ExecutorCompletionService<PairResult> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<PairResult>> outstanding = new ArrayList<>();
+        BitSet exported = new BitSet(total);
+        int checkpoint = start;
+        int next = start;
+        int completed = 0;
+        int failed = 0;
+
+        writeProgress(generator, "started", completed, failed, total, checkpoint);
+        try {
+            while (next < total || !outstanding.isEmpty()) {
+                while (next < total && outstanding.size() < parallelism) {
+                    outstanding.add(completionService.submit(lookup(next, pairs.get(next), requestToken)));
+                    next++;
+                }
+
+                Future<PairResult> future = completionService.take();
+                outstanding.remove(future);
+                PairResult result = future.get();
+
+                writeResult(generator, result);
+                completed++;
+                if (result.errorMessage != null) {
+                    // Not exported, so the checkpoint stays at or below it and a resume retries it
+                    failed++;
+                } else {
+                    exported.set(result.index);
+                    checkpoint = exported.nextClearBit(checkpoint);
+                }
+
+                if (progressInterval > 0 && completed % progressInterval == 0) {
+                    writeProgress(generator, "progress", completed, failed, total, checkpoint);
+                    generator.flush();
+                }
+            }
+            writeProgress(generator, "complete", completed, failed, total, checkpoint);
+            generator.close();
+            logger.info("Bulk export finished: {} pairs exported, {} failed", completed, failed);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Bulk export interrupted at checkpoint " + checkpoint, e);
+        } catch (IOException e) {
+            logger.warn("Bulk export aborted at checkpoint {}: {}", checkpoint, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Bulk export failed at checkpoint " + checkpoint, e);
+        } finally {
+            for (Future<PairResult> future : outstanding) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private Callable<PairResult> lookup(int index, ExportPair pair, RequestToken requestToken) {
+        return () -> {
+            try {
+                ListType users = UpstreamCallContext.callWithPriority(UpstreamPriority.BATCH,
+                    () -> soapClientService.findUsersByCriteria(pair.getOfficeId(), pair.getRoleName(), requestToken));
+                return new PairResult(index, pair, users, null);
+            } catch (RuntimeException e) {
+                return new PairResult(index, pair, null, e.getMessage());
+            }
+        };
+    }
+
+    private void writeResult(JsonGenerator generator, PairResult result) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", result.errorMessage == null ? "result" : "error");
+        generator.writeNumberField("index", result.index);
+        generator.writeStringField("officeId", result.pair.getOfficeId());
+        generator.writeStringField("roleName", result.pair.getRoleName());
+        if (result.errorMessage != null) {
+            generator.writeStringField("message", result.errorMessage);
+        } else {
+            generator.writeArrayFieldStart("users");
+            if (result.users != null) {
+                for (String user : result.users.getListValue()) {
+                    generator.writeString(user);
+                }
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeProgress(JsonGenerator generator, String type, int completed, int failed,
+                               int total, int checkpoint) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", type);
+        generator.writeNumberField("completed", completed);
+        generator.writeNumberField("failed", failed);
+        generator.writeNumberField("total", total);
+        generator.writeNumberField("checkpoint", checkpoint);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+}
@@ -0,0 +1,625 @@
+package com.example.service;
+
+import com.example.cache.CacheEntry;
+import com.example.cache.CacheSnapshot;
+import com.example.cache.CachedListType;
+import com.example.cache.CompactStringList;
+import com.example.cache.LookupCache;
+import com.example.cache.SymbolTable;
+import com.example.config.MirrorProperties;
+import com.example.generated.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Local indexed mirror of the authorization directory.
+ * <p>
+ * When enabled, role, office and user lookups are served from in-memory indexes while their
+ * entries are within the staleness bound, and fall back to a live SOAP call (which repopulates the
+ * index) on a miss. Keys in the configured scope are loaded eagerly and re-fetched in small batches
+ * by a scheduled refresh, so upstream load follows the size of the scope rather than traffic.
+ * When disabled every call is passed straight through to {@link AuthorizationSoapClientService}.
+ * <p>
+ * Indexed lists are dictionary-encoded against per-vocabulary symbol tables (roles, offices, users),
+ * so a role name or office ID repeated across many entries is held once. Symbols outlive the
+ * entries that introduced them, so a table is rebuilt from the live entries once most of its
+ * symbols are dead, and after a cache is cleared.
+ * <p>
+ * With a snapshot path configured, the indexes are written to a memory-mapped snapshot
+ * periodically and on shutdown. After a restart, entries are restored from the snapshot on first
+ * access with their original load times, so a restart neither starts cold nor extends staleness.
+ */
+@Service
+public class DirectoryMirrorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryMirrorService.class);
+
+    /** Separator between key components; cannot appear in identifiers sent to the SOAP service */
+    static final char KEY_SEPARATOR = '\u001F';
+
+    /** Separator between the key and value of a search criterion within an identity key */
+    static final char CRITERION_SEPARATOR = '\u001E';
+
+    private final AuthorizationSoapClientService soapClientService;
+    private final SoapRequestBuilderService requestBuilderService;
+    private final MirrorProperties properties;
+
+    private final LookupCache<CompactStringList> userRoles;
+    private final LookupCache<CompactStringList> officesByEauthId;
+    private final LookupCache<CompactStringList> usersByCriteria;
+    private final LookupCache<CompactStringList> userIdentities;
+
+    /** Rebuild a symbol table once at least this share of its symbols is no longer referenced */
+    static final double SYMBOL_REBUILD_DEAD_RATIO = 0.5;
+
+    /** Tables smaller than this are left alone unless a cache was cleared */
+    static final int SYMBOL_REBUILD_MIN_SIZE = 1024;
+
+    private volatile SymbolTable roleSymbols = new SymbolTable("roles");
+    private volatile SymbolTable officeSymbols = new SymbolTable("offices");
+    private volatile SymbolTable userSymbols = new SymbolTable("users");
+
+    private volatile boolean scopeLoaded = false;
+    private volatile CacheSnapshot snapshot;
+
+    @Autowired
+    public DirectoryMirrorService(AuthorizationSoapClientService soapClientService,
+                                  SoapRequestBuilderService requestBuilderService,
+                                  MirrorProperties properties) {
+        this.soapClientService = soapClientService;
+        this.requestBuilderService = requestBuilderService;
+        this.properties = properties;
+        this.userRoles = new LookupCache<>("userRoles", properties.getStalenessMs(), properties.getMaxEntries());
+        this.officesByEauthId = new LookupCache<>("officesByEauthId", properties.getStalenessMs(), properties.getMaxEntries());
+        this.usersByCriteria = new LookupCache<>("usersByCriteria", properties.getStalenessMs(), properties.getMaxEntries());
+        this.userIdentities = new LookupCache<>("userIdentities", properties.getStalenessMs(), properties.getMaxEntries());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Open the previous snapshot, if any. Only offsets are indexed here; entries are decoded lazily.
+     */
+    @PostConstruct
+    public void openSnapshot() {
+        Path path = snapshotPath();
+        if (!isEnabled() || path == null || !Files.exists(path)) {
+            return;
+        }
+        try {
+            snapshot = CacheSnapshot.open(path);
+            logger.info("Opened mirror snapshot {} with {} entries", path, snapshot.remaining());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable mirror snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${authorization.mirror.snapshot.interval-ms:300000}",
+               initialDelayString = "${authorization.mirror.snapshot.interval-ms:300000}")
+    public void writeSnapshot() {
+        Path path = snapshotPath();
+        if (!isEnabled() || path == null) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            Map<String, LookupCache<CompactStringList>> caches = new LinkedHashMap<>();
+            for (LookupCache<CompactStringList> cache : caches()) {
+                caches.put(cache.getName(), cache);
+            }
+            CacheSnapshot.write(path, caches);
+            logger.debug("Wrote mirror snapshot {} in {} ms", path, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write mirror snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        writeSnapshot();
+    }
+
+    /**
+     * Get user roles, from the index when fresh. Index hits echo the requested user identity.
+     */
+    public GetUserRolesResponse getUserRoles(UserIdentity userIdentity) {
+        if (!isEnabled()) {
+            return soapClientService.getUserRoles(userIdentity);
+        }
+
+        String key = rolesKey(userIdentity);
+        CompactStringList roles = userRoles.getFresh(key);
+        if (roles == null) {
+            roles = restore(userRoles, key);
+        }
+        if (roles != null) {
+            GetUserRolesResponse response = new GetUserRolesResponse();
+            response.setUserRoles(toListType(roles));
+            response.setUserIdentity(userIdentity);
+            return response;
+        }
+
+        return load(userRoles, key, false,
+            () -> soapClientService.getUserRoles(userIdentity), GetUserRolesResponse::getUserRoles);
+    }
+
+    /**
+     * Find offices by EAuth ID, from the index when fresh
+     */
+    public ListType findOfficesByEauthId(String usdaEauthId, List<OfficeType> officeTypes, RequestToken requestToken) {
+        if (!isEnabled()) {
+            return soapClientService.findOfficesByEauthId(usdaEauthId, officeTypes, requestToken);
+        }
+
+        String key = officesKey(usdaEauthId, officeTypes);
+        CompactStringList offices = officesByEauthId.getFresh(key);
+        if (offices == null) {
+            offices = restore(officesByEauthId, key);
+        }
+        if (offices != null) {
+            return toListType(offices);
+        }
+        return load(officesByEauthId, key, false,
+            () -> soapClientService.findOfficesByEauthId(usdaEauthId, officeTypes, requestToken), Function.identity());
+    }
+
+    /**
+     * Find users by office and role, from the index when fresh
+     */
+    public ListType findUsersByCriteria(String officeId, String roleName, RequestToken requestToken) {
+        if (!isEnabled()) {
+            return soapClientService.findUsersByCriteria(officeId, roleName, requestToken);
+        }
+
+        String key = usersKey(officeId, roleName);
+        CompactStringList users = usersByCriteria.getFresh(key);
+        if (users == null) {
+            users = restore(usersByCriteria, key);
+        }
+        if (users != null) {
+            return toListType(users);
+        }
+        return load(usersByCriteria, key, false,
+            () -> soapClientService.findUsersByCriteria(officeId, roleName, requestToken), Function.identity());
+    }
+
+    /**
+     * Find the user identity matching the search criteria, from the index when fresh.
+     * Identities are indexed as [authenticationSystemId, authorizationSystemId, loginName];
+     * "no match" is indexed as an empty list so repeated misses are not sent upstream either.
+     */
+    public UserIdentity findMatchingUserIdentity(List<MapEntry> mapEntries) {
+        if (!isEnabled()) {
+            return soapClientService.findMatchingUserIdentity(mapEntries);
+        }
+
+        if (mapEntries == null || mapEntries.isEmpty()) {
+            // Nothing to index it by; the upstream decides what a search without criteria means
+            return soapClientService.findMatchingUserIdentity(mapEntries);
+        }
+
+        String key = identityKey(mapEntries);
+        CompactStringList identity = userIdentities.getFresh(key);
+        if (identity == null) {
+            identity = restore(userIdentities, key);
+        }
+        if (identity != null) {
+            return toUserIdentity(identity);
+        }
+        return load(userIdentities, key, false,
+            () -> soapClientService.findMatchingUserIdentity(mapEntries), DirectoryMirrorService::identityValues);
+    }
+
+    /**
+     * Evict everything cached about a user: their roles, the office/role user lists that
+     * currently contain them, and identity lookups that resolved to them.
+     * Returns the number of entries removed per cache.
+     */
+    public Map<String, Integer> invalidateUser(String loginName) {
+        Map<String, Integer> removed = new LinkedHashMap<>();
+        removed.put(userRoles.getName(), invalidate(userRoles, key -> loginName.equals(splitKey(key)[2]),
+            (key, roles) -> loginName.equals(splitKey(key)[2])));
+        removed.put(usersByCriteria.getName(), invalidate(usersByCriteria, key -> true,
+            (key, users) -> users.containsSymbol(loginName)));
+        removed.put(userIdentities.getName(), invalidate(userIdentities, key -> true,
+            (key, identity) -> identity.size() == 3 && loginName.equals(identity.get(2))));
+        return removed;
+    }
+
+    /**
+     * Evict the office lists cached for an EAuth ID, for every combination of office types
+     */
+    public Map<String, Integer> invalidateEauthId(String usdaEauthId) {
+        Predicate<String> matches = key -> usdaEauthId.equals(splitKey(key)[0]);
+        return Map.of(officesByEauthId.getName(), invalidate(officesByEauthId, matches, (key, offices) -> matches.test(key)));
+    }
+
+    /**
+     * Evict the user lists cached for an office, for every role
+     */
+    public Map<String, Integer> invalidateOffice(String officeId) {
+        Predicate<String> matches = key -> officeId.equals(splitKey(key)[0]);
+        return Map.of(usersByCriteria.getName(), invalidate(usersByCriteria, matches, (key, users) -> matches.test(key)));
+    }
+
+    /**
+     * Evict every entry of the named cache, or of all caches when the name is null
+     */
+    public Map<String, Integer> invalidateAll(String cacheName) {
+        Map<String, Integer> removed = new LinkedHashMap<>();
+        for (LookupCache<CompactStringList> cache : caches()) {
+            if (cacheName == null || cache.getName().equals(cacheName)) {
+                removed.put(cache.getName(), invalidate(cache, key -> true, (key, values) -> true));
+            }
+        }
+        compactSymbolTables(true);
+        return removed;
+    }
+
+    /**
+     * Look up a cache by name, or null if there is no such cache
+     */
+    public LookupCache<CompactStringList> cache(String cacheName) {
+        for (LookupCache<CompactStringList> cache : caches()) {
+            if (cache.getName().equals(cacheName)) {
+                return cache;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remove matching entries from the cache, and drop snapshot entries matching the key predicate
+     * so an invalidated key cannot be restored afterwards. Snapshot entries are matched on key only.
+     */
+    private int invalidate(LookupCache<CompactStringList> cache, Predicate<String> snapshotKeys,
+                           BiPredicate<String, CompactStringList> entries) {
+        CacheSnapshot current = snapshot;
+        if (current != null) {
+            current.discard(cache.getName(), snapshotKeys);
+        }
+        return cache.invalidateIf(entries);
+    }
+
+    /**
+     * Populate the configured scope on the first run, then re-fetch the stalest scope entries
+     * and drop read-through entries that have long passed the staleness bound.
+     * Upstream calls made by the refresh use background priority.
+     */
+    @Scheduled(fixedDelayString = "${authorization.mirror.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!isEnabled()) {
+            return;
+        }
+        UpstreamCallContext.runWithPriority(UpstreamPriority.BACKGROUND, this::refreshEntries);
+    }
+
+    private void refreshEntries() {
+        if (!scopeLoaded) {
+            loadScope();
+            scopeLoaded = true;
+            return;
+        }
+
+        int refreshed = 0;
+        int changed = 0;
+        for (LookupCache<CompactStringList> cache : caches()) {
+            for (String key : cache.keysOlderThan(properties.getRefreshAfterMs(), true, properties.getRefreshBatchSize())) {
+                CacheEntry<CompactStringList> previous = cache.getEntry(key);
+                try {
+                    reload(cache, key, true);
+                    refreshed++;
+                    CacheEntry<CompactStringList> current = cache.getEntry(key);
+                    if (previous == null || current == null || !previous.getValue().equals(current.getValue())) {
+                        changed++;
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Mirror refresh failed for {} entry: {}", cache.getName(), e.getMessage());
+                }
+            }
+            cache.evictExpired(properties.getStalenessMs());
+        }
+        compactSymbolTables(false);
+        if (refreshed > 0) {
+            logger.debug("Mirror refresh re-fetched {} entries, {} changed", refreshed, changed);
+        }
+    }
+
+    /**
+     * Load every key in the configured scope that is not already fresh or restorable from the snapshot
+     */
+    void loadScope() {
+        MirrorProperties.Scope scope = properties.getScope();
+        RequestToken token = mirrorToken();
+        List<Boolean> outcomes = new ArrayList<>();
+
+        for (String officeId : scope.getOfficeIds()) {
+            for (String roleName : scope.getRoleNames()) {
+                outcomes.add(loadPinned(usersByCriteria, usersKey(officeId, roleName),
+                    () -> soapClientService.findUsersByCriteria(officeId, roleName, token)));
+            }
+        }
+
+        if (!scope.getEauthIds().isEmpty()) {
+            List<OfficeType> officeTypes = requestBuilderService.createOfficeTypes(scope.getOfficeTypes().toArray(new String[0]));
+            for (String eauthId : scope.getEauthIds()) {
+                outcomes.add(loadPinned(officesByEauthId, officesKey(eauthId, officeTypes),
+                    () -> soapClientService.findOfficesByEauthId(eauthId, officeTypes, token)));
+            }
+        }
+
+        for (String user : scope.getUsers()) {
+            String[] parts = user.split(":", 3);
+            if (parts.length != 3) {
+                logger.warn("Ignoring mirror scope user '{}': expected authenticationSystemId:authorizationSystemId:loginName", user);
+                continue;
+            }
+            UserIdentity identity = requestBuilderService.createUserIdentity(parts[0], parts[1], parts[2]);
+            outcomes.add(loadPinned(userRoles, rolesKey(identity),
+                () -> soapClientService.getUserRoles(identity).getUserRoles()));
+        }
+
+        long failed = outcomes.stream().filter(success -> !success).count();
+        logger.info("Mirror scope loaded: {} entries, {} failed", outcomes.size() - failed, failed);
+    }
+
+    private boolean loadPinned(LookupCache<CompactStringList> cache, String key, Supplier<ListType> lookup) {
+        if (cache.isFresh(key) || restore(cache, key) != null) {
+            cache.pin(key);
+            return true;
+        }
+        try {
+            load(cache, key, true, lookup, Function.identity());
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Mirror load failed for {} entry: {}", cache.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Re-fetch an entry using the components encoded in its key. The scope refresh pins what it
+     * reloads; a refresh ahead of expiry keeps the entry's pin as it was, so a read-through entry
+     * still expires once its traffic stops.
+     */
+    void reload(LookupCache<CompactStringList> cache, String key, boolean pin) {
+        String[] parts = splitKey(key);
+        if (cache == userRoles) {
+            UserIdentity identity = requestBuilderService.createUserIdentity(parts[0], parts[1], parts[2]);
+            load(cache, key, pin, () -> soapClientService.getUserRoles(identity), GetUserRolesResponse::getUserRoles);
+        } else if (cache == userIdentities) {
+            List<MapEntry> mapEntries = identityCriteria(parts);
+            if (mapEntries.isEmpty()) {
+                // Not a key identityKey produces for a search worth caching (one from an older snapshot)
+                cache.invalidate(key);
+                return;
+            }
+            load(cache, key, pin, () -> soapClientService.findMatchingUserIdentity(mapEntries), DirectoryMirrorService::identityValues);
+        } else if (cache == officesByEauthId) {
+            List<OfficeType> officeTypes = new ArrayList<>();
+            for (String officeType : parts[1].split(",")) {
+                officeTypes.add(OfficeType.fromValue(officeType));
+            }
+            load(cache, key, pin,
+                () -> soapClientService.findOfficesByEauthId(parts[0], officeTypes, mirrorToken()), Function.identity());
+        } else {
+            load(cache, key, pin,
+                () -> soapClientService.findUsersByCriteria(parts[0], parts[1], mirrorToken()), Function.identity());
+        }
+    }
+
+    /**
+     * Perform a live lookup and index the list it returns
+     */
+    private <T> T load(LookupCache<CompactStringList> cache, String key, boolean pinned,
+                       Supplier<T> lookup, Function<T, ListType> values) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = lookup.get();
+            ListType listType = values.apply(result);
+            List<String> listValues = listType != null ? listType.getListValue() : List.of();
+            cache.put(key, symbolsFor(cache).encodeAll(listValues), pinned);
+            success = true;
+            return result;
+        } finally {
+            cache.recordLoad(System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Restore an entry from the startup snapshot if it is still within the staleness bound
+     */
+    private CompactStringList restore(LookupCache<CompactStringList> cache, String key) {
+        CacheSnapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        CacheSnapshot.RestoredEntry entry = current.take(cache.getName(), key);
+        if (current.remaining() == 0) {
+            // Drop the mapping once every entry has been taken
+            snapshot = null;
+        }
+        if (entry == null) {
+            return null;
+        }
+        CompactStringList values = symbolsFor(cache).encodeAll(entry.getValues());
+        return cache.restore(key, values, entry.getLoadedAtMillis(), entry.isPinned()) ? values : null;
+    }
+
+    private Path snapshotPath() {
+        String path = properties.getSnapshot().getPath();
+        return path == null || path.isBlank() ? null : Path.of(path);
+    }
+
+    private RequestToken mirrorToken() {
+        return requestBuilderService.createRequestToken(properties.getApplicationId(), properties.getRequestHost());
+    }
+
+    /**
+     * Replace symbol tables with many dead symbols (their entries evicted, invalidated or re-fetched
+     * with other values) by tables encoded from the live entries; with {@code force}, any table with
+     * a dead symbol. Entries are re-encoded one at a time and every list keeps a reference to the
+     * table it was encoded against, so readers never see a mix. Returns the symbols reclaimed.
+     */
+    synchronized int compactSymbolTables(boolean force) {
+        int reclaimed = compact(roleSymbols, List.of(userRoles), force, table -> roleSymbols = table);
+        reclaimed += compact(officeSymbols, List.of(officesByEauthId), force, table -> officeSymbols = table);
+        reclaimed += compact(userSymbols, List.of(usersByCriteria, userIdentities), force, table -> userSymbols = table);
+        return reclaimed;
+    }
+
+    private int compact(SymbolTable table, List<LookupCache<CompactStringList>> caches, boolean force,
+                        Consumer<SymbolTable> install) {
+        List<CompactStringList> lists = new ArrayList<>();
+        for (LookupCache<CompactStringList> cache : caches) {
+            cache.forEachEntry((key, entry) -> lists.add(entry.getValue()));
+        }
+        int size = table.size();
+        int dead = size - table.liveCodes(lists).cardinality();
+        if (dead == 0 || !force && (size < SYMBOL_REBUILD_MIN_SIZE || dead < size * SYMBOL_REBUILD_DEAD_RATIO)) {
+            return 0;
+        }
+
+        // Loads from here on encode against the new table; entries still on the old one are moved over
+        SymbolTable rebuilt = new SymbolTable(table.getName());
+        install.accept(rebuilt);
+        for (LookupCache<CompactStringList> cache : caches) {
+            cache.forEachEntry((key, entry) -> {
+                if (entry.getValue().getTable() == table) {
+                    cache.replaceValue(key, entry, rebuilt.encodeAll(entry.getValue()));
+                }
+            });
+        }
+        logger.debug("Rebuilt {} symbol table: {} of {} symbols were no longer referenced", table.getName(), dead, size);
+        return dead;
+    }
+
+    private SymbolTable symbolsFor(LookupCache<CompactStringList> cache) {
+        if (cache == userRoles) {
+            return roleSymbols;
+        }
+        if (cache == userIdentities) {
+            return userSymbols;
+        }
+        return cache == officesByEauthId ? officeSymbols : userSymbols;
+    }
+
+    private static ListType toListType(CompactStringList values) {
+        return new CachedListType(values);
+    }
+
+    private static ListType identityValues(UserIdentity userIdentity) {
+        ListType values = new ListType();
+        if (userIdentity != null) {
+            values.getListValue().add(nullToEmpty(userIdentity.getAuthenticationSystemIdentifier()));
+            values.getListValue().add(nullToEmpty(userIdentity.getAuthorizationSystemIdentifier()));
+            values.getListValue().add(nullToEmpty(userIdentity.getUserLoginName()));
+        }
+        return values;
+    }
+
+    private static UserIdentity toUserIdentity(CompactStringList values) {
+        if (values.size() != 3) {
+            return null;
+        }
+        UserIdentity userIdentity = new UserIdentity();
+        userIdentity.setAuthenticationSystemIdentifier(values.get(0));
+        userIdentity.setAuthorizationSystemIdentifier(values.get(1));
+        userIdentity.setUserLoginName(values.get(2));
+        return userIdentity;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    public List<LookupCache<CompactStringList>> caches() {
+        return List.of(userRoles, officesByEauthId, usersByCriteria, userIdentities);
+    }
+
+    public List<SymbolTable> symbolTables() {
+        return List.of(roleSymbols, officeSymbols, userSymbols);
+    }
+
+    static String rolesKey(UserIdentity userIdentity) {
+        return joinKey(userIdentity.getAuthenticationSystemIdentifier(),
+            userIdentity.getAuthorizationSystemIdentifier(),
+            userIdentity.getUserLoginName());
+    }
+
+    static String officesKey(String usdaEauthId, List<OfficeType> officeTypes) {
+        List<String> types = new ArrayList<>();
+        for (OfficeType officeType : officeTypes) {
+            types.add(officeType.value());
+        }
+        types.sort(null);
+        return joinKey(usdaEauthId, String.join(",", types));
+    }
+
+    /**
+     * Search criteria in key order, so the same criteria in a different order share an entry
+     */
+    static String identityKey(List<MapEntry> mapEntries) {
+        List<String> criteria = new ArrayList<>();
+        for (MapEntry mapEntry : mapEntries) {
+            criteria.add(nullToEmpty(mapEntry.getKey()) + CRITERION_SEPARATOR + nullToEmpty(mapEntry.getValue()));
+        }
+        criteria.sort(null);
+        return joinKey(criteria.toArray(new String[0]));
+    }
+
+    /**
+     * The search criteria encoded in an identity key; parts without a key/value separator are skipped
+     */
+    static List<MapEntry> identityCriteria(String[] parts) {
+        List<MapEntry> mapEntries = new ArrayList<>();
+        for (String criterion : parts) {
+            int separator = criterion.indexOf(CRITERION_SEPARATOR);
+            if (separator < 0) {
+                continue;
+            }
+            mapEntries.add(new MapEntry().withKey(criterion.substring(0, separator)).withValue(criterion.substring(separator + 1)));
+        }
+        return mapEntries;
+    }
+
+    static String usersKey(String officeId, String roleName) {
+        return joinKey(officeId, roleName);
+    }
+
+    static String joinKey(String... parts) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                key.append(KEY_SEPARATOR);
+            }
+            key.append(parts[i] != null ? parts[i] : "");
+        }
+        return key.toString();
+    }
+
+    static String[] splitKey(String key) {
+        return key.split(String.valueOf(KEY_SEPARATOR), -1);
+    }
+}
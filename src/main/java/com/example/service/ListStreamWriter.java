@@ -0,0 +1,100 @@
+package com.example.service;
+
+import com.example.generated.ListType;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+@Service
+public class ListStreamWriter {
+
+    /** Number of values written between explicit flushes to the client */
+    private static final int FLUSH_INTERVAL = 256;
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ListStreamWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Output formats supported by the streaming endpoints
+     */
+    public enum Format {
+        NDJSON,
+        ARRAY;
+
+        public static Format fromValue(String value) {
+            if (value == null || value.isBlank() || "ndjson".equalsIgnoreCase(value)) {
+                return NDJSON;
+            }
+            if ("array".equalsIgnoreCase(value)) {
+                return ARRAY;
+            }
+            throw new IllegalArgumentException("Invalid stream format: " + value + ". Valid values are: ndjson, array");
+        }
+    }
+
+    /**
+     * Open a generator over the response stream and flush immediately, so the response
+     * is committed before the upstream call starts
+     */
+    public JsonGenerator open(OutputStream outputStream, Format format) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        if (format == Format.NDJSON) {
+            generator.setRootValueSeparator(null);
+        } else {
+            generator.writeStartArray();
+        }
+        generator.flush();
+        return generator;
+    }
+
+    /**
+     * Write the values of a ListType one at a time without copying the underlying list
+     */
+    public int writeValues(JsonGenerator generator, Format format, ListType listType) throws IOException {
+        if (listType == null || listType.getListValue() == null) {
+            return 0;
+        }
+        List<String> values = listType.getListValue();
+        int written = 0;
+        for (String value : values) {
+            generator.writeString(value);
+            if (format == Format.NDJSON) {
+                generator.writeRaw('\n');
+            }
+            if (++written % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Terminate the stream. After a failure NDJSON streams get a trailing error record and
+     * arrays are left unterminated, so clients never mistake a partial result for a complete one.
+     */
+    public void close(JsonGenerator generator, Format format, String errorMessage) throws IOException {
+        if (format == Format.ARRAY) {
+            if (errorMessage == null) {
+                generator.writeEndArray();
+            }
+        } else if (errorMessage != null) {
+            generator.writeStartObject();
+            generator.writeStringField("error", errorMessage);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.service;
+
+import com.example.config.RateLimitProperties;
+import com.example.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-application rate limiting for the REST API.
+ * <p>
+ * Each applicationId gets a token bucket for all of its requests, plus one bucket per endpoint
+ * that has its own configured limit. A request takes a token from both or from neither: one the
+ * endpoint bucket gave is returned when the application bucket rejects the request. Admitted and
+ * rejected requests are counted per application and endpoint in the
+ * authorization.rate-limit.requests metric.
+ */
+@Service
+public class RateLimitService {
+
+    /** Bucket shared by applicationIds beyond max-applications, to bound memory and metric tags */
+    static final String OVERFLOW_APPLICATION = "_other";
+    static final String ANONYMOUS_APPLICATION = "_anonymous";
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, ApplicationLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateLimitService(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Buckets and metric counters for one application
+     */
+    private class ApplicationLimiter {
+        private final String applicationId;
+        private final TokenBucket bucket;
+        private final ConcurrentHashMap<String, TokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Counter[]> counters = new ConcurrentHashMap<>();
+
+        ApplicationLimiter(String applicationId) {
+            this.applicationId = applicationId;
+            RateLimitProperties.Limit limit = properties.getApplications().getOrDefault(applicationId, properties.getDefaultLimit());
+            this.bucket = new TokenBucket(limit.getRatePerSecond(), limit.getBurst());
+        }
+
+        TokenBucket endpointBucket(String endpoint) {
+            RateLimitProperties.Limit limit = properties.getEndpoints().get(endpoint);
+            if (limit == null) {
+                return null;
+            }
+            return endpointBuckets.computeIfAbsent(endpoint, key -> new TokenBucket(limit.getRatePerSecond(), limit.getBurst()));
+        }
+
+        /** [admitted, rejected] counters for an endpoint */
+        Counter[] counters(String endpoint) {
+            return counters.computeIfAbsent(endpoint, key -> new Counter[] {
+                counter(endpoint, "admitted"), counter(endpoint, "rejected")
+            });
+        }
+
+        private Counter counter(String endpoint, String outcome) {
+            return Counter.builder("authorization.rate-limit.requests")
+                .description("REST requests checked against per-application rate limits")
+                .tag("application", applicationId)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Take a token for the application on the given endpoint, or throw
+     * {@link RateLimitExceededException} with the time until one is available
+     */
+    public void acquire(String applicationId, String endpoint) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        ApplicationLimiter limiter = limiter(applicationId);
+        Counter[] counters = limiter.counters(endpoint);
+
+        TokenBucket endpointBucket = limiter.endpointBucket(endpoint);
+        long now = System.nanoTime();
+        long waitNanos = endpointBucket != null ? endpointBucket.tryAcquire(now) : 0;
+        if (waitNanos == 0) {
+            waitNanos = limiter.bucket.tryAcquire(now);
+            if (waitNanos > 0 && endpointBucket != null) {
+                endpointBucket.release();
+            }
+        }
+
+        if (waitNanos > 0) {
+            counters[1].increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            throw new RateLimitExceededException("Rate limit exceeded for application " + limiter.applicationId
+                + " on " + endpoint, retryAfterSeconds);
+        }
+        counters[0].increment();
+    }
+
+    private ApplicationLimiter limiter(String applicationId) {
+        String key = applicationId == null || applicationId.isBlank() ? ANONYMOUS_APPLICATION : applicationId.trim();
+        ApplicationLimiter limiter = limiters.get(key);
+        if (limiter != null) {
+            return limiter;
+        }
+        if (limiters.size() >= properties.getMaxApplications()) {
+            key = OVERFLOW_APPLICATION;
+        }
+        return limiters.computeIfAbsent(key, ApplicationLimiter::new);
+    }
+}
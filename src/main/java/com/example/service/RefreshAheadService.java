@@ -0,0 +1,142 @@
+package com.example.service;
+
+import com.example.cache.CompactStringList;
+import com.example.cache.LookupCache;
+import com.example.config.MirrorProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Refresh-ahead for the directory mirror.
+ * <p>
+ * Reads that hit the mirror indexes are counted per entry. A periodic scan picks the most
+ * frequently read entries that are about to pass the staleness bound and re-fetches them on a
+ * small dedicated pool, so popular keys are replaced before they expire and no request pays for
+ * the miss. Refresh calls are paced to a fixed rate and queued work is bounded, so the scheduler
+ * cannot crowd out live traffic; keys it does not get to simply expire as before.
+ */
+@Service
+public class RefreshAheadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshAheadService.class);
+
+    private final DirectoryMirrorService directoryMirrorService;
+    private final MirrorProperties.RefreshAhead properties;
+    private final ThreadPoolExecutor executor;
+
+    /** Keys queued or being refreshed, so a slow refresh is not queued twice */
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /** Earliest time the next refresh call may start; each call advances it by one pacing interval */
+    private final AtomicLong nextCallNanos = new AtomicLong(System.nanoTime());
+    private final long pacingNanos;
+
+    private final AtomicLong refreshed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @Autowired
+    public RefreshAheadService(DirectoryMirrorService directoryMirrorService, MirrorProperties mirrorProperties) {
+        this.directoryMirrorService = directoryMirrorService;
+        this.properties = mirrorProperties.getRefreshAhead();
+        this.pacingNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, properties.getMaxRatePerSecond());
+
+        int threads = Math.max(1, properties.getMaxConcurrency());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(Math.max(1, properties.getMaxKeysPerRun())),
+            runnable -> {
+                Thread thread = new Thread(runnable, "mirror-refresh-ahead-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue the hottest entries that are close to expiry in each mirror index
+     */
+    @Scheduled(fixedDelayString = "${authorization.mirror.refresh-ahead.interval-ms:5000}")
+    public void scan() {
+        if (!directoryMirrorService.isEnabled() || !properties.isEnabled()) {
+            return;
+        }
+
+        int queued = 0;
+        for (LookupCache<CompactStringList> cache : directoryMirrorService.caches()) {
+            for (String key : cache.hotKeysExpiringWithin(properties.getWindowMs(), properties.getMinAccesses(),
+                                                          properties.getMaxKeysPerRun())) {
+                if (submit(cache, key)) {
+                    queued++;
+                }
+            }
+        }
+        if (queued > 0) {
+            logger.debug("Refresh-ahead queued {} hot entries", queued);
+        }
+    }
+
+    private boolean submit(LookupCache<CompactStringList> cache, String key) {
+        String inFlightKey = cache.getName() + DirectoryMirrorService.KEY_SEPARATOR + key;
+        if (!inFlight.add(inFlightKey)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    awaitPermit();
+                    // The entry may have been refreshed by a read or the scope refresh in the meantime
+                    if (cache.isExpiringWithin(key, properties.getWindowMs())) {
+                        UpstreamCallContext.runWithPriority(UpstreamPriority.BACKGROUND,
+                            () -> directoryMirrorService.reload(cache, key, false));
+                        refreshed.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    logger.warn("Refresh-ahead failed for {} entry: {}", cache.getName(), e.getMessage());
+                } finally {
+                    inFlight.remove(inFlightKey);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Queue full: leave the key to expire normally rather than build a backlog
+            inFlight.remove(inFlightKey);
+            return false;
+        }
+    }
+
+    /**
+     * Block the refresh thread until its paced slot, spacing calls evenly at the configured rate
+     */
+    private void awaitPermit() {
+        long now = System.nanoTime();
+        long slot = nextCallNanos.getAndUpdate(next -> Math.max(next, now) + pacingNanos);
+        long wait = Math.max(slot, now) - now;
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    public long getRefreshed() { return refreshed.get(); }
+    public long getFailed() { return failed.get(); }
+    public int getQueued() { return executor.getQueue().size(); }
+}
@@ -4,6 +4,7 @@ import com.example.generated.*;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -77,6 +78,16 @@ public class SoapRequestBuilderService {
         return new ArrayList<>(listType.getListValue());
     }
     
+    /**
+     * Read-only view of the values of a ListType, without copying them; empty for a missing list
+     */
+    public List<String> listValues(ListType listType) {
+        if (listType == null || listType.getListValue() == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(listType.getListValue());
+    }
+    
     /**
      * Create FindMatchingUserIdentityRequest
      */
@@ -0,0 +1,58 @@
+package com.example.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as a generic cell rate algorithm (GCRA).
+ * <p>
+ * Instead of a token count and a refill timer, the bucket keeps a single "theoretical arrival
+ * time": the instant the bucket would be full again if no more requests arrived. Each admitted
+ * request pushes it one emission interval further; a request is rejected if that would put it
+ * more than {@code burst} intervals ahead of now. The whole state is one AtomicLong updated by
+ * compare-and-set, so concurrent callers never block each other.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate limit requires a positive rate and burst");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.theoreticalArrivalNanos = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    /**
+     * Try to take one token. Returns 0 when admitted, otherwise the nanoseconds to wait
+     * before a token will be available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalNanos.get();
+            long start = current == Long.MIN_VALUE || current - nowNanos < 0 ? nowNanos : current;
+            long next = start + emissionIntervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstToleranceNanos) {
+                return ahead - burstToleranceNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire}, for a request another limit then rejected
+     */
+    public void release() {
+        theoreticalArrivalNanos.addAndGet(-emissionIntervalNanos);
+    }
+}
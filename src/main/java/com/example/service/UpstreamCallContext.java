@@ -0,0 +1,146 @@
+package com.example.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound context for upstream SOAP calls: the caller's priority class, the deadline by
+ * which the caller needs an answer, and the operation currently being sent.
+ * Calls made without a priority are interactive; calls without a deadline are bounded only by
+ * their operation timeouts.
+ */
+public final class UpstreamCallContext {
+
+    /** Deadline value meaning "no deadline" */
+    public static final long NO_DEADLINE = Long.MIN_VALUE;
+
+    private static final ThreadLocal<UpstreamPriority> PRIORITY = new ThreadLocal<>();
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+    private static final ThreadLocal<String> OPERATION = new ThreadLocal<>();
+
+    private UpstreamCallContext() {}
+
+    public static UpstreamPriority currentPriority() {
+        UpstreamPriority priority = PRIORITY.get();
+        return priority != null ? priority : UpstreamPriority.INTERACTIVE;
+    }
+
+    public static void setPriority(UpstreamPriority priority) {
+        PRIORITY.set(priority);
+    }
+
+    /**
+     * Set the deadline as a System.nanoTime() value, or NO_DEADLINE
+     */
+    public static void setDeadline(long deadlineNanos) {
+        if (deadlineNanos == NO_DEADLINE) {
+            DEADLINE.remove();
+        } else {
+            DEADLINE.set(deadlineNanos);
+        }
+    }
+
+    public static long currentDeadline() {
+        Long deadline = DEADLINE.get();
+        return deadline != null ? deadline : NO_DEADLINE;
+    }
+
+    /**
+     * Nanoseconds left before the deadline (negative once it has passed), or Long.MAX_VALUE without one
+     */
+    public static long remainingNanos() {
+        Long deadline = DEADLINE.get();
+        return deadline != null ? deadline - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    public static String currentOperation() {
+        return OPERATION.get();
+    }
+
+    static void setOperation(String operation) {
+        if (operation == null) {
+            OPERATION.remove();
+        } else {
+            OPERATION.set(operation);
+        }
+    }
+
+    public static void clear() {
+        PRIORITY.remove();
+        DEADLINE.remove();
+        OPERATION.remove();
+    }
+
+    /**
+     * Capture the priority and deadline of the current thread, to continue on another thread
+     */
+    public static Snapshot capture() {
+        return new Snapshot(currentPriority(), currentDeadline());
+    }
+
+    /**
+     * Capture the priority of the current thread, with its deadline brought forward to at most
+     * {@code timeoutNanos} from now
+     */
+    public static Snapshot captureWithin(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        long current = currentDeadline();
+        if (current != NO_DEADLINE && current - deadline < 0) {
+            deadline = current;
+        }
+        return new Snapshot(currentPriority(), deadline);
+    }
+
+    /**
+     * Priority and deadline carried across a thread hop
+     */
+    public static final class Snapshot {
+        private final UpstreamPriority priority;
+        private final long deadlineNanos;
+
+        private Snapshot(UpstreamPriority priority, long deadlineNanos) {
+            this.priority = priority;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Nanoseconds left before this context's deadline, or Long.MAX_VALUE without one
+         */
+        public long remainingNanos() {
+            return deadlineNanos != NO_DEADLINE ? deadlineNanos - System.nanoTime() : Long.MAX_VALUE;
+        }
+
+        /**
+         * Run the supplier under this context, restoring the thread's previous context afterwards
+         */
+        public <T> T call(Supplier<T> call) {
+            UpstreamPriority previousPriority = PRIORITY.get();
+            Long previousDeadline = DEADLINE.get();
+            PRIORITY.set(priority);
+            setDeadline(deadlineNanos);
+            try {
+                return call.get();
+            } finally {
+                if (previousPriority != null) {
+                    PRIORITY.set(previousPriority);
+                } else {
+                    PRIORITY.remove();
+                }
+                setDeadline(previousDeadline != null ? previousDeadline : NO_DEADLINE);
+            }
+        }
+    }
+
+    /**
+     * Run the supplier with the given priority and no deadline, restoring the previous context afterwards
+     */
+    public static <T> T callWithPriority(UpstreamPriority priority, Supplier<T> call) {
+        return new Snapshot(priority, NO_DEADLINE).call(call);
+    }
+
+    public static void runWithPriority(UpstreamPriority priority, Runnable task) {
+        callWithPriority(priority, () -> {
+            task.run();
+            return null;
+        });
+    }
+}
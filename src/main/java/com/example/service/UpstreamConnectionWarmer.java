@@ -0,0 +1,138 @@
+package com.example.service;
+
+import com.example.config.UpstreamAddressCache;
+import com.example.config.UpstreamProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps connections to the SOAP service open ahead of traffic.
+ * <p>
+ * HttpURLConnection connects lazily, so without this the first calls after startup, and after
+ * any idle spell long enough for the JDK to drop its keep-alive connections, pay DNS resolution
+ * and the TCP connect on top of the call. Each round sends {@code connections} isHealthy pings
+ * at once, so that many connections are opened, checked, and returned to the keep-alive cache
+ * for the next requests to reuse. The first round runs before the application reports ready;
+ * later rounds repeat every {@code interval-ms} as background-priority calls. The reactive
+ * profile has its own connection pool and does not use this.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class UpstreamConnectionWarmer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamConnectionWarmer.class);
+
+    private final AuthorizationSoapClientService soapClientService;
+    private final UpstreamAddressCache addressCache;
+    private final UpstreamProperties.Prewarm properties;
+    private final ExecutorService executor;
+    private final Counter healthy;
+    private final Counter unhealthy;
+
+    @Autowired
+    public UpstreamConnectionWarmer(AuthorizationSoapClientService soapClientService,
+                                    UpstreamAddressCache addressCache,
+                                    UpstreamProperties upstreamProperties,
+                                    MeterRegistry meterRegistry) {
+        this.soapClientService = soapClientService;
+        this.addressCache = addressCache;
+        this.properties = upstreamProperties.getPrewarm();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getConnections()), runnable -> {
+            Thread thread = new Thread(runnable, "soap-prewarm-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.healthy = Counter.builder("authorization.upstream.prewarm.pings")
+            .tag("outcome", "healthy").register(meterRegistry);
+        this.unhealthy = Counter.builder("authorization.upstream.prewarm.pings")
+            .tag("outcome", "unhealthy").register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled() || properties.getConnections() <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        addressCache.refresh();
+        int warmed = warm();
+        if (warmed == properties.getConnections()) {
+            logger.info("Pre-warmed {} connections to {} in {} ms", warmed, addressCache.getHost(),
+                (System.nanoTime() - start) / 1_000_000);
+        } else {
+            // Not fatal: the next round, or the first requests, connect again
+            logger.warn("Pre-warmed only {} of {} connections to {}", warmed, properties.getConnections(),
+                addressCache.getHost());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${soap.upstream.prewarm.interval-ms:4000}",
+               fixedDelayString = "${soap.upstream.prewarm.interval-ms:4000}")
+    public void rewarm() {
+        if (properties.isEnabled() && properties.getConnections() > 0) {
+            int warmed = warm();
+            logger.debug("Pre-warm round: {} of {} pings healthy", warmed, properties.getConnections());
+        }
+    }
+
+    /**
+     * Send one ping per connection, released together so they overlap and each needs its own
+     * connection; returns how many reported healthy
+     */
+    int warm() {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> pings = new ArrayList<>(properties.getConnections());
+        for (int i = 0; i < properties.getConnections(); i++) {
+            pings.add(executor.submit(() -> {
+                go.await();
+                return UpstreamCallContext.callWithPriority(UpstreamPriority.BACKGROUND, soapClientService::isHealthy);
+            }));
+        }
+        go.countDown();
+
+        int warmed = 0;
+        for (Future<Boolean> ping : pings) {
+            try {
+                if (ping.get()) {
+                    warmed++;
+                    healthy.increment();
+                } else {
+                    unhealthy.increment();
+                }
+            } catch (ExecutionException e) {
+                unhealthy.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return warmed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
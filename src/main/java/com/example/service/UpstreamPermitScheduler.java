@@ -0,0 +1,212 @@
+package com.example.service;
+
+import com.example.config.UpstreamProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out upstream SOAP call permits by priority class.
+ * <p>
+ * At most {@code maxConcurrent} calls are in flight. Batch and background calls together can never
+ * hold more than {@code maxConcurrent - interactiveReserve} permits, so interactive calls always have
+ * capacity of their own. When calls of several classes are waiting, each freed permit goes to the
+ * class chosen by smooth weighted round-robin, so under contention the classes share permits in
+ * proportion to their weights and a lower class is slowed down but never starved.
+ */
+@Service
+public class UpstreamPermitScheduler {
+
+    private static final UpstreamPriority[] PRIORITIES = UpstreamPriority.values();
+
+    private final int maxConcurrent;
+    private final int lowerClassLimit;
+    private final long acquireTimeoutNanos;
+    private final int[] weights = new int[PRIORITIES.length];
+
+    private final ReentrantLock lock = new ReentrantLock();
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final ArrayDeque<Waiter>[] queues = new ArrayDeque[PRIORITIES.length];
+    private final int[] inUse = new int[PRIORITIES.length];
+    /** Smooth weighted round-robin state */
+    private final int[] currentWeights = new int[PRIORITIES.length];
+    private int totalInUse;
+    private int lowerClassInUse;
+
+    private final Counter[] timeouts = new Counter[PRIORITIES.length];
+
+    /**
+     * A call waiting for a permit; granted is set under the lock before signalling
+     */
+    private static class Waiter {
+        private final Condition condition;
+        private boolean granted;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+
+    @Autowired
+    public UpstreamPermitScheduler(UpstreamProperties properties, MeterRegistry meterRegistry) {
+        this.maxConcurrent = Math.max(1, properties.getMaxConcurrent());
+        int reserve = Math.max(0, Math.min(properties.getInteractiveReserve(), maxConcurrent - 1));
+        this.lowerClassLimit = maxConcurrent - reserve;
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getAcquireTimeoutMs());
+
+        weights[UpstreamPriority.INTERACTIVE.ordinal()] = Math.max(1, properties.getInteractiveWeight());
+        weights[UpstreamPriority.BATCH.ordinal()] = Math.max(1, properties.getBatchWeight());
+        weights[UpstreamPriority.BACKGROUND.ordinal()] = Math.max(1, properties.getBackgroundWeight());
+
+        for (UpstreamPriority priority : PRIORITIES) {
+            int index = priority.ordinal();
+            queues[index] = new ArrayDeque<>();
+            String tag = priority.name().toLowerCase();
+            Gauge.builder("authorization.upstream.permits.in-use", this, scheduler -> scheduler.inUse(priority))
+                .tag("priority", tag).register(meterRegistry);
+            Gauge.builder("authorization.upstream.permits.waiting", this, scheduler -> scheduler.waiting(priority))
+                .tag("priority", tag).register(meterRegistry);
+            timeouts[index] = Counter.builder("authorization.upstream.permits.timeouts")
+                .tag("priority", tag).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Acquire a permit for the given class, waiting at most the configured acquire timeout
+     * and never past the caller's deadline
+     */
+    public void acquire(UpstreamPriority priority) throws InterruptedException, TimeoutException {
+        acquire(priority, Math.min(acquireTimeoutNanos, UpstreamCallContext.remainingNanos()));
+    }
+
+    public void acquire(UpstreamPriority priority, long timeoutNanos) throws InterruptedException, TimeoutException {
+        int index = priority.ordinal();
+        lock.lock();
+        try {
+            if (noneWaiting() && eligible(index)) {
+                grant(index);
+                return;
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition());
+            queues[index].addLast(waiter);
+            dispatch();
+
+            long remaining = timeoutNanos;
+            try {
+                while (!waiter.granted) {
+                    if (remaining <= 0) {
+                        queues[index].remove(waiter);
+                        timeouts[index].increment();
+                        throw new TimeoutException("Timed out waiting for an upstream " + priority.name().toLowerCase() + " permit");
+                    }
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    // Granted concurrently with the interrupt: hand the permit on
+                    release(priority);
+                } else {
+                    queues[index].remove(waiter);
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(UpstreamPriority priority) {
+        int index = priority.ordinal();
+        lock.lock();
+        try {
+            inUse[index]--;
+            totalInUse--;
+            if (index != UpstreamPriority.INTERACTIVE.ordinal()) {
+                lowerClassInUse--;
+            }
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grant free permits to waiting calls, choosing the class by smooth weighted round-robin
+     * among the classes that have waiters and are allowed another permit
+     */
+    private void dispatch() {
+        while (totalInUse < maxConcurrent) {
+            int chosen = -1;
+            int eligibleWeight = 0;
+            for (int index = 0; index < PRIORITIES.length; index++) {
+                if (!queues[index].isEmpty() && eligible(index)) {
+                    currentWeights[index] += weights[index];
+                    eligibleWeight += weights[index];
+                    if (chosen < 0 || currentWeights[index] > currentWeights[chosen]) {
+                        chosen = index;
+                    }
+                }
+            }
+            if (chosen < 0) {
+                return;
+            }
+            currentWeights[chosen] -= eligibleWeight;
+
+            Waiter waiter = queues[chosen].pollFirst();
+            grant(chosen);
+            waiter.granted = true;
+            waiter.condition.signal();
+        }
+    }
+
+    private boolean eligible(int index) {
+        if (totalInUse >= maxConcurrent) {
+            return false;
+        }
+        return index == UpstreamPriority.INTERACTIVE.ordinal() || lowerClassInUse < lowerClassLimit;
+    }
+
+    private void grant(int index) {
+        inUse[index]++;
+        totalInUse++;
+        if (index != UpstreamPriority.INTERACTIVE.ordinal()) {
+            lowerClassInUse++;
+        }
+    }
+
+    private boolean noneWaiting() {
+        for (ArrayDeque<Waiter> queue : queues) {
+            if (!queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int inUse(UpstreamPriority priority) {
+        lock.lock();
+        try {
+            return inUse[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int waiting(UpstreamPriority priority) {
+        lock.lock();
+        try {
+            return queues[priority.ordinal()].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.service;
+
+/**
+ * Scheduling class of an upstream SOAP call, highest priority first
+ */
+public enum UpstreamPriority {
+    /** Calls a user is waiting on, e.g. login-path role lookups */
+    INTERACTIVE,
+    /** Client-initiated bulk work: exports and batch checks */
+    BATCH,
+    /** Work nobody is waiting on: mirror scope loads and refreshes */
+    BACKGROUND;
+
+    public static UpstreamPriority fromValue(String value) {
+        for (UpstreamPriority priority : values()) {
+            if (priority.name().equalsIgnoreCase(value)) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Invalid upstream priority: " + value + ". Valid values are: interactive, batch, background");
+    }
+}
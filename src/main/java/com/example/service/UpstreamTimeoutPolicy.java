@@ -0,0 +1,107 @@
+package com.example.service;
+
+import com.example.config.UpstreamProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connect and read timeouts for upstream calls.
+ * <p>
+ * Each SOAP operation has a configured read timeout. With adaptive timeouts enabled, the read
+ * timeout follows the operation's recent latency instead: the configured percentile of the last
+ * {@code windowSize} successful calls times a multiplier, never below the floor and never above
+ * the configured timeout. The caller's deadline caps both timeouts in every case.
+ */
+@Service
+public class UpstreamTimeoutPolicy {
+
+    /** Recompute the adaptive timeout after this many new samples */
+    private static final int RECOMPUTE_INTERVAL = 32;
+
+    private final UpstreamProperties.Timeouts properties;
+    private final UpstreamProperties.Adaptive adaptive;
+    private final ConcurrentHashMap<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UpstreamTimeoutPolicy(UpstreamProperties upstreamProperties) {
+        this.properties = upstreamProperties.getTimeouts();
+        this.adaptive = properties.getAdaptive();
+    }
+
+    /**
+     * Ring buffer of recent latencies for one operation
+     */
+    private class LatencyWindow {
+        private final long[] samples = new long[Math.max(1, adaptive.getWindowSize())];
+        private long count;
+        private volatile long adaptiveTimeoutMillis = -1;
+
+        synchronized void record(long millis) {
+            samples[(int) (count % samples.length)] = millis;
+            count++;
+            if (count >= adaptive.getMinSamples() && count % RECOMPUTE_INTERVAL == 0) {
+                long[] sorted = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+                Arrays.sort(sorted);
+                int rank = (int) Math.ceil(adaptive.getPercentile() / 100.0 * sorted.length) - 1;
+                long percentile = sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+                adaptiveTimeoutMillis = (long) (percentile * adaptive.getMultiplier());
+            }
+        }
+    }
+
+    public long connectTimeoutMillis() {
+        return capToDeadline(properties.getConnectTimeoutMs());
+    }
+
+    /**
+     * Read timeout for the operation, capped by the current deadline
+     */
+    public long readTimeoutMillis(String operation) {
+        return capToDeadline(operationTimeoutMillis(operation));
+    }
+
+    /**
+     * Read timeout for the operation before the deadline is applied
+     */
+    public long operationTimeoutMillis(String operation) {
+        long configured = configuredTimeoutMillis(operation);
+        if (!adaptive.isEnabled() || operation == null) {
+            return configured;
+        }
+        LatencyWindow window = windows.get(operation);
+        long derived = window != null ? window.adaptiveTimeoutMillis : -1;
+        if (derived < 0) {
+            return configured;
+        }
+        return Math.min(configured, Math.max(adaptive.getFloorMs(), derived));
+    }
+
+    /**
+     * Record the latency of a successful call
+     */
+    public void recordLatency(String operation, long elapsedNanos) {
+        if (!adaptive.isEnabled() || operation == null) {
+            return;
+        }
+        windows.computeIfAbsent(operation, key -> new LatencyWindow())
+            .record(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    private long configuredTimeoutMillis(String operation) {
+        Long timeout = operation != null ? properties.getOperations().get(operation) : null;
+        return timeout != null ? timeout : properties.getDefaultReadTimeoutMs();
+    }
+
+    /**
+     * Cap a timeout to the time left before the caller's deadline. Always at least 1 ms, since
+     * 0 means "no timeout" to HttpURLConnection; callers check for an expired deadline first.
+     */
+    private static long capToDeadline(long timeoutMillis) {
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(UpstreamCallContext.remainingNanos());
+        return Math.max(1, Math.min(timeoutMillis, remainingMillis));
+    }
+}
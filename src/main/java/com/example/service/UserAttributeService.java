@@ -0,0 +1,264 @@
+package com.example.service;
+
+import com.example.cache.LookupCache;
+import com.example.exception.UpstreamCallException;
+import com.example.exception.UpstreamFailures;
+import com.example.exception.UpstreamTimeoutException;
+import com.example.generated.ListType;
+import com.example.generated.MapEntry;
+import com.example.generated.MapType;
+import com.example.generated.UserIdentity;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches several attributes of a user in one request.
+ * <p>
+ * Each attribute is its own SOAP call (getSimpleAttribute, getListAttribute or getMapAttribute)
+ * and its own cache entry. Attributes not in the cache are fetched concurrently, all under one
+ * deadline for the whole request: the caller's deadline, brought forward to the configured
+ * request timeout. Attributes still outstanding at the deadline, or whose call failed, are
+ * reported as errors next to the ones that arrived.
+ */
+@Service
+public class UserAttributeService {
+
+    /** Stands in for an attribute whose value is absent, since the cache cannot hold null */
+    private static final Object NO_VALUE = new Object();
+
+    private final AuthorizationSoapClientService soapClientService;
+    private final LookupCache<Object> attributes;
+    private final ExecutorService executor;
+    private final long timeoutNanos;
+    private final int maxAttributes;
+
+    /**
+     * Which of the attribute operations an attribute is read with
+     */
+    public enum Kind {
+        SIMPLE("simple"),
+        LIST("list"),
+        MAP("map");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    /**
+     * One attribute to fetch
+     */
+    public static class AttributeSpec {
+        private final String name;
+        private final Kind kind;
+
+        public AttributeSpec(String name, Kind kind) {
+            this.name = name;
+            this.kind = kind;
+        }
+
+        public String getName() { return name; }
+        public Kind getKind() { return kind; }
+    }
+
+    /**
+     * Merged outcome: values by attribute name in request order (String, List or Map by kind),
+     * and a message for each attribute that could not be fetched
+     */
+    public static class UserAttributes {
+        private final Map<String, Object> values;
+        private final Map<String, String> errors;
+
+        UserAttributes(Map<String, Object> values, Map<String, String> errors) {
+            this.values = Collections.unmodifiableMap(values);
+            this.errors = Collections.unmodifiableMap(errors);
+        }
+
+        public Map<String, Object> getValues() { return values; }
+        public Map<String, String> getErrors() { return errors; }
+    }
+
+    @Autowired
+    public UserAttributeService(AuthorizationSoapClientService soapClientService,
+                                @Value("${authorization.user-attributes.max-parallelism:8}") int maxParallelism,
+                                @Value("${authorization.user-attributes.timeout-ms:5000}") long timeoutMs,
+                                @Value("${authorization.user-attributes.max-attributes:50}") int maxAttributes,
+                                @Value("${authorization.user-attributes.cache-ttl-ms:300000}") long cacheTtlMs,
+                                @Value("${authorization.user-attributes.cache-max-entries:50000}") int cacheMaxEntries) {
+        this.soapClientService = soapClientService;
+        this.attributes = new LookupCache<>("userAttributes", cacheTtlMs, cacheMaxEntries);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.maxAttributes = maxAttributes;
+
+        // Shared by all requests, so the pool size is also the cap on concurrent attribute calls
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "user-attributes-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    LookupCache<Object> getCache() {
+        return attributes;
+    }
+
+    /**
+     * Fetch the attributes, from the cache where fresh. If every attribute failed the first
+     * failure is thrown, so the caller sees why; otherwise failures are listed in the result.
+     */
+    public UserAttributes fetch(UserIdentity userIdentity, List<AttributeSpec> specs) {
+        validate(specs);
+        String userKey = DirectoryMirrorService.rolesKey(userIdentity);
+        Map<String, Object> values = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+
+        List<AttributeSpec> misses = new ArrayList<>();
+        for (AttributeSpec spec : specs) {
+            Object cached = attributes.getFresh(cacheKey(userKey, spec));
+            if (cached != null) {
+                values.put(spec.getName(), cached == NO_VALUE ? null : cached);
+            } else {
+                values.put(spec.getName(), null);
+                misses.add(spec);
+            }
+        }
+
+        UpstreamCallContext.Snapshot context = UpstreamCallContext.captureWithin(timeoutNanos);
+        UpstreamCallException firstFailure = null;
+        if (misses.size() == 1) {
+            // Nothing to overlap with, so skip the thread hop
+            AttributeSpec spec = misses.get(0);
+            try {
+                values.put(spec.getName(), context.call(() -> load(userIdentity, userKey, spec)));
+            } catch (UpstreamCallException e) {
+                errors.put(spec.getName(), e.getMessage());
+                firstFailure = e;
+            }
+        } else if (!misses.isEmpty()) {
+            List<Future<Object>> futures = new ArrayList<>(misses.size());
+            for (AttributeSpec spec : misses) {
+                futures.add(executor.submit(() -> context.call(() -> load(userIdentity, userKey, spec))));
+            }
+            for (int i = 0; i < misses.size(); i++) {
+                AttributeSpec spec = misses.get(i);
+                try {
+                    values.put(spec.getName(), await(futures.get(i), context, spec));
+                } catch (UpstreamCallException e) {
+                    errors.put(spec.getName(), e.getMessage());
+                    if (firstFailure == null) {
+                        firstFailure = e;
+                    }
+                }
+            }
+        }
+
+        if (firstFailure != null && errors.size() == specs.size()) {
+            throw firstFailure;
+        }
+        values.keySet().removeAll(errors.keySet());
+        return new UserAttributes(values, errors);
+    }
+
+    private Object await(Future<Object> future, UpstreamCallContext.Snapshot context, AttributeSpec spec) {
+        String action = "get " + spec.getKind().getLabel() + " attribute " + spec.getName();
+        try {
+            return future.get(Math.max(0, context.remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new UpstreamTimeoutException("Failed to " + action + ": request deadline exceeded", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw UpstreamFailures.classify(action, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UpstreamCallException failure) {
+                throw failure;
+            }
+            throw UpstreamFailures.classify(action, e.getCause());
+        }
+    }
+
+    /**
+     * Fetch one attribute and cache it; runs under the request's call context
+     */
+    private Object load(UserIdentity userIdentity, String userKey, AttributeSpec spec) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object value = switch (spec.getKind()) {
+                case SIMPLE -> soapClientService.getSimpleAttribute(userIdentity, spec.getName()).getStringValue();
+                case LIST -> listValues(soapClientService.getListAttribute(userIdentity, spec.getName()).getListValues());
+                case MAP -> mapValues(soapClientService.getMapAttribute(userIdentity, spec.getName()).getMapValues());
+            };
+            attributes.put(cacheKey(userKey, spec), value != null ? value : NO_VALUE, false);
+            success = true;
+            return value;
+        } finally {
+            attributes.recordLoad(System.nanoTime() - start, success);
+        }
+    }
+
+    private void validate(List<AttributeSpec> specs) {
+        if (specs == null || specs.isEmpty()) {
+            throw new IllegalArgumentException("At least one attribute must be requested");
+        }
+        if (specs.size() > maxAttributes) {
+            throw new IllegalArgumentException("Request for " + specs.size() + " attributes exceeds the limit of " + maxAttributes);
+        }
+        Set<String> names = new HashSet<>();
+        for (AttributeSpec spec : specs) {
+            if (spec.getName() == null || spec.getName().isBlank()) {
+                throw new IllegalArgumentException("Attribute names cannot be null or empty");
+            }
+            if (!names.add(spec.getName())) {
+                throw new IllegalArgumentException("Attribute " + spec.getName() + " is requested more than once");
+            }
+        }
+    }
+
+    static String cacheKey(String userKey, AttributeSpec spec) {
+        return DirectoryMirrorService.joinKey(spec.getKind().getLabel(), userKey, spec.getName());
+    }
+
+    private static List<String> listValues(ListType listType) {
+        return listType != null ? Collections.unmodifiableList(new ArrayList<>(listType.getListValue())) : null;
+    }
+
+    private static Map<String, String> mapValues(MapType mapType) {
+        if (mapType == null) {
+            return null;
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (MapEntry entry : mapType.getMapValue()) {
+            values.put(entry.getKey(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(values);
+    }
+}
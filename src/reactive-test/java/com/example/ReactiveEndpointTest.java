@@ -0,0 +1,197 @@
+package com.example;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the lookup endpoints under the reactive profile against a SOAP stub that takes
+ * {@value #LOOKUP_DELAY_MS} ms per lookup. Only built with {@code -Preactive}. The context is
+ * closed after the class, so the Reactor Netty shutdown happens here rather than at JVM exit, and
+ * the test's client connections are closed before it: the server's graceful shutdown otherwise
+ * waits on a keep-alive connection that goes idle just as it starts.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "authorization.rate-limit.enabled=false")
+@ActiveProfiles("reactive")
+@DirtiesContext
+public class ReactiveEndpointTest {
+
+    private static final long LOOKUP_DELAY_MS = 300;
+
+    private static final SoapServiceStub soapStub = SoapServiceStub.start(LOOKUP_DELAY_MS);
+    private static final Path auditDirectory = Path.of("target/audit");
+    private static final long startedMillis = System.currentTimeMillis();
+    private static final ConnectionProvider clientConnections = ConnectionProvider.create("reactive-endpoint-test-client", 4);
+
+    @LocalServerPort
+    private int port;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void createClient() {
+        webTestClient = WebTestClient
+            .bindToServer(new ReactorClientHttpConnector(HttpClient.create(clientConnections)))
+            .baseUrl("http://localhost:" + port)
+            .build();
+    }
+
+    @DynamicPropertySource
+    static void soapServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("soap.service.url", soapStub::url);
+    }
+
+    @AfterAll
+    static void stopSoapStub() {
+        clientConnections.disposeLater().block(Duration.ofSeconds(5));
+        soapStub.close();
+    }
+
+    @Test
+    public void lookupEndpointsReturnStubData() {
+        webTestClient.get().uri("/api/authorization/health")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.healthy").isEqualTo(true);
+
+        webTestClient.get().uri("/api/authorization/find-offices?eauthId=E1&officeTypes=FSA&applicationId=t&requestHost=h")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).value(body -> assertTrue(body.contains("OFF1"), body));
+
+        webTestClient.get().uri("/api/authorization/find-users?officeId=O1&roleName=ADMIN&applicationId=t&requestHost=h")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).value(body -> assertTrue(body.contains("user1_O1"), body));
+
+        webTestClient.post().uri("/api/authorization/find-user-identity")
+            .bodyValue(Map.of("username", "jdoe"))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).value(body -> assertTrue(body.contains("jdoe"), body));
+
+        webTestClient.post().uri("/api/authorization/advanced-user-search")
+            .bodyValue(Map.of("username", "jdoe", "department", "IT"))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).value(body -> assertTrue(body.contains("jdoe"), body));
+
+        webTestClient.post().uri("/api/authorization/get-user-roles")
+            .bodyValue(Map.of(
+                "authenticationSystemIdentifier", "A",
+                "authorizationSystemIdentifier", "Z",
+                "userLoginName", "jdoe"))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).value(body -> assertTrue(body.contains("ADMIN"), body));
+    }
+
+    @Test
+    public void invalidOfficeTypeIsRejected() {
+        webTestClient.get().uri("/api/authorization/find-offices?eauthId=E1&officeTypes=NOPE&applicationId=t&requestHost=h")
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void notFoundFaultKeepsFailureMessage() {
+        webTestClient.get().uri("/api/authorization/find-users?officeId=MISSING&roleName=ADMIN&applicationId=t&requestHost=h")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody(String.class).value(body ->
+                assertTrue(body.contains("Failed to find users by criteria"), body));
+    }
+
+    @Test
+    public void lookupsAreAudited() throws Exception {
+        webTestClient.get().uri("/api/authorization/find-users?officeId=REACTIVE1&roleName=ADMIN&applicationId=t&requestHost=audit-host")
+            .exchange()
+            .expectStatus().isOk();
+        webTestClient.post().uri("/api/authorization/get-user-roles")
+            .bodyValue(Map.of(
+                "authenticationSystemIdentifier", "A",
+                "authorizationSystemIdentifier", "Z",
+                "userLoginName", "audited"))
+            .exchange()
+            .expectStatus().isOk();
+
+        String trail = "";
+        for (int attempt = 0; attempt < 100 && !(trail.contains("REACTIVE1") && trail.contains("audited")); attempt++) {
+            Thread.sleep(50);
+            trail = readAuditTrail();
+        }
+        assertTrue(trail.contains("\"operation\":\"find-users\",\"applicationId\":\"t\",\"requestHost\":\"audit-host\""), trail);
+        assertTrue(trail.contains("\"subjectType\":\"office-role\",\"subject\":\"REACTIVE1/ADMIN\",\"resultCount\":2,"), trail);
+        assertTrue(trail.contains("\"subjectType\":\"user\",\"subject\":\"A:Z:audited\",\"resultCount\":2,"), trail);
+        assertTrue(trail.contains("\"status\":200,\"outcome\":\"SUCCESS\""), trail);
+    }
+
+    @Test
+    public void concurrentLookupsOverlapWhileWaitingForTheService() {
+        int calls = 200;
+        ConnectionProvider connections = ConnectionProvider.create("reactive-endpoint-test", calls);
+        WebClient client = WebClient.builder()
+            .baseUrl("http://localhost:" + port)
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+            .build();
+
+        long start = System.nanoTime();
+        List<HttpStatusCode> statuses = Flux.range(0, calls)
+            .flatMap(i -> client.get()
+                .uri("/api/authorization/find-users?officeId=O{i}&roleName=ADMIN&applicationId=t&requestHost=h", i)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode())), calls)
+            .collectList()
+            .block(Duration.ofSeconds(60));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        connections.dispose();
+
+        assertEquals(calls, statuses.size());
+        assertTrue(statuses.stream().allMatch(status -> status.equals(HttpStatus.OK)), statuses.toString());
+        // One at a time this would take calls * LOOKUP_DELAY_MS; all of them waiting together takes a few delays
+        assertTrue(elapsedMs < calls * LOOKUP_DELAY_MS / 4, "took " + elapsedMs + " ms");
+    }
+
+    /** The audit files this run wrote as text, without the unwritten (zero) end of the file being filled */
+    private static String readAuditTrail() throws IOException {
+        StringBuilder trail = new StringBuilder();
+        try (var files = Files.list(auditDirectory)) {
+            for (Path file : files.sorted().toList()) {
+                if (Files.getLastModifiedTime(file).toMillis() < startedMillis) {
+                    continue;
+                }
+                byte[] bytes = Files.readAllBytes(file);
+                int end = 0;
+                while (end < bytes.length && bytes[end] != 0) {
+                    end++;
+                }
+                trail.append(new String(bytes, 0, end, StandardCharsets.UTF_8));
+            }
+        }
+        return trail.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.config;
+
+import com.example.service.AuditEvent;
+import com.example.service.AuditTrail;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Reactive counterpart of {@link AuditFilter}. There is no request thread to bind the
+ * {@link AuditEvent} to, so it is kept in the exchange's attributes, where the handlers fill it
+ * in; it is handed to the {@link AuditTrail} once the response has been written.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveAuditFilter implements WebFilter {
+
+    private static final String EVENT_ATTRIBUTE = ReactiveAuditFilter.class.getName() + ".event";
+
+    private final AuditTrail auditTrail;
+
+    @Autowired
+    public ReactiveAuditFilter(AuditTrail auditTrail) {
+        this.auditTrail = auditTrail;
+    }
+
+    /**
+     * The event of an audited exchange; null when the request is not audited
+     */
+    public static AuditEvent event(ServerWebExchange exchange) {
+        return exchange.getAttribute(EVENT_ATTRIBUTE);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (!auditTrail.isEnabled() || !path.startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+        AuditEvent event = new AuditEvent(AuditFilter.operation(path), remoteAddress(exchange),
+            System.currentTimeMillis(), System.nanoTime());
+        exchange.getAttributes().put(EVENT_ATTRIBUTE, event);
+        return chain.filter(exchange).doFinally(signal -> {
+            if (signal == SignalType.CANCEL) {
+                // The client went away before the response was written
+                event.markFailed();
+            }
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            // An error that got past the handlers becomes a 500
+            event.complete(signal == SignalType.ON_ERROR ? 500 : status != null ? status.value() : 200);
+            auditTrail.submit(event);
+        });
+    }
+
+    private static String remoteAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        if (address == null) {
+            return null;
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
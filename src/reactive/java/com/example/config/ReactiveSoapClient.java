@@ -0,0 +1,230 @@
+package com.example.config;
+
+import com.example.exception.DeadlineExceededException;
+import com.example.exception.UpstreamSaturatedException;
+import com.example.service.UpstreamTimeoutPolicy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import jakarta.xml.bind.JAXBElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.oxm.Marshaller;
+import org.springframework.oxm.Unmarshaller;
+import org.springframework.stereotype.Component;
+import org.springframework.ws.FaultAwareWebServiceMessage;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.WebServiceMessageFactory;
+import org.springframework.ws.client.WebServiceTransportException;
+import org.springframework.ws.client.core.WebServiceTemplate;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.soap.client.SoapFaultClientException;
+import org.springframework.ws.support.MarshallingUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking SOAP client for the reactive profile, on Reactor Netty.
+ * <p>
+ * Messages are built and read exactly as the WebServiceTemplate does it: same message factory,
+ * marshaller and precompiled envelopes, and SOAP faults surface as {@link SoapFaultClientException}.
+ * Only the transport differs, so a call waiting on the service holds a pooled connection but no
+ * thread. Backpressure is bounded at two points: at most {@code max-connections} calls are on the
+ * wire, at most {@code max-pending-calls} more wait for a connection, and anything beyond that
+ * fails at once with {@link UpstreamSaturatedException} instead of queueing without limit.
+ * Responses are parsed off the event loop, on the parallel scheduler.
+ * <p>
+ * Each call is bounded by the operation's read timeout and by the API request's deadline, taken
+ * from the Reactor context under {@link #DEADLINE_KEY}.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveSoapClient implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveSoapClient.class);
+
+    /** Reactor context key of the caller's deadline, a System.nanoTime() value */
+    public static final String DEADLINE_KEY = "soap.upstream.deadline";
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final WebClient webClient;
+    private final ConnectionProvider connectionProvider;
+    private final WebServiceMessageFactory messageFactory;
+    private final Marshaller marshaller;
+    private final Unmarshaller unmarshaller;
+    private final SoapEnvelopeTemplates envelopeTemplates;
+    private final UpstreamTimeoutPolicy timeoutPolicy;
+    private final int maxOutstanding;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private volatile boolean running;
+
+    @Autowired
+    public ReactiveSoapClient(WebServiceTemplate webServiceTemplate, UpstreamProperties properties,
+                              UpstreamTimeoutPolicy timeoutPolicy, WebClient.Builder webClientBuilder,
+                              MeterRegistry meterRegistry) {
+        this.messageFactory = webServiceTemplate.getMessageFactory();
+        this.marshaller = webServiceTemplate.getMarshaller();
+        this.unmarshaller = webServiceTemplate.getUnmarshaller();
+        this.envelopeTemplates = webServiceTemplate instanceof FastPathWebServiceTemplate fastPath
+            ? fastPath.getEnvelopeTemplates()
+            : null;
+        this.timeoutPolicy = timeoutPolicy;
+
+        UpstreamProperties.Reactive reactive = properties.getReactive();
+        this.maxOutstanding = reactive.getMaxConnections() + reactive.getMaxPendingCalls();
+        this.connectionProvider = ConnectionProvider.builder("soap-upstream")
+            .maxConnections(reactive.getMaxConnections())
+            .pendingAcquireMaxCount(reactive.getMaxPendingCalls())
+            .pendingAcquireTimeout(Duration.ofMillis(reactive.getPendingTimeoutMs()))
+            .maxIdleTime(Duration.ofMillis(reactive.getMaxIdleMs()))
+            .metrics(true)
+            .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .compress(properties.getCompression().isAcceptGzip())
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.min(Integer.MAX_VALUE, timeoutPolicy.connectTimeoutMillis()));
+        // Load the event loops, native transport and resolver now rather than on the first call
+        httpClient.warmup().block();
+        this.webClient = webClientBuilder
+            .baseUrl(webServiceTemplate.getDefaultUri())
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+
+        Gauge.builder("authorization.upstream.reactive.outstanding", outstanding, AtomicInteger::get)
+            .description("Reactive SOAP calls on the wire or waiting for a connection")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Send the request payload and emit the unmarshalled response payload, unwrapped if it is a JAXBElement
+     */
+    public Mono<Object> sendAndReceive(Object request) {
+        String operation = request instanceof JAXBElement<?> element
+            ? element.getDeclaredType().getSimpleName()
+            : request.getClass().getSimpleName();
+        return Mono.deferContextual(context -> {
+            long remainingNanos = context.<Long>getOrEmpty(DEADLINE_KEY)
+                .map(deadline -> deadline - System.nanoTime())
+                .orElse(Long.MAX_VALUE);
+            if (remainingNanos <= 0) {
+                return Mono.error(new DeadlineExceededException("Request deadline passed before calling " + operation));
+            }
+            if (outstanding.incrementAndGet() > maxOutstanding) {
+                outstanding.decrementAndGet();
+                return Mono.error(new UpstreamSaturatedException(
+                    "Too many calls waiting for the SOAP service, rejected " + operation));
+            }
+
+            long readTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutPolicy.readTimeoutMillis(operation));
+            boolean deadlineBound = remainingNanos < readTimeoutNanos;
+            long start = System.nanoTime();
+            return Mono.fromCallable(() -> write(request))
+                .flatMap(message -> webClient.post()
+                    .headers(headers -> message.headers.forEach(header -> {
+                        if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header[0])) {
+                            headers.set(header[0], header[1]);
+                        }
+                    }))
+                    .bodyValue(message.toByteArray())
+                    .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .map(body -> new RawResponse(response.statusCode(), body))))
+                .timeout(Duration.ofNanos(Math.min(readTimeoutNanos, remainingNanos)))
+                .publishOn(Schedulers.parallel())
+                .map(this::read)
+                .doOnSuccess(response -> timeoutPolicy.recordLatency(operation, System.nanoTime() - start))
+                .onErrorMap(TimeoutException.class, e -> {
+                    if (!deadlineBound) {
+                        return e;
+                    }
+                    DeadlineExceededException deadlineExceeded =
+                        new DeadlineExceededException("Request deadline exceeded during " + operation);
+                    deadlineExceeded.initCause(e);
+                    return deadlineExceeded;
+                })
+                .doFinally(signal -> outstanding.decrementAndGet());
+        });
+    }
+
+    private record RawResponse(HttpStatusCode status, byte[] body) {}
+
+    private SoapEnvelopeTemplates.CapturingOutputStream write(Object request) throws IOException {
+        WebServiceMessage message = envelopeTemplates != null ? envelopeTemplates.createMessage(request) : null;
+        if (message == null) {
+            message = messageFactory.createWebServiceMessage();
+            MarshallingUtils.marshal(marshaller, request, message);
+        }
+        SoapEnvelopeTemplates.CapturingOutputStream out = new SoapEnvelopeTemplates.CapturingOutputStream();
+        message.writeTo(out);
+        return out;
+    }
+
+    private Object read(RawResponse response) {
+        if (response.body().length == 0) {
+            if (response.status().is2xxSuccessful()) {
+                return null;
+            }
+            throw new WebServiceTransportException("HTTP " + response.status().value() + " without a response body");
+        }
+        try {
+            WebServiceMessage message = messageFactory.createWebServiceMessage(new ByteArrayInputStream(response.body()));
+            if (message instanceof FaultAwareWebServiceMessage faultAware && faultAware.hasFault()) {
+                throw new SoapFaultClientException((SoapMessage) message);
+            }
+            if (!response.status().is2xxSuccessful()) {
+                throw new WebServiceTransportException("HTTP " + response.status().value());
+            }
+            Object payload = MarshallingUtils.unmarshal(unmarshaller, message);
+            return payload instanceof JAXBElement<?> element ? element.getValue() : payload;
+        } catch (IOException e) {
+            throw new WebServiceTransportException("Could not read SOAP response: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Close the connection pool after the server has finished its in-flight requests and before
+     * the shared event loops are shut down (ReactorResourceFactory stops in phase 0): connections
+     * still open on the loops hold up that shutdown.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        logger.debug("Disposing the reactive SOAP connection pool");
+        try {
+            connectionProvider.disposeLater().block(SHUTDOWN_TIMEOUT);
+        } catch (IllegalStateException e) {
+            logger.warn("Reactive SOAP connection pool not closed within {} ms", SHUTDOWN_TIMEOUT.toMillis());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 1;
+    }
+}
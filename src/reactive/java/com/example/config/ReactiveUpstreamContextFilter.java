@@ -0,0 +1,44 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reactive counterpart of {@link UpstreamCallContextFilter}: puts the API request's deadline in
+ * the Reactor context, where {@link ReactiveSoapClient} reads it, since there is no request
+ * thread to hold it. The budget rules (X-Request-Timeout-Ms can only shorten the default) are
+ * the same.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveUpstreamContextFilter implements WebFilter {
+
+    private final long requestBudgetMs;
+
+    @Autowired
+    public ReactiveUpstreamContextFilter(UpstreamProperties properties) {
+        this.requestBudgetMs = properties.getRequestBudgetMs();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+        long arrivedNanos = System.nanoTime();
+        long budgetMs = UpstreamCallContextFilter.resolveBudgetMillis(
+            exchange.getRequest().getHeaders().getFirst(UpstreamCallContextFilter.TIMEOUT_HEADER), requestBudgetMs);
+        if (budgetMs <= 0) {
+            return chain.filter(exchange);
+        }
+        long deadlineNanos = arrivedNanos + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        return chain.filter(exchange).contextWrite(context -> context.put(ReactiveSoapClient.DEADLINE_KEY, deadlineNanos));
+    }
+}
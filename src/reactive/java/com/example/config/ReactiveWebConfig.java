@@ -0,0 +1,25 @@
+package com.example.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.ReactorResourceFactory;
+
+/**
+ * Server of the reactive profile. Tomcat stays on the classpath for the default servlet stack and
+ * Spring Boot would otherwise serve WebFlux from it; Reactor Netty serves every connection from a
+ * small fixed set of event-loop threads. The loops come from the ReactorResourceFactory, which
+ * shuts them down once the server has stopped.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ReactorResourceFactory resourceFactory) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.setResourceFactory(resourceFactory);
+        return factory;
+    }
+}
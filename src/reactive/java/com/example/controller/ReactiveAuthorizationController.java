@@ -0,0 +1,210 @@
+package com.example.controller;
+
+import com.example.config.ReactiveAuditFilter;
+import com.example.controller.AuthorizationController.AdvancedUserSearchRequest;
+import com.example.controller.AuthorizationController.HealthResponse;
+import com.example.controller.AuthorizationController.OfficesResponse;
+import com.example.controller.AuthorizationController.UserIdentityRequest;
+import com.example.controller.AuthorizationController.UserIdentityResponse;
+import com.example.controller.AuthorizationController.UserRolesResponse;
+import com.example.controller.AuthorizationController.UsersResponse;
+import com.example.generated.*;
+import com.example.service.AuditEvent;
+import com.example.service.RateLimitService;
+import com.example.service.ReactiveAuthorizationSoapClientService;
+import com.example.service.SoapRequestBuilderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The lookup endpoints of {@link AuthorizationController} on WebFlux, for the reactive profile.
+ * <p>
+ * Requests and responses are the same; the difference is that no thread waits for the SOAP
+ * service, so the number of lookups in flight is bounded by the upstream connection pool
+ * rather than by the server's thread count. Lookups go straight to the service: the directory
+ * mirror, streaming, batch and export endpoints stay on the servlet stack. Requests are audited
+ * like the servlet ones, through the event {@link ReactiveAuditFilter} keeps on the exchange.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/authorization")
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = HttpHeaders.ETAG)
+public class ReactiveAuthorizationController {
+
+    private final ReactiveAuthorizationSoapClientService soapClientService;
+    private final SoapRequestBuilderService requestBuilderService;
+    private final RateLimitService rateLimitService;
+    private final ConditionalResponses conditionalResponses;
+
+    @Autowired
+    public ReactiveAuthorizationController(ReactiveAuthorizationSoapClientService soapClientService,
+                                           SoapRequestBuilderService requestBuilderService,
+                                           RateLimitService rateLimitService,
+                                           ConditionalResponses conditionalResponses) {
+        this.soapClientService = soapClientService;
+        this.requestBuilderService = requestBuilderService;
+        this.rateLimitService = rateLimitService;
+        this.conditionalResponses = conditionalResponses;
+    }
+
+    @GetMapping("/health")
+    public Mono<HealthResponse> checkHealth() {
+        return soapClientService.isHealthy()
+            .map(healthy -> new HealthResponse(healthy, healthy ? "Service is healthy" : "Service is not healthy"));
+    }
+
+    @PostMapping("/find-user-identity")
+    public Mono<UserIdentityResponse> findUserIdentity(@RequestBody Map<String, String> searchCriteria,
+                                                       ServerWebExchange exchange) {
+        List<MapEntry> mapEntries = requestBuilderService.createMapEntries(searchCriteria);
+        return identityResponse(ReactiveAuditFilter.event(exchange), mapEntries,
+            soapClientService.findMatchingUserIdentity(mapEntries));
+    }
+
+    @GetMapping("/find-offices")
+    public Mono<ResponseEntity<OfficesResponse>> findOffices(
+            @RequestParam String eauthId,
+            @RequestParam List<String> officeTypes,
+            @RequestParam String applicationId,
+            @RequestParam String requestHost,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            ServerWebExchange exchange) {
+
+        AuditEvent audit = ReactiveAuditFilter.event(exchange);
+        if (audit != null) {
+            audit.setCaller(applicationId, requestHost);
+            audit.setSubject("eauthId", eauthId);
+        }
+        rateLimitService.acquire(applicationId, "find-offices");
+
+        for (String officeType : officeTypes) {
+            if (!requestBuilderService.isValidOfficeType(officeType)) {
+                return Mono.just(ResponseEntity.badRequest()
+                    .body(new OfficesResponse(false, null,
+                        "Invalid office type: " + officeType + ". Valid types: " +
+                        requestBuilderService.getValidOfficeTypes())));
+            }
+        }
+
+        List<OfficeType> officeTypeList = requestBuilderService.createOfficeTypes(officeTypes.toArray(new String[0]));
+        RequestToken requestToken = requestBuilderService.createValidatedRequestToken(applicationId, requestHost);
+
+        return soapClientService.findOfficesByEauthId(eauthId, officeTypeList, requestToken)
+            .defaultIfEmpty(new ListType())
+            .map(offices -> {
+                List<String> officeList = requestBuilderService.listValues(offices);
+                resultCount(audit, officeList.size());
+                return conditionalResponses.lookup(ifNoneMatch, ConditionalResponses.eTag(offices),
+                    () -> new OfficesResponse(!officeList.isEmpty(), officeList, CountMessages.OFFICES.of(officeList.size())));
+            });
+    }
+
+    @GetMapping("/find-users")
+    public Mono<ResponseEntity<UsersResponse>> findUsers(
+            @RequestParam String officeId,
+            @RequestParam String roleName,
+            @RequestParam String applicationId,
+            @RequestParam String requestHost,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            ServerWebExchange exchange) {
+
+        AuditEvent audit = ReactiveAuditFilter.event(exchange);
+        if (audit != null) {
+            audit.setCaller(applicationId, requestHost);
+            audit.setSubject("office-role", officeId + '/' + roleName);
+        }
+        rateLimitService.acquire(applicationId, "find-users");
+        RequestToken requestToken = requestBuilderService.createValidatedRequestToken(applicationId, requestHost);
+
+        return soapClientService.findUsersByCriteria(officeId, roleName, requestToken)
+            .defaultIfEmpty(new ListType())
+            .map(users -> {
+                List<String> userList = requestBuilderService.listValues(users);
+                resultCount(audit, userList.size());
+                return conditionalResponses.lookup(ifNoneMatch, ConditionalResponses.eTag(users),
+                    () -> new UsersResponse(!userList.isEmpty(), userList, CountMessages.USERS.of(userList.size())));
+            });
+    }
+
+    @PostMapping("/get-user-roles")
+    public Mono<ResponseEntity<UserRolesResponse>> getUserRoles(
+            @RequestBody UserIdentityRequest userIdentityRequest,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            ServerWebExchange exchange) {
+        UserIdentity userIdentity = requestBuilderService.createValidatedUserIdentity(
+            userIdentityRequest.getAuthenticationSystemIdentifier(),
+            userIdentityRequest.getAuthorizationSystemIdentifier(),
+            userIdentityRequest.getUserLoginName()
+        );
+
+        AuditEvent audit = ReactiveAuditFilter.event(exchange);
+        if (audit != null) {
+            audit.setUser(userIdentity);
+        }
+        return soapClientService.getUserRoles(userIdentity)
+            .map(rolesResponse -> {
+                UserIdentity responseIdentity = rolesResponse.getUserIdentity() != null
+                    ? rolesResponse.getUserIdentity()
+                    : userIdentity;
+                String eTag = ConditionalResponses.eTag(responseIdentity, rolesResponse.getUserRoles());
+                List<String> roleList = requestBuilderService.listValues(rolesResponse.getUserRoles());
+                resultCount(audit, roleList.size());
+                return conditionalResponses.postedLookup(ifNoneMatch, eTag,
+                    () -> new UserRolesResponse(responseIdentity, roleList, CountMessages.ROLES.of(roleList.size())));
+            });
+    }
+
+    @PostMapping("/advanced-user-search")
+    public Mono<ResponseEntity<UserIdentityResponse>> advancedUserSearch(@RequestBody AdvancedUserSearchRequest searchRequest,
+                                                                         ServerWebExchange exchange) {
+        List<MapEntry> mapEntries = requestBuilderService.createUserSearchCriteria(
+            searchRequest.getUsername(),
+            searchRequest.getEmail(),
+            searchRequest.getFirstName(),
+            searchRequest.getLastName(),
+            searchRequest.getDepartment()
+        );
+
+        if (mapEntries.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest()
+                .body(new UserIdentityResponse(false, null, "At least one search criteria must be provided")));
+        }
+
+        return identityResponse(ReactiveAuditFilter.event(exchange), mapEntries,
+            soapClientService.findMatchingUserIdentity(mapEntries)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/office-types")
+    public ResponseEntity<List<String>> getValidOfficeTypes(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<String> officeTypes = requestBuilderService.getValidOfficeTypes();
+        return conditionalResponses.officeTypes(ifNoneMatch, ConditionalResponses.eTag(officeTypes), () -> officeTypes);
+    }
+
+    private static Mono<UserIdentityResponse> identityResponse(AuditEvent audit, List<MapEntry> criteria,
+                                                               Mono<UserIdentity> lookup) {
+        return lookup
+            .map(userIdentity -> {
+                AuthorizationController.auditIdentitySearch(audit, criteria, userIdentity);
+                return new UserIdentityResponse(true, userIdentity, "User identity found successfully");
+            })
+            .switchIfEmpty(Mono.fromSupplier(() -> {
+                AuthorizationController.auditIdentitySearch(audit, criteria, null);
+                return new UserIdentityResponse(false, null, "No matching user identity found");
+            }));
+    }
+
+    private static void resultCount(AuditEvent audit, int resultCount) {
+        if (audit != null) {
+            audit.setResultCount(resultCount);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.service;
+
+import com.example.config.ReactiveSoapClient;
+import com.example.exception.ThrottledErrorLog;
+import com.example.exception.UpstreamCallException;
+import com.example.exception.UpstreamFailures;
+import com.example.exception.UpstreamNotFoundException;
+import com.example.exception.UpstreamValidationException;
+import com.example.generated.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link AuthorizationSoapClientService} for the reactive profile.
+ * Same requests and the same typed "Failed to ..." errors, returned as Monos; an empty Mono
+ * stands for a null payload.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveAuthorizationSoapClientService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthorizationSoapClientService.class);
+
+    private final ReactiveSoapClient soapClient;
+    private final ObjectFactory objectFactory = new ObjectFactory();
+    private final ThrottledErrorLog errorLog =
+        new ThrottledErrorLog(logger, AuthorizationSoapClientService.ERROR_LOG_INTERVAL_MS);
+
+    @Autowired
+    public ReactiveAuthorizationSoapClientService(ReactiveSoapClient soapClient) {
+        this.soapClient = soapClient;
+    }
+
+    /**
+     * Find matching user identity using map entries
+     */
+    public Mono<UserIdentity> findMatchingUserIdentity(List<MapEntry> mapEntries) {
+        FindMatchingUserIdentityRequest request = new FindMatchingUserIdentityRequest();
+        request.getMapEntry().addAll(mapEntries);
+
+        return call(request, FindMatchingUserIdentityResponse.class, "find matching user identity")
+            .mapNotNull(FindMatchingUserIdentityResponse::getUserIdentity);
+    }
+
+    /**
+     * Find offices by EAuth ID
+     */
+    public Mono<ListType> findOfficesByEauthId(String usdaEauthId, List<OfficeType> officeTypes, RequestToken requestToken) {
+        FindOfficesByEauthIdRequest request = new FindOfficesByEauthIdRequest();
+        request.setUsdaEauthId(usdaEauthId);
+        request.getOfficeType().addAll(officeTypes);
+        request.setRequestToken(requestToken);
+
+        return call(request, FindOfficesByEauthIdResponse.class, "find offices by EAuth ID")
+            .mapNotNull(FindOfficesByEauthIdResponse::getOffices);
+    }
+
+    /**
+     * Find users by criteria
+     */
+    public Mono<ListType> findUsersByCriteria(String officeId, String roleName, RequestToken requestToken) {
+        FindUsersByCriteriaRequest request = new FindUsersByCriteriaRequest();
+        request.setOfficeId(officeId);
+        request.setRoleName(roleName);
+        request.setRequestToken(requestToken);
+
+        return call(request, FindUserCriteriaResponse.class, "find users by criteria")
+            .mapNotNull(FindUserCriteriaResponse::getUsers);
+    }
+
+    /**
+     * Get user roles
+     */
+    public Mono<GetUserRolesResponse> getUserRoles(UserIdentity userIdentity) {
+        GetUserRolesRequest request = new GetUserRolesRequest();
+        request.setUserIdentity(userIdentity);
+
+        return call(request, GetUserRolesResponse.class, "get user roles");
+    }
+
+    /**
+     * Check if service is healthy; errors report unhealthy
+     */
+    public Mono<Boolean> isHealthy() {
+        return soapClient.sendAndReceive(objectFactory.createIsHealthy(new IsHealthy()))
+            .cast(IsHealthyResponse.class)
+            .map(IsHealthyResponse::isReturn)
+            .defaultIfEmpty(false)
+            .onErrorResume(e -> {
+                UpstreamCallException failure = UpstreamFailures.classify("check service health", e);
+                errorLog.log(Level.WARN, "health:" + failure.getClass().getSimpleName(), failure.getMessage(), null);
+                return Mono.just(false);
+            });
+    }
+
+    private <T> Mono<T> call(Object request, Class<T> responseType, String action) {
+        return soapClient.sendAndReceive(request)
+            .cast(responseType)
+            .onErrorMap(e -> failure(action, e));
+    }
+
+    /**
+     * Classify and log a failed call, the same way as the blocking service
+     */
+    private UpstreamCallException failure(String action, Throwable e) {
+        UpstreamCallException failure = UpstreamFailures.classify(action, e);
+        String key = action + ':' + failure.getClass().getSimpleName() + ':' + failure.getFaultCode();
+        if (failure instanceof UpstreamNotFoundException || failure instanceof UpstreamValidationException) {
+            logger.debug("{}", failure.getMessage());
+        } else if (failure.getClass() == UpstreamCallException.class) {
+            errorLog.log(Level.ERROR, key, failure.getMessage(), e);
+        } else {
+            errorLog.log(Level.WARN, key, failure.getMessage(), null);
+        }
+        return failure;
+    }
+}
@@ -0,0 +1,266 @@
+package com.example;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calls every REST endpoint once against an in-process SOAP stub. Runs on the JVM with the normal
+ * test build and, under {@code -PnativeTest}, inside the native test image, so it doubles as the
+ * check that the runtime hints cover everything the endpoints reach.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class EndpointSmokeTest {
+
+    private static final SoapServiceStub soapStub = SoapServiceStub.start();
+    private static final Path auditDirectory = Path.of("target/audit");
+    private static final long startedMillis = System.currentTimeMillis();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void soapServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("soap.service.url", soapStub::url);
+    }
+
+    @AfterAll
+    static void stopSoapStub() {
+        soapStub.close();
+    }
+
+    @Test
+    public void healthEndpointReportsStubHealthy() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/authorization/health", String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"healthy\":true"), response.getBody());
+    }
+
+    @Test
+    public void lookupEndpointsReturnStubData() {
+        ResponseEntity<String> offices = restTemplate.getForEntity(
+            "/api/authorization/find-offices?eauthId=E1&officeTypes=FSA&applicationId=smoke&requestHost=localhost",
+            String.class);
+        assertEquals(HttpStatus.OK, offices.getStatusCode());
+        assertTrue(offices.getBody().contains("OFF1"), offices.getBody());
+
+        ResponseEntity<String> users = restTemplate.getForEntity(
+            "/api/authorization/find-users?officeId=O1&roleName=ADMIN&applicationId=smoke&requestHost=localhost",
+            String.class);
+        assertEquals(HttpStatus.OK, users.getStatusCode());
+        assertTrue(users.getBody().contains("user1_O1"), users.getBody());
+
+        ResponseEntity<String> officeStream = restTemplate.getForEntity(
+            "/api/authorization/find-offices/stream?eauthId=E1&officeTypes=FSA&applicationId=smoke&requestHost=localhost",
+            String.class);
+        assertEquals(HttpStatus.OK, officeStream.getStatusCode());
+        assertTrue(officeStream.getBody().contains("OFF2"), officeStream.getBody());
+
+        ResponseEntity<String> userStream = restTemplate.getForEntity(
+            "/api/authorization/find-users/stream?officeId=O2&roleName=ADMIN&applicationId=smoke&requestHost=localhost",
+            String.class);
+        assertEquals(HttpStatus.OK, userStream.getStatusCode());
+        assertTrue(userStream.getBody().contains("user0_O2"), userStream.getBody());
+
+        ResponseEntity<String> officeTypes = restTemplate.getForEntity("/api/authorization/office-types", String.class);
+        assertEquals(HttpStatus.OK, officeTypes.getStatusCode());
+        assertTrue(officeTypes.getBody().contains("FLPJurisdiction"));
+    }
+
+    @Test
+    public void notFoundFaultMapsTo404() {
+        ResponseEntity<String> users = restTemplate.getForEntity(
+            "/api/authorization/find-users?officeId=MISSING&roleName=ADMIN&applicationId=smoke&requestHost=localhost",
+            String.class);
+        assertEquals(HttpStatus.NOT_FOUND, users.getStatusCode(), users.getBody());
+        assertTrue(users.getBody().contains("Failed to find users by criteria: Office not found"), users.getBody());
+    }
+
+    @Test
+    public void readEndpointsRevalidateWithETags() {
+        String url = "/api/authorization/find-users?officeId=O1&roleName=ADMIN&applicationId=smoke&requestHost=localhost";
+        ResponseEntity<String> users = restTemplate.getForEntity(url, String.class);
+        String eTag = users.getHeaders().getETag();
+        assertNotNull(eTag);
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(eTag);
+        ResponseEntity<String> revalidated = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(conditional), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+        assertNull(revalidated.getBody());
+
+        ResponseEntity<String> otherOffice = restTemplate.exchange(url.replace("O1", "O2"), HttpMethod.GET,
+            new HttpEntity<>(conditional), String.class);
+        assertEquals(HttpStatus.OK, otherOffice.getStatusCode());
+        assertNotEquals(eTag, otherOffice.getHeaders().getETag());
+
+        ResponseEntity<String> officeTypes = restTemplate.getForEntity("/api/authorization/office-types", String.class);
+        assertTrue(officeTypes.getHeaders().getCacheControl().contains("max-age=86400"));
+    }
+
+    @Test
+    public void identityAndRoleEndpointsReturnStubData() {
+        ResponseEntity<String> identity = restTemplate.postForEntity("/api/authorization/find-user-identity",
+            Map.of("username", "jdoe"), String.class);
+        assertEquals(HttpStatus.OK, identity.getStatusCode());
+        assertTrue(identity.getBody().contains("jdoe"), identity.getBody());
+
+        ResponseEntity<String> search = restTemplate.postForEntity("/api/authorization/advanced-user-search",
+            Map.of("username", "jdoe", "department", "IT"), String.class);
+        assertEquals(HttpStatus.OK, search.getStatusCode());
+        assertTrue(search.getBody().contains("jdoe"), search.getBody());
+
+        Map<String, String> user = Map.of(
+            "authenticationSystemIdentifier", "A",
+            "authorizationSystemIdentifier", "Z",
+            "userLoginName", "jdoe");
+        ResponseEntity<String> roles = restTemplate.postForEntity("/api/authorization/get-user-roles", user, String.class);
+        assertEquals(HttpStatus.OK, roles.getStatusCode());
+        assertTrue(roles.getBody().contains("ADMIN"), roles.getBody());
+    }
+
+    @Test
+    public void extendedOperationEndpointsReturnStubData() {
+        ResponseEntity<String> byOffice = restTemplate.getForEntity(
+            "/api/authorization/find-users/by-office?officeId=O3&applicationId=smoke&requestHost=localhost", String.class);
+        assertEquals(HttpStatus.OK, byOffice.getStatusCode());
+        assertTrue(byOffice.getBody().contains("user2_O3"), byOffice.getBody());
+
+        ResponseEntity<String> byRole = restTemplate.getForEntity(
+            "/api/authorization/find-users/by-role?roleName=AUDITOR&applicationId=smoke&requestHost=localhost", String.class);
+        assertEquals(HttpStatus.OK, byRole.getStatusCode());
+        assertTrue(byRole.getBody().contains("user0_AUDITOR"), byRole.getBody());
+
+        ResponseEntity<String> properties = restTemplate.getForEntity(
+            "/api/authorization/user-identifying-properties", String.class);
+        assertEquals(HttpStatus.OK, properties.getStatusCode());
+        assertTrue(properties.getBody().contains("\"email\":\"Email address\""), properties.getBody());
+
+        Map<String, Object> attributesRequest = Map.of(
+            "authenticationSystemIdentifier", "A",
+            "authorizationSystemIdentifier", "Z",
+            "userLoginName", "jdoe",
+            "simpleAttributes", List.of("title", "missingPhone"),
+            "listAttributes", List.of("groups"),
+            "mapAttributes", List.of("address"));
+        ResponseEntity<String> attributes = restTemplate.postForEntity("/api/authorization/user-attributes",
+            attributesRequest, String.class);
+        assertEquals(HttpStatus.OK, attributes.getStatusCode());
+        String body = attributes.getBody();
+        assertTrue(body.contains("\"title\":\"title_value\""), body);
+        assertTrue(body.contains("\"groups\":[\"groups_0\",\"groups_1\"]"), body);
+        assertTrue(body.contains("\"address\":{\"k\":\"address\"}"), body);
+        assertTrue(body.contains("\"missingPhone\":\"Failed to get simple attribute missingPhone: Attribute not found\""), body);
+        assertTrue(body.contains("Fetched 3 of 4 attribute(s)"), body);
+    }
+
+    @Test
+    public void accessCheckAndExportEndpointsRespond() {
+        Map<String, String> check = Map.of(
+            "authenticationSystemIdentifier", "A",
+            "authorizationSystemIdentifier", "Z",
+            "userLoginName", "jdoe",
+            "roleName", "ADMIN",
+            "applicationId", "smoke",
+            "requestHost", "localhost");
+        ResponseEntity<String> single = restTemplate.postForEntity("/api/authorization/check-access", check, String.class);
+        assertEquals(HttpStatus.OK, single.getStatusCode());
+        assertTrue(single.getBody().contains("true"), single.getBody());
+
+        Map<String, String> batchCheck = Map.of(
+            "authenticationSystemIdentifier", "A",
+            "authorizationSystemIdentifier", "Z",
+            "userLoginName", "jdoe",
+            "roleName", "ADMIN");
+        ResponseEntity<String> batch = restTemplate.postForEntity("/api/authorization/check-access/batch",
+            Map.of("checks", List.of(batchCheck), "applicationId", "smoke", "requestHost", "localhost"), String.class);
+        assertEquals(HttpStatus.OK, batch.getStatusCode());
+        assertTrue(batch.getBody().contains("true"), batch.getBody());
+
+        // The batch's token applies to every check, so a check carrying its own is refused
+        ResponseEntity<String> ownToken = restTemplate.postForEntity("/api/authorization/check-access/batch",
+            Map.of("checks", List.of(check), "applicationId", "smoke", "requestHost", "localhost"), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, ownToken.getStatusCode());
+
+        ResponseEntity<String> export = restTemplate.postForEntity("/api/authorization/bulk-export",
+            Map.of("officeIds", List.of("O1"), "roleNames", List.of("ADMIN"),
+                   "applicationId", "smoke", "requestHost", "localhost"), String.class);
+        assertEquals(HttpStatus.OK, export.getStatusCode());
+        assertTrue(export.getBody().contains("user0_O1"), export.getBody());
+    }
+
+    @Test
+    public void mirrorCacheEndpointIsReadOnly() {
+        ResponseEntity<String> stats = restTemplate.getForEntity("/actuator/authzcache", String.class);
+        assertEquals(HttpStatus.OK, stats.getStatusCode());
+        assertTrue(stats.getBody().contains("userRoles"), stats.getBody());
+
+        ResponseEntity<String> flush = restTemplate.exchange("/actuator/authzcache", HttpMethod.DELETE, null, String.class);
+        assertFalse(flush.getStatusCode().is2xxSuccessful(), flush.getStatusCode().toString());
+    }
+
+    @Test
+    public void lookupsAreAudited() throws Exception {
+        restTemplate.getForEntity(
+            "/api/authorization/find-users?officeId=AUDIT1&roleName=ADMIN&applicationId=smoke&requestHost=audit-host",
+            String.class);
+        restTemplate.getForEntity(
+            "/api/authorization/find-users/stream?officeId=AUDIT2&roleName=ADMIN&applicationId=smoke&requestHost=audit-host",
+            String.class);
+        // Revalidated: the 304 is still audited with its result count
+        String revalidate = "/api/authorization/find-users?officeId=AUDIT3&roleName=ADMIN&applicationId=smoke&requestHost=audit-host";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(restTemplate.getForEntity(revalidate, String.class).getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, restTemplate.exchange(revalidate, HttpMethod.GET,
+            new HttpEntity<>(headers), String.class).getStatusCode());
+
+        String trail = "";
+        for (int attempt = 0; attempt < 100 && !(trail.contains("AUDIT1") && trail.contains("AUDIT2")
+                && trail.contains("\"status\":304")); attempt++) {
+            Thread.sleep(50);
+            trail = readAuditTrail();
+        }
+        assertTrue(trail.contains("\"operation\":\"find-users\",\"applicationId\":\"smoke\",\"requestHost\":\"audit-host\""), trail);
+        assertTrue(trail.contains("\"subjectType\":\"office-role\",\"subject\":\"AUDIT1/ADMIN\",\"resultCount\":2,"), trail);
+        assertTrue(trail.contains("\"subject\":\"AUDIT2/ADMIN\",\"resultCount\":2,"), trail);
+        assertTrue(trail.contains("\"status\":200,\"outcome\":\"SUCCESS\""), trail);
+        assertTrue(trail.matches("(?s).*\"subject\":\"AUDIT3/ADMIN\",\"resultCount\":2,\"latencyMicros\":\\d+,\"status\":304,.*"), trail);
+    }
+
+    /** The audit files this run wrote as text, without the unwritten (zero) end of the file being filled */
+    private static String readAuditTrail() throws IOException {
+        StringBuilder trail = new StringBuilder();
+        try (var files = Files.list(auditDirectory)) {
+            for (Path file : files.sorted().toList()) {
+                if (Files.getLastModifiedTime(file).toMillis() < startedMillis) {
+                    continue;
+                }
+                byte[] bytes = Files.readAllBytes(file);
+                int end = 0;
+                while (end < bytes.length && bytes[end] != 0) {
+                    end++;
+                }
+                trail.append(new String(bytes, 0, end, StandardCharsets.UTF_8));
+            }
+        }
+        return trail.toString();
+    }
+}
@@ -0,0 +1,164 @@
+package com.example;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process SOAP service for tests, answering each operation with fixed data. Lookups can be
+ * delayed to stand in for a slow service; the office ID MISSING and attributes named missing*
+ * get a SOAP fault.
+ */
+class SoapServiceStub implements AutoCloseable {
+
+    private static final String NS = "http://web.service.eas.citso.fsa.usda.gov";
+    private static final Pattern OFFICE_ID = Pattern.compile("OfficeId>([^<]*)<");
+    private static final Pattern ROLE_NAME = Pattern.compile("RoleName>([^<]*)<");
+    private static final Pattern ATTRIBUTE_NAME = Pattern.compile("AttributeName>([^<]*)<");
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private SoapServiceStub(long lookupDelayMs) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            String request;
+            try (InputStream in = exchange.getRequestBody()) {
+                request = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (lookupDelayMs > 0 && !request.contains("sHealthy")) {
+                try {
+                    Thread.sleep(lookupDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String body = responseBody(request);
+            byte[] envelope = ("<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+                + "<SOAP-ENV:Body>" + body + "</SOAP-ENV:Body></SOAP-ENV:Envelope>").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=utf-8");
+            exchange.sendResponseHeaders(body.contains("Fault>") ? 500 : 200, envelope.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(envelope);
+            }
+        });
+        server.start();
+    }
+
+    static SoapServiceStub start() {
+        return start(0);
+    }
+
+    static SoapServiceStub start(long lookupDelayMs) {
+        try {
+            return new SoapServiceStub(lookupDelayMs);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start SOAP stub", e);
+        }
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/eas";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static String responseBody(String request) {
+        if (request.contains("sHealthy")) {
+            return "<ns2:isHealthyResponse xmlns:ns2=\"" + NS + "\"><return>true</return></ns2:isHealthyResponse>";
+        }
+        if (request.contains("FindUsersByCriteriaRequest")) {
+            Matcher officeId = OFFICE_ID.matcher(request);
+            String office = officeId.find() ? officeId.group(1) : "";
+            if (office.equals("MISSING")) {
+                return "<SOAP-ENV:Fault><faultcode>SOAP-ENV:Server</faultcode><faultstring>Office not found</faultstring></SOAP-ENV:Fault>";
+            }
+            return "<ns2:FindUserCriteriaResponse xmlns:ns2=\"" + NS + "\">"
+                + listType("Users", "user0_" + office, "user1_" + office) + "</ns2:FindUserCriteriaResponse>";
+        }
+        if (request.contains("FindUsersByOfficeIdRequest")) {
+            Matcher officeId = OFFICE_ID.matcher(request);
+            String office = officeId.find() ? officeId.group(1) : "";
+            return "<ns2:FindUsersByOfficeIdResponse xmlns:ns2=\"" + NS + "\">"
+                + listType("users", "user0_" + office, "user1_" + office, "user2_" + office)
+                + "</ns2:FindUsersByOfficeIdResponse>";
+        }
+        if (request.contains("FindUsersByRoleRequest")) {
+            Matcher roleName = ROLE_NAME.matcher(request);
+            String role = roleName.find() ? roleName.group(1) : "";
+            return "<ns2:FindUsersByRoleResponse xmlns:ns2=\"" + NS + "\">"
+                + listType("Users", "user0_" + role) + "</ns2:FindUsersByRoleResponse>";
+        }
+        if (request.contains("AttributeName>")) {
+            Matcher attributeName = ATTRIBUTE_NAME.matcher(request);
+            String attribute = attributeName.find() ? attributeName.group(1) : "";
+            if (attribute.startsWith("missing")) {
+                return "<SOAP-ENV:Fault><faultcode>SOAP-ENV:Server</faultcode><faultstring>Attribute not found</faultstring></SOAP-ENV:Fault>";
+            }
+            String name = "<ns2:AttributeName>" + attribute + "</ns2:AttributeName>";
+            if (request.contains("getListAttribute")) {
+                return wrapped("getListAttributeResponse",
+                    listType("ListValues", attribute + "_0", attribute + "_1") + name);
+            }
+            if (request.contains("getMapAttribute")) {
+                return wrapped("getMapAttributeResponse",
+                    "<ns2:MapValues>" + mapValue("k", attribute) + "</ns2:MapValues>" + name);
+            }
+            return wrapped("getSimpleAttributeResponse",
+                "<ns2:StringValue>" + attribute + "_value</ns2:StringValue>" + name);
+        }
+        if (request.contains("getUserIdentifyingProperties")) {
+            return wrapped("getUserIdentifyingPropertiesResponse", "<ns2:MapValues>"
+                + mapValue("username", "User login name") + mapValue("email", "Email address") + "</ns2:MapValues>");
+        }
+        if (request.contains("FindOfficesByEauthIdRequest")) {
+            return "<ns2:FindOfficesByEauthIdResponse xmlns:ns2=\"" + NS + "\">"
+                + listType("Offices", "OFF0", "OFF1", "OFF2") + "</ns2:FindOfficesByEauthIdResponse>";
+        }
+        if (request.contains("GetUserRolesRequest")) {
+            return "<ns2:GetUserRolesResponse xmlns:ns2=\"" + NS + "\">"
+                + listType("UserRoles", "ADMIN", "USER") + "</ns2:GetUserRolesResponse>";
+        }
+        if (request.contains("FindMatchingUserIdentityRequest")) {
+            return "<ns2:FindMatchingUserIdentityResponse xmlns:ns2=\"" + NS + "\"><ns2:UserIdentity>"
+                + "<AuthenticationSystemIdentifier>A</AuthenticationSystemIdentifier>"
+                + "<AuthorizationSystemIdentifier>Z</AuthorizationSystemIdentifier>"
+                + "<UserLoginName>jdoe</UserLoginName>"
+                + "</ns2:UserIdentity></ns2:FindMatchingUserIdentityResponse>";
+        }
+        return "<SOAP-ENV:Fault><faultcode>SOAP-ENV:Client</faultcode><faultstring>Unknown operation</faultstring></SOAP-ENV:Fault>";
+    }
+
+    /**
+     * A wrapper-style response as the WSDL binds it: the content of the document-style response
+     * inside an unqualified, untyped return element
+     */
+    private static String wrapped(String element, String content) {
+        return "<ns2:" + element + " xmlns:ns2=\"" + NS + "\"><return>" + content + "</return></ns2:" + element + ">";
+    }
+
+    private static String mapValue(String key, String value) {
+        return "<ns2:MapValue><ns2:Key>" + key + "</ns2:Key><ns2:Value>" + value + "</ns2:Value></ns2:MapValue>";
+    }
+
+    private static String listType(String element, String... values) {
+        StringBuilder xml = new StringBuilder("<ns2:").append(element).append('>');
+        for (String value : values) {
+            xml.append("<ns2:ListValue>").append(value).append("</ns2:ListValue>");
+        }
+        return xml.append("</ns2:").append(element).append('>').toString();
+    }
+}
@@ -0,0 +1,321 @@
+package com.example;
+
+import com.example.config.CaptureRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replays a traffic capture (soap.capture) through this build and reports API latency per endpoint.
+ * <p>
+ * Each captured upstream call becomes the API request that causes it, sent at its captured time
+ * offset; a stub upstream answers with the captured response after the captured latency, matching
+ * requests by their content. Pseudonymised values are replayed as they are, so they match the
+ * captured requests again. Attribute calls are replayed one attribute per request, and background
+ * calls (mirror refreshes, connection pings) are left to the application's own schedules.
+ * Not a unit test: surefire skips it. Run after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.example.TrafficReplay capture-directory [speed]
+ * </pre>
+ * {@code speed} compresses the arrival times (2 = twice as fast); upstream latencies stay as captured.
+ */
+public class TrafficReplay {
+
+    private static final String API = "/api/authorization";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern NAMESPACES = Pattern.compile("<\\?xml[^>]*>|\\s+xmlns(?::[\\w.-]+)?=\"[^\"]*\"");
+    private static final Pattern PREFIXES = Pattern.compile("<(/?)[\\w.-]+:");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: TrafficReplay capture-directory [speed]");
+            System.exit(2);
+        }
+        double speed = args.length > 1 ? Double.parseDouble(args[1]) : 1.0;
+        List<CaptureRecord> records = new ArrayList<>();
+        for (CaptureRecord record : CaptureRecord.readAll(Path.of(args[0]))) {
+            if (record.getOperation() != null && !"BACKGROUND".equals(record.getPriority())) {
+                records.add(record);
+            }
+        }
+        records.sort(Comparator.comparingLong(CaptureRecord::getStartedAt));
+        if (records.isEmpty()) {
+            System.err.println("No replayable records in " + args[0]);
+            return;
+        }
+
+        try (RecordedUpstream upstream = new RecordedUpstream(records);
+             ConfigurableApplicationContext app = new SpringApplicationBuilder(App.class).run(
+                 "--server.port=0",
+                 "--soap.service.url=" + upstream.url(),
+                 "--soap.capture.enabled=false",
+                 "--soap.upstream.prewarm.enabled=false",
+                 "--authorization.rate-limit.enabled=false",
+                 "--logging.level.com.example=INFO",
+                 "--logging.level.org.springframework.ws=INFO")) {
+            String base = "http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port") + API;
+            report(replay(base, records, speed), upstream.unmatched.get());
+        }
+    }
+
+    private static Map<String, EndpointStats> replay(String base, List<CaptureRecord> records, double speed)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Map<String, EndpointStats> stats = new TreeMap<>();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        long firstAt = records.get(0).getStartedAt();
+        long replayStart = System.nanoTime();
+        for (CaptureRecord record : records) {
+            ApiCall call = apiCall(base, record);
+            if (call == null) {
+                continue;
+            }
+            long due = replayStart + (long) (TimeUnit.MILLISECONDS.toNanos(record.getStartedAt() - firstAt) / speed);
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            EndpointStats endpoint = stats.computeIfAbsent(call.endpoint(), e -> new EndpointStats());
+            long sent = System.nanoTime();
+            inFlight.add(client.sendAsync(call.request(), HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    endpoint.record(System.nanoTime() - sent, error != null || response.statusCode() >= 500);
+                    return null;
+                }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+        return stats;
+    }
+
+    private static void report(Map<String, EndpointStats> stats, int unmatched) {
+        System.out.printf("%-36s %8s %9s %9s %9s %9s %7s%n", "endpoint", "calls", "p50 ms", "p95 ms", "p99 ms", "max ms", "5xx");
+        stats.forEach((endpoint, endpointStats) -> {
+            List<Long> sorted = endpointStats.sortedLatencies();
+            System.out.printf("%-36s %8d %9.2f %9.2f %9.2f %9.2f %7d%n", endpoint, sorted.size(),
+                millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99), millis(sorted, 1.0),
+                endpointStats.failures.get());
+        });
+        System.out.println("Upstream requests not found in the capture: " + unmatched);
+    }
+
+    private static double millis(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    private record ApiCall(String endpoint, HttpRequest request) {}
+
+    private static class EndpointStats {
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        synchronized void record(long latencyNanos, boolean failed) {
+            latencies.add(latencyNanos);
+            if (failed) {
+                failures.incrementAndGet();
+            }
+        }
+
+        synchronized List<Long> sortedLatencies() {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * The API request that leads to the captured upstream call, or null for operations with no endpoint of their own
+     */
+    private static ApiCall apiCall(String base, CaptureRecord record) {
+        String xml = record.getRequest();
+        String token = "&applicationId=" + encode(text(xml, "applicationIdentifier"))
+            + "&requestHost=" + encode(text(xml, "requestHost"));
+        return switch (record.getOperation()) {
+            case "IsHealthy" -> get(base, "/health", "");
+            case "FindUsersByCriteriaRequest" -> get(base, "/find-users",
+                "?officeId=" + encode(text(xml, "OfficeId")) + "&roleName=" + encode(text(xml, "RoleName")) + token);
+            case "FindUsersByOfficeIdRequest" -> get(base, "/find-users/by-office",
+                "?officeId=" + encode(text(xml, "OfficeId")) + token);
+            case "FindUsersByRoleRequest" -> get(base, "/find-users/by-role",
+                "?roleName=" + encode(text(xml, "RoleName")) + token);
+            case "FindOfficesByEauthIdRequest" -> get(base, "/find-offices",
+                "?eauthId=" + encode(text(xml, "UsdaEauthId"))
+                    + "&officeTypes=" + encode(String.join(",", texts(xml, "OfficeType"))) + token);
+            case "GetUserIdentifyingProperties", "GetUserIdentifyingPropertiesRequest" -> get(base, "/user-identifying-properties", "");
+            case "GetUserRolesRequest" -> post(base, "/get-user-roles", identity(xml));
+            case "FindMatchingUserIdentityRequest" -> {
+                Map<String, String> criteria = new LinkedHashMap<>();
+                List<String> keys = texts(xml, "Key");
+                List<String> values = texts(xml, "Value");
+                for (int i = 0; i < keys.size() && i < values.size(); i++) {
+                    criteria.put(keys.get(i), values.get(i));
+                }
+                yield post(base, "/find-user-identity", criteria);
+            }
+            case "GetSimpleAttribute" -> attributes(base, xml, "simpleAttributes");
+            case "GetListAttribute" -> attributes(base, xml, "listAttributes");
+            case "GetMapAttribute" -> attributes(base, xml, "mapAttributes");
+            default -> null;
+        };
+    }
+
+    private static ApiCall attributes(String base, String xml, String kind) {
+        Map<String, Object> body = identity(xml);
+        body.put(kind, List.of(text(xml, "AttributeName")));
+        return post(base, "/user-attributes", body);
+    }
+
+    private static Map<String, Object> identity(String xml) {
+        Map<String, Object> identity = new LinkedHashMap<>();
+        identity.put("authenticationSystemIdentifier", text(xml, "AuthenticationSystemIdentifier"));
+        identity.put("authorizationSystemIdentifier", text(xml, "AuthorizationSystemIdentifier"));
+        identity.put("userLoginName", text(xml, "UserLoginName"));
+        return identity;
+    }
+
+    private static ApiCall get(String base, String endpoint, String query) {
+        return new ApiCall("GET " + endpoint, HttpRequest.newBuilder(URI.create(base + endpoint + query)).GET().build());
+    }
+
+    private static ApiCall post(String base, String endpoint, Object body) {
+        try {
+            return new ApiCall("POST " + endpoint, HttpRequest.newBuilder(URI.create(base + endpoint))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)))
+                .build());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String text(String xml, String element) {
+        List<String> texts = texts(xml, element);
+        return texts.isEmpty() ? "" : texts.get(0);
+    }
+
+    private static List<String> texts(String xml, String element) {
+        Matcher matcher = Pattern.compile("<(?:[\\w.-]+:)?" + element + ">([^<]*)</").matcher(xml);
+        List<String> texts = new ArrayList<>();
+        while (matcher.find()) {
+            texts.add(matcher.group(1).replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&"));
+        }
+        return texts;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Same element names and text, whatever the prefixes, namespace declarations or XML declaration
+     */
+    static String requestKey(String xml) {
+        return PREFIXES.matcher(NAMESPACES.matcher(xml).replaceAll("")).replaceAll("<$1").trim();
+    }
+
+    /**
+     * Upstream stub serving the captured responses. Requests with the same content get the captured
+     * responses in capture order, the last one again once they run out.
+     */
+    private static class RecordedUpstream implements AutoCloseable {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "recorded-upstream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final Map<String, Deque<CaptureRecord>> responses = new HashMap<>();
+        private final AtomicInteger unmatched = new AtomicInteger();
+
+        RecordedUpstream(List<CaptureRecord> records) throws IOException {
+            for (CaptureRecord record : records) {
+                responses.computeIfAbsent(requestKey(record.getRequest()), key -> new ArrayDeque<>()).add(record);
+            }
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+            server.setExecutor(executor);
+            server.createContext("/", exchange -> {
+                String request;
+                try (InputStream in = exchange.getRequestBody()) {
+                    request = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+                CaptureRecord record = next(requestKey(request));
+                if (record == null) {
+                    unmatched.incrementAndGet();
+                    exchange.sendResponseHeaders(503, -1);
+                    exchange.close();
+                    return;
+                }
+                try {
+                    TimeUnit.MICROSECONDS.sleep(record.getLatencyMicros());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (record.getResponse() == null) {
+                    // The captured call got no answer; a 503 without a body is a transport failure here too
+                    exchange.sendResponseHeaders(503, -1);
+                    exchange.close();
+                    return;
+                }
+                byte[] body = record.getResponse().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=utf-8");
+                exchange.sendResponseHeaders(record.getOutcome() == CaptureRecord.Outcome.FAULT ? 500 : 200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+        }
+
+        private CaptureRecord next(String key) {
+            synchronized (responses) {
+                Deque<CaptureRecord> queued = responses.get(key);
+                if (queued == null) {
+                    return null;
+                }
+                return queued.size() > 1 ? queued.poll() : queued.peek();
+            }
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/eas";
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testOnlyLiveSymbolsArePersistedAcrossTableInstances() throws IOException {
+        SymbolTable previous = new SymbolTable("users");
+        previous.encode("x".repeat(100_000));
+        SymbolTable rebuilt = new SymbolTable("users");
+        LookupCache<CompactStringList> cache = new LookupCache<>("usersByCriteria", 60000, 100);
+        // One entry still on the table it was encoded against before the table was rebuilt
+        cache.put("old", previous.encodeAll(List.of("alice", "bob")), false);
+        cache.put("new", rebuilt.encodeAll(List.of("bob", "carol")), true);
+
+        Path path = directory.resolve("mirror.snapshot");
+        CacheSnapshot.write(path, Map.of(cache.getName(), cache));
+        assertTrue(Files.size(path) < 10_000, "dead symbol was persisted: " + Files.size(path) + " bytes");
+
+        CacheSnapshot snapshot = CacheSnapshot.open(path);
+        assertEquals(List.of("alice", "bob"), snapshot.take("usersByCriteria", "old").getValues());
+        CacheSnapshot.RestoredEntry entry = snapshot.take("usersByCriteria", "new");
+        assertEquals(List.of("bob", "carol"), entry.getValues());
+        assertTrue(entry.isPinned());
+    }
+}
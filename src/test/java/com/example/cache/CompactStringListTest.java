@@ -0,0 +1,71 @@
+package com.example.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactStringListTest {
+
+    @Test
+    public void testRoundTripPreservesOrderAndDuplicates() {
+        SymbolTable table = new SymbolTable("roles");
+        List<String> values = List.of("ADMIN", "USER", "ADMIN", "VIEWER");
+
+        CompactStringList encoded = table.encodeAll(values);
+
+        assertEquals(values, encoded);
+        assertEquals(3, table.size());
+        assertEquals(encoded.codeAt(0), encoded.codeAt(2));
+        assertEquals(-1, table.codeOf("UNKNOWN"));
+    }
+
+    @Test
+    public void testWideCodesAreDecodedCorrectly() {
+        SymbolTable table = new SymbolTable("users");
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 70000; i++) {
+            values.add("user" + i);
+        }
+
+        CompactStringList encoded = table.encodeAll(values);
+
+        assertEquals(70000, encoded.size());
+        assertEquals("user0", encoded.get(0));
+        assertEquals("user255", encoded.get(255));
+        assertEquals("user65536", encoded.get(65536));
+        assertEquals("user69999", encoded.get(69999));
+        assertThrows(IndexOutOfBoundsException.class, () -> encoded.get(70000));
+    }
+
+    @Test
+    public void testEqualityAgainstPlainLists() {
+        SymbolTable table = new SymbolTable("offices");
+        CompactStringList first = table.encodeAll(List.of("OFF1", "OFF2"));
+        CompactStringList second = table.encodeAll(List.of("OFF1", "OFF2"));
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), List.of("OFF1", "OFF2").hashCode());
+        assertNotEquals(first, table.encodeAll(List.of("OFF2", "OFF1")));
+        assertTrue(first.estimateBytes() < 100);
+    }
+    
+    @Test
+    public void testMembershipChecksForDenseAndSparseCodes() {
+        SymbolTable table = new SymbolTable("users");
+        for (int i = 0; i < 100000; i++) {
+            table.encode("filler" + i);
+        }
+        CompactStringList sparse = table.encodeAll(List.of("user1", "filler5", "user2"));
+        CompactStringList dense = new SymbolTable("roles").encodeAll(List.of("ADMIN", "USER"));
+
+        assertTrue(sparse.containsSymbol("user2"));
+        assertTrue(sparse.containsSymbol("filler5"));
+        assertFalse(sparse.containsSymbol("filler6"));
+        assertFalse(sparse.containsSymbol("never-seen"));
+        assertTrue(dense.containsSymbol("ADMIN"));
+        assertFalse(dense.containsSymbol("VIEWER"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LookupCacheTest {
+
+    @Test
+    public void testHotKeysNearExpiryAreSelectedHottestFirst() {
+        LookupCache<String> cache = new LookupCache<>("test", 10000, 100);
+        long now = System.currentTimeMillis();
+        cache.restore("warm", "a", now - 9500, false);
+        cache.restore("hot", "b", now - 9500, false);
+        cache.restore("cold", "c", now - 9500, false);
+        cache.restore("young", "d", now, false);
+
+        read(cache, "warm", 4);
+        read(cache, "hot", 10);
+        read(cache, "cold", 1);
+        read(cache, "young", 10);
+
+        assertEquals(List.of("hot", "warm"), cache.hotKeysExpiringWithin(1000, 4, 10));
+        assertEquals(List.of("hot"), cache.hotKeysExpiringWithin(1000, 4, 1));
+    }
+
+    @Test
+    public void testAccessCountsDecayAndSurviveRefresh() {
+        LookupCache<String> cache = new LookupCache<>("test", 10000, 100);
+        cache.put("key", "v1", false);
+        read(cache, "key", 8);
+
+        cache.put("key", "v2", false);
+        assertEquals(8, cache.getEntry("key").getAccessCount());
+
+        cache.hotKeysExpiringWithin(1000, 1, 10);
+        assertEquals(4, cache.getEntry("key").getAccessCount());
+    }
+
+    @Test
+    public void testOverflowEvictsUnpinnedEntriesFirst() throws InterruptedException {
+        LookupCache<String> cache = new LookupCache<>("test", 10000, 3);
+        cache.put("pinned-old", "v", true);
+        Thread.sleep(2);
+        cache.put("read-through", "v", false);
+        cache.put("pinned-new", "v", true);
+
+        // The oldest entry is pinned, so the read-through one makes room
+        cache.put("next", "v", true);
+        assertNull(cache.getEntry("read-through"));
+        assertNotNull(cache.getEntry("pinned-old"));
+
+        // With nothing unpinned left, the oldest pinned entry goes
+        Thread.sleep(2);
+        cache.put("last", "v", true);
+        assertNull(cache.getEntry("pinned-old"));
+        assertEquals(3, cache.size());
+    }
+
+    private static void read(LookupCache<String> cache, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            assertNotNull(cache.getFresh(key));
+        }
+    }
+}
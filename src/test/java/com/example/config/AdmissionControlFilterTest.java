@@ -0,0 +1,87 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlFilterTest {
+
+    private static final String NORMAL = "/api/authorization/find-users";
+    private static final String CRITICAL = "/api/authorization/health";
+    private static final String BULK = "/api/authorization/bulk-export";
+
+    /** Starts async processing, as a streamed response does, so the request keeps its permit */
+    private static final FilterChain STREAM = (request, response) -> request.startAsync();
+    private static final FilterChain RETURN = (request, response) -> { };
+
+    @Test
+    public void testAdmitShedAndCriticalReserve() throws Exception {
+        AdmissionControlProperties properties = properties(2, 1, 50);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, new SimpleMeterRegistry());
+
+        // The only shared permit is held by a stream until it completes
+        MockHttpServletRequest stream = request(NORMAL);
+        assertEquals(200, call(filter, stream, STREAM));
+
+        assertEquals(503, call(filter, request(BULK), RETURN));
+        // Critical requests fall back to the reserve, and wait (then are shed) once it is taken too
+        MockHttpServletRequest critical = request(CRITICAL);
+        assertEquals(200, call(filter, critical, STREAM));
+        assertEquals(503, call(filter, request(CRITICAL), RETURN));
+
+        ((MockAsyncContext) stream.getAsyncContext()).complete();
+        assertEquals(200, call(filter, request(BULK), RETURN));
+        // A permit is released once, however the async request ends
+        ((MockAsyncContext) critical.getAsyncContext()).complete();
+        assertEquals(200, call(filter, request(NORMAL), RETURN));
+        assertEquals(200, call(filter, request(CRITICAL), RETURN));
+    }
+
+    @Test
+    public void testStandingQueueSwitchesToOverloadAndBack() throws Exception {
+        AdmissionControlProperties properties = properties(1, 0, 20);
+        properties.setTargetDelayMs(1);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, new SimpleMeterRegistry());
+
+        MockHttpServletRequest stream = request(NORMAL);
+        assertEquals(200, call(filter, stream, STREAM));
+        // Each waits a whole interval: the first ends the interval the stream was admitted in,
+        // the second one in which no request waited less than the target
+        assertEquals(503, call(filter, request(NORMAL), RETURN));
+        assertFalse(filter.isOverloaded());
+        assertEquals(503, call(filter, request(NORMAL), RETURN));
+        assertTrue(filter.isOverloaded());
+
+        ((MockAsyncContext) stream.getAsyncContext()).complete();
+        Thread.sleep(25);
+        assertEquals(200, call(filter, request(NORMAL), RETURN));
+        assertFalse(filter.isOverloaded());
+    }
+
+    private static AdmissionControlProperties properties(int maxConcurrent, int criticalReserve, long intervalMs) {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setEnabled(true);
+        properties.setMaxConcurrent(maxConcurrent);
+        properties.setCriticalReserve(criticalReserve);
+        properties.setIntervalMs(intervalMs);
+        return properties;
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private static int call(AdmissionControlFilter filter, MockHttpServletRequest request, FilterChain chain)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedAppendFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testFilesAreTrimmedOnRotationAndOldestDeleted() throws IOException {
+        MappedAppendFile file = new MappedAppendFile(directory, "audit-", 16, 2);
+        for (int i = 0; i < 4; i++) {
+            byte[] record = ("record" + i + "\n").getBytes(StandardCharsets.US_ASCII);
+            // 8 bytes each: two records fill a file
+            assertTrue(file.append(record, record.length));
+        }
+        assertFalse(file.append(new byte[17], 17));
+        byte[] last = "record4\n".getBytes(StandardCharsets.US_ASCII);
+        assertTrue(file.append(last, last.length));
+        file.close();
+
+        List<Path> files = MappedAppendFile.files(directory, "audit-");
+        assertEquals(2, files.size());
+        assertEquals("record2\nrecord3\n", Files.readString(files.get(0)));
+        assertEquals("record4\n", Files.readString(files.get(1)));
+    }
+
+    @Test
+    public void testUnfinishedFileIsTrimmedWhenReopened() throws IOException {
+        MappedAppendFile file = new MappedAppendFile(directory, "audit-", 1 << 16, 5);
+        byte[] record = "{\"operation\":\"find-users\"}\n".getBytes(StandardCharsets.US_ASCII);
+        file.append(record, record.length);
+        file.force();
+        // Not closed, as after a crash: the file is still at its mapped size
+        Path unfinished = MappedAppendFile.files(directory, "audit-").get(0);
+        assertEquals(1 << 16, Files.size(unfinished));
+
+        new MappedAppendFile(directory, "audit-", 1 << 16, 5).close();
+        assertEquals("{\"operation\":\"find-users\"}\n", Files.readString(unfinished));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestBodyOutputStreamTest {
+
+    /**
+     * Connection that captures the request body instead of sending it
+     */
+    private static class CapturingConnection extends HttpURLConnection {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        CapturingConnection() throws IOException {
+            super(new URL("http://localhost/"));
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return body;
+        }
+
+        @Override public void connect() { connected = true; }
+        @Override public void disconnect() {}
+        @Override public boolean usingProxy() { return false; }
+    }
+
+    @Test
+    public void testSmallBodySentUncompressed() throws Exception {
+        CapturingConnection connection = new CapturingConnection();
+        RequestBodyOutputStream stream = new RequestBodyOutputStream(connection, 1024);
+        byte[] payload = "<IsHealthy/>".getBytes(StandardCharsets.UTF_8);
+
+        stream.write(payload);
+        stream.finish();
+
+        assertFalse(stream.isCompressed());
+        assertNull(connection.getRequestProperty("Content-Encoding"));
+        assertArrayEquals(payload, connection.body.toByteArray());
+        assertEquals(payload.length, stream.getWireBytes());
+        assertEquals(payload.length, stream.getPayloadBytes());
+    }
+
+    @Test
+    public void testLargeBodyGzipped() throws Exception {
+        CapturingConnection connection = new CapturingConnection();
+        RequestBodyOutputStream stream = new RequestBodyOutputStream(connection, 1024);
+        StringBuilder xml = new StringBuilder("<FindUsersByCriteriaRequest>");
+        for (int i = 0; i < 500; i++) {
+            xml.append("<entry><key>officeId</key><value>").append(i).append("</value></entry>");
+        }
+        byte[] payload = xml.append("</FindUsersByCriteriaRequest>").toString().getBytes(StandardCharsets.UTF_8);
+
+        // Written in pieces so the threshold is crossed part way through
+        for (int offset = 0; offset < payload.length; offset += 100) {
+            stream.write(payload, offset, Math.min(100, payload.length - offset));
+        }
+        stream.finish();
+
+        assertTrue(stream.isCompressed());
+        assertEquals("gzip", connection.getRequestProperty("Content-Encoding"));
+        assertEquals(payload.length, stream.getPayloadBytes());
+        assertEquals(connection.body.size(), stream.getWireBytes());
+        assertTrue(stream.getWireBytes() < payload.length / 5);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(connection.body.toByteArray()))) {
+            assertArrayEquals(payload, in.readAllBytes());
+        }
+    }
+}
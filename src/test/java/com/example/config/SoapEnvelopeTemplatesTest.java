@@ -0,0 +1,87 @@
+package com.example.config;
+
+import com.example.generated.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+import org.springframework.ws.support.MarshallingUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SoapEnvelopeTemplatesTest {
+
+    private static final List<String> VALUES = List.of(
+        "jdoe", "a&b <c> \"d\" 'e'", "]]>", "Zoë Ñúñez 日本", "  padded  ", "tab\there");
+
+    private SaajSoapMessageFactory messageFactory;
+    private Jaxb2Marshaller marshaller;
+    private SoapEnvelopeTemplates templates;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        marshaller = new Jaxb2Marshaller();
+        marshaller.setContextPath("com.example.generated");
+        marshaller.afterPropertiesSet();
+        templates = new SoapEnvelopeTemplates(messageFactory, marshaller,
+            List.of("IsHealthy", "GetUserRolesRequest", "FindUsersByCriteriaRequest"));
+    }
+
+    @Test
+    public void testPrecompiledEnvelopesMatchJaxbOutput() throws Exception {
+        assertSameAsJaxb(new IsHealthy(), new ObjectFactory().createIsHealthy(new IsHealthy()));
+
+        for (String value : VALUES) {
+            GetUserRolesRequest roles = new GetUserRolesRequest().withUserIdentity(new UserIdentity()
+                .withAuthenticationSystemIdentifier("EAUTH-" + value)
+                .withAuthorizationSystemIdentifier(value)
+                .withUserLoginName(value + "!"));
+            assertSameAsJaxb(roles, roles);
+
+            FindUsersByCriteriaRequest users = new FindUsersByCriteriaRequest()
+                .withOfficeId(value).withRoleName("role " + value)
+                .withRequestToken(new RequestToken().withApplicationIdentifier("app").withRequestHost(value));
+            assertSameAsJaxb(users, users);
+        }
+    }
+
+    @Test
+    public void testOtherShapesFallBackToJaxb() {
+        assertNull(templates.createMessage(new FindUsersByCriteriaRequest().withOfficeId("1").withRoleName("r")));
+        assertNull(templates.createMessage(new GetUserRolesRequest().withUserIdentity(
+            new UserIdentity().withUserLoginName("jdoe"))));
+        assertNull(templates.createMessage(new FindUsersByCriteriaRequest().withOfficeId("line\nbreak").withRoleName("r")
+            .withRequestToken(new RequestToken().withApplicationIdentifier("a").withRequestHost("h"))));
+        assertNull(templates.createMessage(new GetUserRolesRequest().withUserIdentity(new UserIdentity()
+            .withAuthenticationSystemIdentifier("a").withAuthorizationSystemIdentifier("").withUserLoginName("c"))));
+        assertNull(templates.createMessage(new FindOfficesByEauthIdRequest().withUsdaEauthId("x")));
+
+        SoapEnvelopeTemplates rolesOnly = new SoapEnvelopeTemplates(messageFactory, marshaller, List.of("GetUserRolesRequest"));
+        assertFalse(rolesOnly.isEnabled(IsHealthy.class));
+        assertTrue(rolesOnly.isEnabled(GetUserRolesRequest.class));
+    }
+
+    private void assertSameAsJaxb(Object request, Object jaxbPayload) throws Exception {
+        WebServiceMessage jaxbMessage = messageFactory.createWebServiceMessage();
+        MarshallingUtils.marshal(marshaller, jaxbPayload, jaxbMessage);
+        SoapEnvelopeTemplates.CapturingOutputStream expected = new SoapEnvelopeTemplates.CapturingOutputStream();
+        jaxbMessage.writeTo(expected);
+
+        WebServiceMessage precompiled = templates.createMessage(request);
+        assertNotNull(precompiled, "no fast path for " + request.getClass().getSimpleName());
+        SoapEnvelopeTemplates.CapturingOutputStream actual = new SoapEnvelopeTemplates.CapturingOutputStream();
+        precompiled.writeTo(actual);
+
+        assertEquals(new String(expected.toByteArray(), "UTF-8"), new String(actual.toByteArray(), "UTF-8"));
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        assertEquals(expected.headers.size(), actual.headers.size());
+        for (int i = 0; i < expected.headers.size(); i++) {
+            assertEquals(String.join(": ", expected.headers.get(i)), String.join(": ", actual.headers.get(i)));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrafficCaptureTest {
+
+    private static final String ROLES_REQUEST = "<ns2:GetUserRolesRequest xmlns:ns2=\"http://web.service.eas.citso.fsa.usda.gov\">"
+        + "<ns2:UserIdentity><AuthenticationSystemIdentifier>A</AuthenticationSystemIdentifier>"
+        + "<AuthorizationSystemIdentifier>Z</AuthorizationSystemIdentifier>"
+        + "<UserLoginName>jdoe</UserLoginName></ns2:UserIdentity></ns2:GetUserRolesRequest>";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRedactionIsDeterministicAndLengthPreserving() {
+        PayloadRedactor redactor = new PayloadRedactor(List.of("UserLoginName", "ListValue"), "key");
+        String redacted = redactor.redact(
+            "<a><UserLoginName>jdoe</UserLoginName><ns2:ListValue>jdoe</ns2:ListValue><RoleName>ADMIN</RoleName></a>");
+
+        String pseudonym = redactor.pseudonym("jdoe");
+        assertEquals("<a><UserLoginName>" + pseudonym + "</UserLoginName><ns2:ListValue>" + pseudonym
+            + "</ns2:ListValue><RoleName>ADMIN</RoleName></a>", redacted);
+        assertEquals(4, pseudonym.length());
+        assertNotEquals("jdoe", pseudonym);
+
+        // Attributes on the element do not hide it; an empty element stays as it is
+        assertEquals("<a><UserLoginName xmlns=\"urn:x\">" + pseudonym + "</UserLoginName>"
+                + "<ns2:ListValue xsi:type=\"xs:string\">" + pseudonym + "</ns2:ListValue>"
+                + "<UserLoginName xsi:nil=\"true\"/><RoleName>ADMIN</RoleName></a>",
+            redactor.redact("<a><UserLoginName xmlns=\"urn:x\">jdoe</UserLoginName>"
+                + "<ns2:ListValue xsi:type=\"xs:string\">jdoe</ns2:ListValue>"
+                + "<UserLoginName xsi:nil=\"true\"/><RoleName>ADMIN</RoleName></a>"));
+        assertEquals("<UserLoginNames>jdoe</UserLoginNames>", redactor.redact("<UserLoginNames>jdoe</UserLoginNames>"));
+
+        // Longer than one digest, and a different key gives different pseudonyms
+        assertEquals(200, redactor.pseudonym("x".repeat(200)).length());
+        assertNotEquals(pseudonym, new PayloadRedactor(List.of("UserLoginName"), "other").pseudonym("jdoe"));
+    }
+
+    @Test
+    public void testInterceptorCapturesRedactedCallsForReplay() throws Exception {
+        SaajSoapMessageFactory messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        CaptureProperties properties = new CaptureProperties();
+        TrafficCaptureWriter writer = new TrafficCaptureWriter(directory, 1 << 20, 3, 100);
+        PayloadRedactor redactor = new PayloadRedactor(properties.getRedactedElements(), "key");
+        TrafficCaptureInterceptor interceptor = new TrafficCaptureInterceptor(redactor, writer);
+
+        SoapMessage request = messageFactory.createWebServiceMessage();
+        TransformerFactory.newInstance().newTransformer()
+            .transform(new StreamSource(new StringReader(ROLES_REQUEST)), request.getPayloadResult());
+        DefaultMessageContext context = new DefaultMessageContext(request, messageFactory);
+        interceptor.handleRequest(context);
+        SoapMessage response = (SoapMessage) context.getResponse();
+        response.getSoapBody().addServerOrReceiverFault("User jdoe not found. Check jdoe@example.com", Locale.ENGLISH);
+        interceptor.handleFault(context);
+        interceptor.afterCompletion(context, null);
+
+        // No response: the call failed on the way
+        DefaultMessageContext failed = new DefaultMessageContext(request, messageFactory);
+        interceptor.handleRequest(failed);
+        interceptor.afterCompletion(failed, new IOException("Connection refused"));
+        writer.close();
+
+        List<CaptureRecord> records = CaptureRecord.readAll(directory);
+        assertEquals(2, records.size());
+        assertEquals(CaptureRecord.Outcome.ERROR, records.get(1).getOutcome());
+        assertNull(records.get(1).getResponse());
+        CaptureRecord record = records.get(0);
+        assertEquals(CaptureRecord.Outcome.FAULT, record.getOutcome());
+        assertEquals("INTERACTIVE", record.getPriority());
+        assertTrue(record.getLatencyMicros() >= 0);
+        assertFalse(record.getRequest().contains("jdoe"), record.getRequest());
+        assertTrue(record.getRequest().contains("GetUserRolesRequest"));
+        // The fault text repeats the login name from the request; it gets the same pseudonym
+        assertFalse(record.getResponse().contains("jdoe"), record.getResponse());
+        assertTrue(record.getResponse().contains("User " + redactor.pseudonym("jdoe") + " not found"), record.getResponse());
+        assertEquals(0, writer.getDropped());
+    }
+
+    @Test
+    public void testFilesRotateAndOldestAreDeleted() throws IOException {
+        TrafficCaptureWriter writer = new TrafficCaptureWriter(directory, 1, 2, 100);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(writer.offer(new CaptureRecord(i, 1000, "IsHealthy", "INTERACTIVE",
+                CaptureRecord.Outcome.OK, "request" + i, "response" + i)));
+            // Written before the next is offered, so each record is its own batch and its own file
+            waitForRecord("request" + i);
+        }
+        writer.close();
+
+        List<CaptureRecord> records = CaptureRecord.readAll(directory);
+        assertEquals(List.of("request3", "request4"), records.stream().map(CaptureRecord::getRequest).toList());
+        assertFalse(writer.offer(records.get(0)));
+        assertEquals(1, writer.getDropped());
+    }
+
+    @Test
+    public void testTruncatedFileYieldsTheCompleteRecords() throws IOException {
+        TrafficCaptureWriter writer = new TrafficCaptureWriter(directory, 1 << 20, 3, 100);
+        writer.offer(new CaptureRecord(1, 1000, "IsHealthy", "INTERACTIVE", CaptureRecord.Outcome.OK, "a", "b"));
+        writer.offer(new CaptureRecord(2, 1000, "IsHealthy", "INTERACTIVE", CaptureRecord.Outcome.ERROR, "c", null));
+        writer.close();
+
+        Path file;
+        try (Stream<Path> files = Files.list(directory)) {
+            file = files.findFirst().orElseThrow();
+        }
+        // Drop the gzip trailer, as if the process died before closing the file
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+
+        List<CaptureRecord> records = CaptureRecord.readAll(directory);
+        assertEquals(2, records.size());
+        assertNull(records.get(1).getResponse());
+    }
+
+    private void waitForRecord(String request) throws IOException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            List<CaptureRecord> records = CaptureRecord.readAll(directory);
+            if (!records.isEmpty() && records.get(records.size() - 1).getRequest().equals(request)) {
+                return;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        fail("Record " + request + " was not written");
+    }
+}
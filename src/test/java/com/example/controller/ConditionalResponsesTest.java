@@ -0,0 +1,76 @@
+package com.example.controller;
+
+import com.example.cache.CachedListType;
+import com.example.config.HttpCacheProperties;
+import com.example.generated.ListType;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConditionalResponsesTest {
+
+    @Test
+    public void testETagFollowsValuesNotRepresentation() {
+        ListType unmarshalled = new ListType();
+        unmarshalled.getListValue().addAll(List.of("OFF1", "OFF2"));
+
+        assertEquals(ConditionalResponses.eTag(unmarshalled),
+            ConditionalResponses.eTag(new CachedListType(List.of("OFF1", "OFF2"))));
+        assertEquals(ConditionalResponses.eTag((ListType) null), ConditionalResponses.eTag(new ListType()));
+        assertNotEquals(ConditionalResponses.eTag(List.of("OFF1", "OFF2")), ConditionalResponses.eTag(List.of("OFF2", "OFF1")));
+        assertNotEquals(ConditionalResponses.eTag(List.of("ab")), ConditionalResponses.eTag(List.of("a", "b")));
+        assertTrue(ConditionalResponses.eTag(unmarshalled).startsWith("W/\""));
+    }
+
+    @Test
+    public void testMatchingIfNoneMatchSkipsTheBody() {
+        ConditionalResponses responses = new ConditionalResponses(new HttpCacheProperties());
+        String eTag = ConditionalResponses.eTag(List.of("user1"));
+
+        ResponseEntity<String> full = responses.lookup(null, eTag, () -> "body");
+        assertEquals(HttpStatus.OK, full.getStatusCode());
+        assertEquals(eTag, full.getHeaders().getETag());
+        assertEquals("no-cache, private", full.getHeaders().getCacheControl());
+
+        ResponseEntity<String> notModified = responses.lookup("\"other\", " + eTag.substring(2), eTag, () -> {
+            throw new AssertionError("body built for a 304");
+        });
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+        assertEquals(eTag, notModified.getHeaders().getFirst(HttpHeaders.ETAG));
+
+        assertEquals(HttpStatus.OK, responses.lookup("W/\"other\"", eTag, () -> "body").getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, responses.lookup("*", eTag, () -> "body").getStatusCode());
+
+        // 304 is only for GET and HEAD; a lookup sent as a POST gets 412
+        ResponseEntity<String> unchanged = responses.postedLookup(eTag, eTag, () -> {
+            throw new AssertionError("body built for a 412");
+        });
+        assertEquals(HttpStatus.PRECONDITION_FAILED, unchanged.getStatusCode());
+        assertEquals(eTag, unchanged.getHeaders().getFirst(HttpHeaders.ETAG));
+        assertEquals(HttpStatus.OK, responses.postedLookup("W/\"other\"", eTag, () -> "body").getStatusCode());
+    }
+
+    @Test
+    public void testCacheControlFollowsProperties() {
+        HttpCacheProperties properties = new HttpCacheProperties();
+        properties.setLookupMaxAgeSeconds(30);
+        properties.setLookupShared(true);
+        ConditionalResponses responses = new ConditionalResponses(properties);
+
+        assertEquals("max-age=30, public",
+            responses.lookup(null, "W/\"1\"", () -> "body").getHeaders().getCacheControl());
+        assertEquals("max-age=86400, public",
+            responses.officeTypes(null, "W/\"1\"", () -> "body").getHeaders().getCacheControl());
+
+        properties.setEnabled(false);
+        ResponseEntity<String> uncached = new ConditionalResponses(properties).lookup("*", "W/\"1\"", () -> "body");
+        assertEquals(HttpStatus.OK, uncached.getStatusCode());
+        assertNull(uncached.getHeaders().getETag());
+    }
+}
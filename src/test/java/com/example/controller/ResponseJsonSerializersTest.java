@@ -0,0 +1,70 @@
+package com.example.controller;
+
+import com.example.cache.CachedListType;
+import com.example.controller.AuthorizationController.OfficesResponse;
+import com.example.controller.AuthorizationController.UserIdentityResponse;
+import com.example.controller.AuthorizationController.UserRolesResponse;
+import com.example.controller.AuthorizationController.UsersResponse;
+import com.example.exception.ErrorResponse;
+import com.example.generated.UserIdentity;
+import com.example.service.SoapRequestBuilderService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseJsonSerializersTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    /** Ignores @JsonSerialize, so the DTOs go through the reflective bean serializer */
+    private final ObjectMapper beanMapper = JsonMapper.builder().disable(MapperFeature.USE_ANNOTATIONS).build();
+
+    @Test
+    public void testLookupResponsesMatchBeanSerialization() throws Exception {
+        List<String> offices = new SoapRequestBuilderService()
+            .listValues(new CachedListType(List.of("OFF1", "OFF \"2\"", "ÖFF3")));
+        UserIdentity identity = new UserIdentity()
+            .withAuthenticationSystemIdentifier("A")
+            .withAuthorizationSystemIdentifier(null)
+            .withUserLoginName("jdoe");
+
+        List<Object> responses = List.of(
+            new OfficesResponse(true, offices, CountMessages.OFFICES.of(offices.size())),
+            new OfficesResponse(false, null, "Invalid office type"),
+            new UsersResponse(false, List.of(), CountMessages.USERS.of(0)),
+            new UserRolesResponse(identity, List.of("ADMIN"), CountMessages.ROLES.of(1)),
+            new UserIdentityResponse(true, identity, "User identity found successfully"),
+            new UserIdentityResponse(false, null, "No matching user identity found"));
+
+        for (Object response : responses) {
+            assertEquals(beanMapper.writeValueAsString(response), objectMapper.writeValueAsString(response));
+        }
+        assertEquals("Found 3 office(s)", CountMessages.OFFICES.of(3));
+        assertEquals("Found 5000 user(s)", CountMessages.USERS.of(5000));
+    }
+
+    @Test
+    public void testErrorResponseShape() throws Exception {
+        JsonNode error = objectMapper.readTree(objectMapper.writeValueAsString(
+            new ErrorResponse(ErrorResponse.Shape.SOAP_FAULT, "Office \"X\" not found", "Client")));
+
+        List<String> fields = new ArrayList<>();
+        error.fieldNames().forEachRemaining(fields::add);
+        assertEquals(List.of("timestamp", "status", "error", "message", "faultCode"), fields);
+        assertEquals(400, error.get("status").intValue());
+        assertEquals("SOAP Fault", error.get("error").textValue());
+        assertEquals("Office \"X\" not found", error.get("message").textValue());
+        assertEquals("Client", error.get("faultCode").textValue());
+
+        JsonNode unexpected = objectMapper.readTree(objectMapper.writeValueAsString(
+            new ErrorResponse(ErrorResponse.Shape.UNEXPECTED_ERROR, "Try again")));
+        assertEquals(500, unexpected.get("status").intValue());
+        assertFalse(unexpected.has("faultCode"));
+    }
+}
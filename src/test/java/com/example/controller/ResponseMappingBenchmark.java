@@ -0,0 +1,126 @@
+package com.example.controller;
+
+import com.example.controller.AuthorizationController.UsersResponse;
+import com.example.exception.ErrorResponse;
+import com.example.generated.ListType;
+import com.example.service.SoapRequestBuilderService;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Allocation and CPU per response of the find-users mapping and of an error body, before and
+ * after the direct serializers. Not a unit test: surefire skips it. Run after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.example.controller.ResponseMappingBenchmark
+ * </pre>
+ */
+public class ResponseMappingBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 500_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** What the application's mapper was configured with before: reflection, JSR-310 dates as strings */
+    private static final ObjectMapper BEAN_MAPPER = JsonMapper.builder()
+        .disable(MapperFeature.USE_ANNOTATIONS)
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+
+    private static final SoapRequestBuilderService REQUEST_BUILDER = new SoapRequestBuilderService();
+    /** Stands in for the response stream; unlike OutputStream.nullOutputStream() it stays usable after close() */
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {}
+
+        @Override
+        public void write(byte[] b, int off, int len) {}
+    };
+
+    interface Mapping {
+        void write() throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        for (int size : new int[] {1, 10, 100}) {
+            ListType users = new ListType();
+            for (int i = 0; i < size; i++) {
+                users.getListValue().add("user" + i + "_O1");
+            }
+            compare("find-users, " + size + " value(s)",
+                () -> BEAN_MAPPER.writeValue(DISCARD, copyingMapping(users)),
+                () -> MAPPER.writeValue(DISCARD, directMapping(users)));
+        }
+        compare("error body",
+            () -> BEAN_MAPPER.writeValue(DISCARD, mapErrorBody("Failed to find users by criteria")),
+            () -> MAPPER.writeValue(DISCARD,
+                new ErrorResponse(ErrorResponse.Shape.INTERNAL_SERVER_ERROR, "Failed to find users by criteria")));
+    }
+
+    /** The mapping as it was: copy the values, build the DTO field by field, concatenate the message */
+    private static UsersResponse copyingMapping(ListType users) {
+        List<String> userList = new ArrayList<>(users.getListValue());
+        UsersResponse response = new UsersResponse();
+        response.setFound(!userList.isEmpty());
+        response.setUsers(userList);
+        response.setMessage(userList.isEmpty() ? "No users found for the given criteria" :
+                            "Found " + userList.size() + " user(s)");
+        return response;
+    }
+
+    private static UsersResponse directMapping(ListType users) {
+        List<String> userList = REQUEST_BUILDER.listValues(users);
+        return new UsersResponse(!userList.isEmpty(), userList, CountMessages.USERS.of(userList.size()));
+    }
+
+    private static Map<String, Object> mapErrorBody(String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", 500);
+        errorResponse.put("error", "Internal Server Error");
+        errorResponse.put("message", message);
+        return errorResponse;
+    }
+
+    private static void compare(String name, Mapping before, Mapping after) throws IOException {
+        run(before, WARMUP_ITERATIONS);
+        run(after, WARMUP_ITERATIONS);
+        long[] beforeCost = run(before, MEASURED_ITERATIONS);
+        long[] afterCost = run(after, MEASURED_ITERATIONS);
+        System.out.printf("%-24s before: %6d B %7d ns   after: %6d B %7d ns   (per response)%n", name,
+            beforeCost[0] / MEASURED_ITERATIONS, beforeCost[1] / MEASURED_ITERATIONS,
+            afterCost[0] / MEASURED_ITERATIONS, afterCost[1] / MEASURED_ITERATIONS);
+    }
+
+    /** Bytes allocated and CPU nanoseconds used by the current thread over the iterations */
+    private static long[] run(Mapping mapping, int iterations) throws IOException {
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long cpuBefore = THREADS.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            mapping.write();
+        }
+        return new long[] {
+            THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore,
+            THREADS.getCurrentThreadCpuTime() - cpuBefore
+        };
+    }
+}
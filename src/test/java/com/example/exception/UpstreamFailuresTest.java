@@ -0,0 +1,83 @@
+package com.example.exception;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.ws.client.WebServiceIOException;
+import org.springframework.ws.soap.SoapBody;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.soap.client.SoapFaultClientException;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamFailuresTest {
+
+    @Test
+    public void testFaultsAreClassifiedByStringAndCode() throws Exception {
+        UpstreamCallException notFound = UpstreamFailures.classify("find users by criteria",
+            fault((body, reason) -> body.addServerOrReceiverFault(reason, Locale.ENGLISH), "Office not found"));
+        assertInstanceOf(UpstreamNotFoundException.class, notFound);
+        assertEquals("Failed to find users by criteria: Office not found", notFound.getMessage());
+        assertEquals("Server", notFound.getFaultCode());
+
+        UpstreamCallException invalid = UpstreamFailures.classify("get user roles",
+            fault((body, reason) -> body.addClientOrSenderFault(reason, Locale.ENGLISH), "Login name is required"));
+        assertInstanceOf(UpstreamValidationException.class, invalid);
+        assertEquals("Client", invalid.getFaultCode());
+
+        UpstreamCallException serverFault = UpstreamFailures.classify("get user roles",
+            fault((body, reason) -> body.addServerOrReceiverFault(reason, Locale.ENGLISH), "Directory offline"));
+        assertInstanceOf(UpstreamUnavailableException.class, serverFault);
+    }
+
+    @Test
+    public void testTransportFailuresAreClassifiedByCause() {
+        UpstreamCallException readTimeout = UpstreamFailures.classify("find offices by EAuth ID",
+            new WebServiceIOException("I/O error", new SocketTimeoutException("Read timed out")));
+        assertInstanceOf(UpstreamTimeoutException.class, readTimeout);
+        assertEquals("Failed to find offices by EAuth ID: Read timed out", readTimeout.getMessage());
+
+        assertInstanceOf(UpstreamTimeoutException.class, UpstreamFailures.classify("get user roles",
+            new DeadlineExceededException("Request deadline exceeded during GetUserRolesRequest")));
+        assertInstanceOf(UpstreamRejectedException.class, UpstreamFailures.classify("get user roles",
+            new UpstreamSaturatedException("Too many calls waiting for the SOAP service")));
+        assertInstanceOf(UpstreamUnavailableException.class, UpstreamFailures.classify("get user roles",
+            new WebServiceIOException("I/O error", new ConnectException("Connection refused"))));
+
+        UpstreamCallException unexpected = UpstreamFailures.classify("get user roles", new NullPointerException());
+        assertSame(UpstreamCallException.class, unexpected.getClass());
+        assertEquals("Failed to get user roles", unexpected.getMessage());
+    }
+
+    @Test
+    public void testOnlyUnexpectedFailuresCaptureAStack() {
+        assertEquals(0, UpstreamFailures.classify("a", new ConnectException()).getStackTrace().length);
+        assertEquals(0, new UpstreamSaturatedException("full").getStackTrace().length);
+        assertTrue(UpstreamFailures.classify("a", new IllegalStateException()).getStackTrace().length > 0);
+    }
+
+    @Test
+    public void testThrottledLogAdmitsOncePerIntervalAndCountsRepeats() {
+        ThrottledErrorLog log = new ThrottledErrorLog(LoggerFactory.getLogger(UpstreamFailuresTest.class), 1000);
+        long now = 5_000_000_000L;
+
+        assertEquals(0, log.admit("find-users:timeout", now));
+        assertEquals(-1, log.admit("find-users:timeout", now + 1));
+        assertEquals(-1, log.admit("find-users:timeout", now + 999_000_000L));
+        assertEquals(0, log.admit("get-roles:timeout", now + 2));
+        assertEquals(2, log.admit("find-users:timeout", now + 1_000_000_000L));
+    }
+
+    private static SoapFaultClientException fault(BiConsumer<SoapBody, String> addFault, String reason) throws Exception {
+        SaajSoapMessageFactory messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        SoapMessage message = messageFactory.createWebServiceMessage();
+        addFault.accept(message.getSoapBody(), reason);
+        return new SoapFaultClientException(message);
+    }
+}
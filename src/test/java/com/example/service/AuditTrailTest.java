@@ -0,0 +1,77 @@
+package com.example.service;
+
+import com.example.config.AuditProperties;
+import com.example.config.MappedAppendFile;
+import com.example.generated.UserIdentity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditTrailTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testEventsAreWrittenAsJsonLines() throws IOException {
+        AuditTrail trail = new AuditTrail(properties(), new SimpleMeterRegistry());
+
+        AuditEvent event = new AuditEvent("get-user-roles", "10.0.0.1", 0, System.nanoTime());
+        AuditContext.begin(event);
+        try {
+            AuditContext.user(new UserIdentity()
+                .withAuthenticationSystemIdentifier("A")
+                .withAuthorizationSystemIdentifier("Z")
+                .withUserLoginName("jdoe"));
+            AuditContext.resultCount(2);
+        } finally {
+            AuditContext.clear();
+        }
+        event.complete(200);
+        assertTrue(trail.submit(event));
+
+        AuditEvent rejected = new AuditEvent("find-users", "10.0.0.2", 1000, System.nanoTime());
+        rejected.setCaller("app1", "host1");
+        rejected.complete(429);
+        assertTrue(trail.submit(rejected));
+
+        // Outside a request the context calls do nothing
+        AuditContext.resultCount(5);
+        trail.close();
+
+        List<String> lines = Files.readAllLines(MappedAppendFile.files(directory, AuditTrail.FILE_PREFIX).get(0));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"time\":\"1970-01-01T00:00:00Z\",\"operation\":\"get-user-roles\","
+            + "\"remoteAddress\":\"10.0.0.1\",\"subjectType\":\"user\",\"subject\":\"A:Z:jdoe\",\"resultCount\":2,"), lines.get(0));
+        assertTrue(lines.get(0).endsWith(",\"status\":200,\"outcome\":\"SUCCESS\"}"), lines.get(0));
+        assertTrue(lines.get(1).contains("\"applicationId\":\"app1\",\"requestHost\":\"host1\""), lines.get(1));
+        assertTrue(lines.get(1).endsWith(",\"status\":429,\"outcome\":\"REJECTED\"}"), lines.get(1));
+    }
+
+    @Test
+    public void testEventsAfterCloseAreCountedAsDropped() {
+        AuditTrail trail = new AuditTrail(properties(), new SimpleMeterRegistry());
+        trail.close();
+
+        AuditEvent event = new AuditEvent("health", null, 0, System.nanoTime());
+        event.complete(500);
+        assertEquals(AuditEvent.Outcome.FAILED, event.getOutcome());
+        assertFalse(trail.submit(event));
+        assertEquals(1, trail.getDropped());
+    }
+
+    private AuditProperties properties() {
+        AuditProperties properties = new AuditProperties();
+        properties.setDirectory(directory.toString());
+        properties.setFileBytes(1 << 16);
+        properties.setFlushIntervalMs(10);
+        return properties;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.service;
+
+import com.example.generated.ListType;
+import com.example.generated.RequestToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkExportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testCheckpointStopsAtFailedPairWithoutProgressRecords() throws Exception {
+        BulkExportService service = new BulkExportService(new FakeSoapClient(), objectMapper, 1, 100, 0);
+        try {
+            List<BulkExportService.ExportPair> pairs = service.expandPairs(
+                List.of("O1", "FAIL", "O3", "O4"), List.of("ADMIN"), null);
+
+            List<JsonNode> records = export(service, pairs, 0);
+            assertEquals(List.of("started", "result", "error", "result", "result", "complete"),
+                records.stream().map(record -> record.get("type").asText()).toList());
+            JsonNode complete = records.get(records.size() - 1);
+            assertEquals(4, complete.get("completed").asInt());
+            assertEquals(1, complete.get("failed").asInt());
+            // The failed pair is not behind the checkpoint, so resuming from it retries that pair
+            assertEquals(1, complete.get("checkpoint").asInt());
+
+            List<JsonNode> resumed = export(service, pairs, complete.get("checkpoint").asInt());
+            assertEquals("FAIL", resumed.get(1).get("officeId").asText());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private List<JsonNode> export(BulkExportService service, List<BulkExportService.ExportPair> pairs,
+                                  int resumeFrom) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(pairs, new RequestToken(), 1, resumeFrom, out);
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            records.add(objectMapper.readTree(line));
+        }
+        return records;
+    }
+
+    /**
+     * Answers every office but FAIL with one user
+     */
+    private static class FakeSoapClient extends AuthorizationSoapClientService {
+
+        FakeSoapClient() {
+            super(null, null, null);
+        }
+
+        @Override
+        public ListType findUsersByCriteria(String officeId, String roleName, RequestToken requestToken) {
+            if (officeId.equals("FAIL")) {
+                throw new IllegalStateException("Failed to find users by criteria");
+            }
+            return new ListType().withListValue(officeId + "-user");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.service;
+
+import com.example.cache.CompactStringList;
+import com.example.cache.LookupCache;
+import com.example.cache.SymbolTable;
+import com.example.config.MirrorProperties;
+import com.example.generated.ListType;
+import com.example.generated.MapEntry;
+import com.example.generated.RequestToken;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DirectoryMirrorServiceTest {
+
+    @Test
+    public void testIdentityKeyRoundTripsAndSkipsMalformedParts() {
+        String key = DirectoryMirrorService.identityKey(List.of(
+            new MapEntry().withKey("mail").withValue("jdoe@example.com"),
+            new MapEntry().withKey("cn").withValue("John Doe")));
+
+        List<MapEntry> criteria = DirectoryMirrorService.identityCriteria(DirectoryMirrorService.splitKey(key));
+        assertEquals(List.of("cn", "mail"), criteria.stream().map(MapEntry::getKey).toList());
+        assertEquals("jdoe@example.com", criteria.get(1).getValue());
+
+        // The key of a search without criteria, and a part without a separator, yield nothing
+        assertEquals("", DirectoryMirrorService.identityKey(List.of()));
+        assertTrue(DirectoryMirrorService.identityCriteria(DirectoryMirrorService.splitKey("")).isEmpty());
+        assertEquals(1, DirectoryMirrorService.identityCriteria(
+            DirectoryMirrorService.splitKey(DirectoryMirrorService.joinKey("garbage", "cn" + DirectoryMirrorService.CRITERION_SEPARATOR + "x"))).size());
+    }
+
+    @Test
+    public void testSymbolTablesAreRebuiltFromLiveEntries() {
+        MirrorProperties properties = new MirrorProperties();
+        properties.setEnabled(true);
+        FakeSoapClient client = new FakeSoapClient();
+        DirectoryMirrorService mirror = new DirectoryMirrorService(client, new SoapRequestBuilderService(), properties);
+
+        for (int office = 0; office < 5; office++) {
+            mirror.findUsersByCriteria("office" + office, "ADMIN", null);
+        }
+        assertEquals(16, users(mirror).size());
+
+        // 12 of the 16 user symbols are dead; too small a table to rebuild unless forced
+        for (int office = 1; office < 5; office++) {
+            mirror.invalidateOffice("office" + office);
+        }
+        assertEquals(0, mirror.compactSymbolTables(false));
+        assertEquals(12, mirror.compactSymbolTables(true));
+        assertEquals(4, users(mirror).size());
+
+        ListType users = mirror.findUsersByCriteria("office0", "ADMIN", null);
+        assertEquals(List.of("office0-user0", "office0-user1", "office0-user2", "shared"), users.getListValue());
+        assertEquals(5, client.calls.get());
+
+        mirror.invalidateAll(null);
+        assertEquals(0, users(mirror).size());
+    }
+
+    @Test
+    public void testRefreshAheadKeepsReadThroughEntriesUnpinned() throws InterruptedException {
+        MirrorProperties properties = new MirrorProperties();
+        properties.setEnabled(true);
+        FakeSoapClient client = new FakeSoapClient();
+        DirectoryMirrorService mirror = new DirectoryMirrorService(client, new SoapRequestBuilderService(), properties);
+        LookupCache<CompactStringList> cache = mirror.cache("usersByCriteria");
+        String key = DirectoryMirrorService.usersKey("office0", "ADMIN");
+
+        mirror.findUsersByCriteria("office0", "ADMIN", null);
+        mirror.reload(cache, key, false);
+        assertEquals(2, client.calls.get());
+        assertFalse(cache.getEntry(key).isPinned());
+
+        // Once its traffic stops it still expires, where a scope reload would have kept it
+        cache.setTtlMillis(0);
+        Thread.sleep(2);
+        assertEquals(1, cache.evictExpired(0));
+        assertNull(cache.getEntry(key));
+
+        cache.setTtlMillis(properties.getStalenessMs());
+        mirror.reload(cache, key, true);
+        assertTrue(cache.getEntry(key).isPinned());
+    }
+
+    private static SymbolTable users(DirectoryMirrorService mirror) {
+        return mirror.symbolTables().stream().filter(table -> table.getName().equals("users")).findFirst().orElseThrow();
+    }
+
+    private static class FakeSoapClient extends AuthorizationSoapClientService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        FakeSoapClient() {
+            super(null, null, null);
+        }
+
+        @Override
+        public ListType findUsersByCriteria(String officeId, String roleName, RequestToken requestToken) {
+            calls.incrementAndGet();
+            return new ListType().withListValue(officeId + "-user0", officeId + "-user1", officeId + "-user2", "shared");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.service;
+
+import com.example.config.RateLimitProperties;
+import com.example.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitServiceTest {
+
+    @Test
+    public void testApplicationRejectionDoesNotSpendTheEndpointBudget() throws InterruptedException {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(true);
+        properties.setDefaultLimit(new RateLimitProperties.Limit(20, 1));
+        // One bulk export, ever, within the test
+        properties.getEndpoints().put("bulk-export", new RateLimitProperties.Limit(0.001, 1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimitService service = new RateLimitService(properties, registry);
+
+        service.acquire("app", "find-users");
+        // The application bucket is empty, so this is rejected there and the endpoint token is returned
+        assertThrows(RateLimitExceededException.class, () -> service.acquire("app", "bulk-export"));
+
+        Thread.sleep(100);
+        service.acquire("app", "bulk-export");
+
+        Thread.sleep(100);
+        RateLimitExceededException rejected = assertThrows(RateLimitExceededException.class,
+            () -> service.acquire("app", "bulk-export"));
+        assertTrue(rejected.getRetryAfterSeconds() > 60, String.valueOf(rejected.getRetryAfterSeconds()));
+
+        assertEquals(1, registry.get("authorization.rate-limit.requests")
+            .tags("application", "app", "endpoint", "bulk-export", "outcome", "admitted").counter().count());
+        assertEquals(2, registry.get("authorization.rate-limit.requests")
+            .tags("application", "app", "endpoint", "bulk-export", "outcome", "rejected").counter().count());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultLimit(new RateLimitProperties.Limit(0.001, 1));
+        RateLimitService service = new RateLimitService(properties, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 10; i++) {
+            service.acquire("app", "find-users");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.service;
+
+import com.example.config.UpstreamProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamPermitSchedulerTest {
+
+    @Test
+    public void testLowerClassesCannotUseInteractiveReserve() throws Exception {
+        UpstreamPermitScheduler scheduler = scheduler(2, 1);
+
+        scheduler.acquire(UpstreamPriority.BACKGROUND);
+        assertThrows(TimeoutException.class,
+            () -> scheduler.acquire(UpstreamPriority.BATCH, TimeUnit.MILLISECONDS.toNanos(50)));
+
+        scheduler.acquire(UpstreamPriority.INTERACTIVE, 0);
+        assertEquals(1, scheduler.inUse(UpstreamPriority.INTERACTIVE));
+        assertEquals(0, scheduler.waiting(UpstreamPriority.BATCH));
+    }
+
+    @Test
+    public void testBackgroundIsNotStarvedByWaitingInteractiveCalls() throws Exception {
+        UpstreamPermitScheduler scheduler = scheduler(1, 0);
+        List<UpstreamPriority> grantOrder = Collections.synchronizedList(new ArrayList<>());
+        scheduler.acquire(UpstreamPriority.INTERACTIVE);
+
+        List<Thread> threads = new ArrayList<>();
+        threads.add(waiter(scheduler, UpstreamPriority.BACKGROUND, grantOrder));
+        awaitWaiting(scheduler, UpstreamPriority.BACKGROUND, 1);
+        for (int i = 0; i < 6; i++) {
+            threads.add(waiter(scheduler, UpstreamPriority.INTERACTIVE, grantOrder));
+        }
+        awaitWaiting(scheduler, UpstreamPriority.INTERACTIVE, 6);
+
+        scheduler.release(UpstreamPriority.INTERACTIVE);
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        assertEquals(7, grantOrder.size());
+        // Strict priority would serve every interactive call first;
+        // smooth weighted round-robin serves it before the interactive queue drains
+        assertTrue(grantOrder.indexOf(UpstreamPriority.BACKGROUND) < 6, grantOrder.toString());
+    }
+
+    private static UpstreamPermitScheduler scheduler(int maxConcurrent, int interactiveReserve) {
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.setMaxConcurrent(maxConcurrent);
+        properties.setInteractiveReserve(interactiveReserve);
+        properties.setInteractiveWeight(3);
+        properties.setBackgroundWeight(1);
+        return new UpstreamPermitScheduler(properties, new SimpleMeterRegistry());
+    }
+
+    private static Thread waiter(UpstreamPermitScheduler scheduler, UpstreamPriority priority,
+                                 List<UpstreamPriority> grantOrder) {
+        Thread thread = new Thread(() -> {
+            try {
+                scheduler.acquire(priority);
+                grantOrder.add(priority);
+                scheduler.release(priority);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(UpstreamPermitScheduler scheduler, UpstreamPriority priority, int count)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.waiting(priority) < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, scheduler.waiting(priority));
+    }
+}
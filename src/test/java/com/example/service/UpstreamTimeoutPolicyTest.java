@@ -0,0 +1,50 @@
+package com.example.service;
+
+import com.example.config.UpstreamProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamTimeoutPolicyTest {
+
+    @AfterEach
+    public void clearContext() {
+        UpstreamCallContext.clear();
+    }
+
+    @Test
+    public void testAdaptiveTimeoutFollowsLatencyWithinBounds() {
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.getTimeouts().getOperations().put("GetUserRolesRequest", 5000L);
+        properties.getTimeouts().getAdaptive().setEnabled(true);
+        properties.getTimeouts().getAdaptive().setMinSamples(32);
+        UpstreamTimeoutPolicy policy = new UpstreamTimeoutPolicy(properties);
+
+        assertEquals(5000, policy.readTimeoutMillis("GetUserRolesRequest"));
+        for (int i = 0; i < 64; i++) {
+            policy.recordLatency("GetUserRolesRequest", TimeUnit.MILLISECONDS.toNanos(200));
+        }
+        assertEquals(400, policy.readTimeoutMillis("GetUserRolesRequest"));
+
+        for (int i = 0; i < 512; i++) {
+            policy.recordLatency("GetUserRolesRequest", TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        assertEquals(250, policy.readTimeoutMillis("GetUserRolesRequest"));
+        assertEquals(30000, policy.readTimeoutMillis("FindUsersByCriteriaRequest"));
+    }
+
+    @Test
+    public void testDeadlineCapsTimeouts() {
+        UpstreamTimeoutPolicy policy = new UpstreamTimeoutPolicy(new UpstreamProperties());
+        UpstreamCallContext.setDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(800));
+
+        assertTrue(policy.readTimeoutMillis("GetUserRolesRequest") <= 800);
+        assertTrue(policy.connectTimeoutMillis() <= 800);
+
+        UpstreamCallContext.setDeadline(System.nanoTime() - 1);
+        assertEquals(1, policy.readTimeoutMillis("GetUserRolesRequest"));
+    }
+}
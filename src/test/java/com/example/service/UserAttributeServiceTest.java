@@ -0,0 +1,135 @@
+package com.example.service;
+
+import com.example.exception.UpstreamNotFoundException;
+import com.example.exception.UpstreamTimeoutException;
+import com.example.generated.GetListAttributeResponse;
+import com.example.generated.GetSimpleAttributeResponse;
+import com.example.generated.ListType;
+import com.example.generated.UserIdentity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserAttributeServiceTest {
+
+    private static final UserIdentity USER = new UserIdentity()
+        .withAuthenticationSystemIdentifier("A")
+        .withAuthorizationSystemIdentifier("Z")
+        .withUserLoginName("jdoe");
+
+    private UserAttributeService service;
+
+    @AfterEach
+    public void shutdown() {
+        if (service != null) {
+            service.shutdown();
+        }
+        UpstreamCallContext.clear();
+    }
+
+    @Test
+    public void testAttributesAreFetchedConcurrentlyAndCachedIndividually() {
+        FakeSoapClient client = new FakeSoapClient(Map.of());
+        service = new UserAttributeService(client, 8, 5000, 50, 60000, 1000);
+        List<UserAttributeService.AttributeSpec> specs = List.of(
+            simple("title"), simple("phone"), list("groups"), simple("email"));
+
+        long start = System.nanoTime();
+        UserAttributeService.UserAttributes attributes = service.fetch(USER, specs);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 3 * FakeSoapClient.DELAY_MS, "4 attributes took " + elapsedMillis + " ms");
+        assertEquals(List.of("title", "phone", "groups", "email"), List.copyOf(attributes.getValues().keySet()));
+        assertEquals("title_value", attributes.getValues().get("title"));
+        assertEquals(List.of("groups_0"), attributes.getValues().get("groups"));
+        assertTrue(attributes.getErrors().isEmpty());
+        assertEquals(4, client.calls.get());
+
+        // Cached per attribute: only the new one is fetched
+        UserAttributeService.UserAttributes again = service.fetch(USER, List.of(simple("title"), simple("office")));
+        assertEquals("office_value", again.getValues().get("office"));
+        assertEquals(5, client.calls.get());
+    }
+
+    @Test
+    public void testOneDeadlineCoversTheWholeRequest() {
+        FakeSoapClient client = new FakeSoapClient(Map.of("slow", 5000L));
+        service = new UserAttributeService(client, 8, 400, 50, 60000, 1000);
+
+        long start = System.nanoTime();
+        UserAttributeService.UserAttributes attributes = service.fetch(USER,
+            List.of(simple("title"), simple("slow"), simple("missingFax")));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 2000, "request took " + elapsedMillis + " ms");
+        assertEquals(Map.of("title", "title_value"), attributes.getValues());
+        assertEquals("Failed to get simple attribute slow: request deadline exceeded", attributes.getErrors().get("slow"));
+        assertEquals("Failed to get simple attribute missingFax: Attribute not found", attributes.getErrors().get("missingFax"));
+    }
+
+    @Test
+    public void testFailureIsThrownWhenNothingCouldBeFetched() {
+        service = new UserAttributeService(new FakeSoapClient(Map.of("slow", 5000L, "slow2", 5000L)), 8, 200, 50, 60000, 1000);
+
+        assertThrows(UpstreamNotFoundException.class, () -> service.fetch(USER, List.of(simple("missingFax"))));
+        assertThrows(UpstreamTimeoutException.class, () -> service.fetch(USER, List.of(simple("slow"), list("slow2"))));
+        assertThrows(IllegalArgumentException.class, () -> service.fetch(USER, List.of(simple("a"), list("a"))));
+    }
+
+    private static UserAttributeService.AttributeSpec simple(String name) {
+        return new UserAttributeService.AttributeSpec(name, UserAttributeService.Kind.SIMPLE);
+    }
+
+    private static UserAttributeService.AttributeSpec list(String name) {
+        return new UserAttributeService.AttributeSpec(name, UserAttributeService.Kind.LIST);
+    }
+
+    /**
+     * Answers attribute calls after a delay; names starting with "missing" are not found, and
+     * names in {@code delays} take that long instead
+     */
+    private static class FakeSoapClient extends AuthorizationSoapClientService {
+        static final long DELAY_MS = 200;
+
+        final AtomicInteger calls = new AtomicInteger();
+        final Map<String, Long> delays;
+
+        FakeSoapClient(Map<String, Long> delays) {
+            super(null, null, null);
+            this.delays = new ConcurrentHashMap<>(delays);
+        }
+
+        @Override
+        public GetSimpleAttributeResponse getSimpleAttribute(UserIdentity userIdentity, String attributeName) {
+            answer(attributeName);
+            return new GetSimpleAttributeResponse().withAttributeName(attributeName).withStringValue(attributeName + "_value");
+        }
+
+        @Override
+        public GetListAttributeResponse getListAttribute(UserIdentity userIdentity, String attributeName) {
+            answer(attributeName);
+            return new GetListAttributeResponse().withAttributeName(attributeName)
+                .withListValues(new ListType().withListValue(attributeName + "_0"));
+        }
+
+        private void answer(String attributeName) {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(delays.getOrDefault(attributeName, DELAY_MS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (attributeName.startsWith("missing")) {
+                throw new UpstreamNotFoundException("Failed to get simple attribute " + attributeName + ": Attribute not found",
+                    null, "Server");
+            }
+        }
+    }
+}